@@ -8,9 +8,14 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.concurrent.TimeUnit;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
 
 @Epic("Authentication")
 @Feature("LOGIN Functionality")
@@ -18,6 +23,9 @@ import static org.hamcrest.Matchers.containsString;
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 public class LoginTest extends TestBase {
 
+    // Допустимые накладные расходы сервиса сверх задержки внешнего сервиса (после прогрева)
+    private static final long DELAY_OVERHEAD_MS = Long.getLong("login.delayOverheadMs", 1000);
+
     @Test
     @Tag("001")
     @DisplayName("Успешный LOGIN с валидным токеном")
@@ -95,21 +103,26 @@ public class LoginTest extends TestBase {
     @DisplayName("LOGIN с задержкой ответа внешнего сервиса")
     @Severity(MINOR)
     void loginWithExternalServiceDelay() {
-        Allure.step("1. Настройка мока с задержкой 1500ms", () -> {
+        // Без прогрева замер включал бы JIT, загрузку классов и установку соединений первого запроса
+        Allure.step("1. Прогрев сервиса до установившегося режима", () -> {
+            warmUpService();
+        });
+
+        Allure.step("2. Настройка мока с задержкой 1500ms", () -> {
             wireMockServer.stubFor(post("/auth")
                     .willReturn(ok().withFixedDelay(1500)));
             Allure.addAttachment("Конфигурация", "text/plain",
                     "/auth → 200 OK с задержкой 1.5 секунды");
         });
 
-        String token = Allure.step("2. Генерация токена", () -> {
+        String token = Allure.step("3. Генерация токена", () -> {
             String t = generateToken();
             Allure.addAttachment("Токен", "text/plain", t);
             return t;
         });
 
-        Allure.step("3. Отправка запроса с задержкой", () -> {
-            long startTime = System.currentTimeMillis();
+        Allure.step("4. Отправка запроса с задержкой", () -> {
+            long startTime = System.nanoTime();
 
             Allure.addAttachment("Ожидание", "text/plain",
                     "Система должна корректно обработать запрос несмотря на задержку внешнего сервиса");
@@ -123,13 +136,16 @@ public class LoginTest extends TestBase {
                     .statusCode(200)
                     .body("result", org.hamcrest.Matchers.equalTo("OK"));
 
-            long endTime = System.currentTimeMillis();
-            long duration = endTime - startTime;
+            long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
 
             Allure.addAttachment("Результат", "text/plain",
                     "✓ Запрос выполнен за " + duration + "ms\n" +
                             "✓ Система дождалась ответа внешнего сервиса\n" +
                             "✓ LOGIN успешно завершен");
+
+            // После прогрева сверх задержки мока остаются только накладные расходы сервиса
+            assertThat("Сервис не дождался задержки внешнего сервиса", duration, greaterThanOrEqualTo(1500L));
+            assertThat("Накладные расходы сверх задержки мока", duration - 1500, lessThan(DELAY_OVERHEAD_MS));
         });
     }
 
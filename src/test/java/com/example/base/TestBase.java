@@ -1,6 +1,8 @@
 package com.example.base;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.qameta.allure.Allure;
 import io.qameta.allure.restassured.AllureRestAssured;
 import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
@@ -9,46 +11,98 @@ import io.restassured.filter.log.ResponseLoggingFilter;
 import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import com.example.load.EndpointRequest;
+import com.example.load.LoadConfig;
+import com.example.load.SteadyStateDetector;
+import com.example.load.WarmUp;
+import com.example.mock.MockEndpointPublisher;
+import com.example.mock.MockSaturationMonitor;
+import com.example.mock.MockThreading;
+import com.example.mock.RemoteWireMockServer;
+import com.example.mock.StatefulExternalService;
+import com.example.mock.UpstreamTimeline;
+import com.example.mock.VirtualTimeDelays;
+import com.example.mock.WireMockProcess;
+import com.example.profiling.FlightRecorderExtension;
+import com.example.profiling.HarnessCostExtension;
+import com.example.profiling.JfrEndpointFilter;
+import com.example.profiling.JfrServeEvents;
+import com.example.tracing.TraceContext;
+import com.example.tracing.TraceparentFilter;
+import com.example.utils.RunSeed;
 import com.example.utils.TestDataGenerator;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
 
+// Запись JFR на класс и сводка на тест при -Djfr.enabled=true (см. FlightRecording);
+// затраты harness (аллокации и CPU) на setUp и тело каждого теста, бюджеты - @HarnessBudget
+@ExtendWith({FlightRecorderExtension.class, HarnessCostExtension.class})
 public class TestBase {
 
     protected static WireMockServer wireMockServer;
     protected static final String BASE_URL = "http://localhost:8080";
-    protected static final String MOCK_URL = "http://localhost:8888";
-    protected static final String API_KEY = "qazWSXedc";
+    // Фактический адрес WireMock после запуска (порт: -Dwiremock.port, 0 - эфемерный, см. MockEndpointPublisher)
+    protected static String mockUrl = "http://localhost:" + MockEndpointPublisher.DEFAULT_PORT;
+    protected static final String API_KEY = EndpointRequest.DEFAULT_API_KEY;
+
+    // Расширение WireMock с состоянием (сессии, квоты, 429); подключается через externalService.install(...)
+    protected static final StatefulExternalService externalService = new StatefulExternalService();
+
+    // Задержки в виртуальном времени для тестов таймаутов (см. VirtualTimeDelays.withVirtualDelay)
+    protected static final VirtualTimeDelays virtualDelays = new VirtualTimeDelays();
+
+    // Приход и уход запросов сервиса к /auth и /doAction для разбиения задержки (см. LatencyDecomposition)
+    protected static final UpstreamTimeline upstreamTimeline = new UpstreamTimeline();
+
+    // Пул Jetty и время удержания его потоков: насыщение WireMock под нагрузкой (см. MockSaturationMonitor)
+    protected static final MockSaturationMonitor mockSaturation = new MockSaturationMonitor();
+
+    // Итог прогрева сервиса (см. warmUpService), один на JVM
+    private static WarmUp.Result serviceWarmUp;
 
     @BeforeAll
     static void setUpAll() {
+        RunSeed.publish();
         System.out.println("=== [INFO] Starting WireMock ===");
 
-        int port = 8888;
+        int port = MockEndpointPublisher.initialPort();
         int maxRetries = 3;
 
         for (int i = 0; i < maxRetries; i++) {
             try {
-                wireMockServer = new WireMockServer(options().port(port));
+                // -Dwiremock.process=true: WireMock в отдельной JVM, управление через admin API (см. WireMockProcess)
+                wireMockServer = WireMockProcess.enabled() ? new RemoteWireMockServer(port) : new WireMockServer(wireMockOptions(port));
                 wireMockServer.start();
-                System.out.println("=== [INFO] WireMock started on port " + port + " ===");
+                System.out.println("=== [INFO] WireMock started on port " + port
+                        + (WireMockProcess.enabled() ? " (separate process)" : "") + " ===");
                 break;
             } catch (Exception e) {
-                System.out.println("=== [WARN] Failed to start on port " + port + ", trying " + (port + 1) + " ===");
-                port++;
+                int next = MockEndpointPublisher.nextPort(port);
+                System.out.println("=== [WARN] Failed to start on port " + port + ", trying " + next + " ===");
+                port = next;
                 if (i == maxRetries - 1) {
                     throw new RuntimeException("Cannot start WireMock after " + maxRetries + " attempts", e);
                 }
             }
         }
 
+        // Сервису передается фактический адрес (файл конфигурации и/или перезапуск, если заданы)
+        mockUrl = "http://localhost:" + wireMockServer.port();
+        MockEndpointPublisher.publish(mockUrl, BASE_URL);
+
         configureWireMockDefaults();
 
         // Базовые фильтры для всех запросов
+        // traceparent (только -Dtracing.restAssured=true) добавляется первым, чтобы попасть в лог запроса
+        if (TraceContext.restAssured()) {
+            RestAssured.filters(new TraceparentFilter());
+        }
         RestAssured.filters(
                 new RequestLoggingFilter(),
-                new ResponseLoggingFilter()
+                new ResponseLoggingFilter(),
+                new JfrEndpointFilter()
         );
 
         // Проверяем, что WireMock отвечает
@@ -70,6 +124,19 @@ public class TestBase {
         }
     }
 
+    /**
+     * Конфигурация WireMock: расширения harness; потоки и асинхронные ответы - см. MockThreading
+     * (по умолчанию как в WireMock, асинхронные ответы - в профиле load)
+     */
+    static WireMockConfiguration wireMockOptions(int port) {
+        return MockThreading.apply(options()
+                .port(port)
+                .extensions(externalService, virtualDelays, new JfrServeEvents(),
+                        upstreamTimeline.arrivals(), upstreamTimeline.departures(),
+                        mockSaturation.serveStart(), mockSaturation.serveEnd())
+                .threadPoolFactory(mockSaturation));
+    }
+
     static void configureWireMockDefaults() {
         // Настройка WireMock для ответа 200 на любые запросы по умолчанию
         wireMockServer.stubFor(post(urlPathMatching("/auth|/doAction"))
@@ -84,10 +151,19 @@ public class TestBase {
         System.out.println("=== [SETUP] Starting test: " + testInfo.getDisplayName() +
                 " in thread: " + Thread.currentThread().getName() + " ===");
 
+        // Данные теста не зависят от того, какие тесты запускались до него; отображаемое имя
+        // различает вызовы параметризованного теста ("[2] ...")
+        TestDataGenerator.reseed(testInfo.getTestClass().map(Class::getName).orElse("")
+                + "#" + testInfo.getTestMethod().map(java.lang.reflect.Method::getName).orElse("")
+                + "#" + testInfo.getDisplayName());
+
         // Сброс WireMock перед каждым тестом
         if (wireMockServer != null) {
             wireMockServer.resetAll();
             configureWireMockDefaults();
+            externalService.reset();
+            virtualDelays.reset();
+            upstreamTimeline.reset();
         }
 
         RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
@@ -96,11 +172,21 @@ public class TestBase {
     @AfterAll
     static void tearDownAll() {
         if (wireMockServer != null && wireMockServer.isRunning()) {
+            virtualDelays.releaseAll();
             wireMockServer.stop();
             System.out.println("=== [INFO] WireMock stopped ===");
         }
     }
 
+    /**
+     * Пропустить тест, если WireMock запущен отдельным процессом: состояние расширений
+     * (externalService, virtualDelays, upstreamTimeline) тогда находится в другой JVM
+     */
+    protected static void assumeInProcessMock() {
+        Assumptions.assumeFalse(wireMockServer instanceof RemoteWireMockServer,
+                "WireMock runs in a separate process, extension state is not visible to the test");
+    }
+
     // ==================== ОСНОВНЫЕ МЕТОДЫ ДЛЯ ТЕСТОВ ====================
 
     /**
@@ -145,6 +231,46 @@ public class TestBase {
                 .accept(ContentType.JSON);
     }
 
+    /**
+     * RequestSpecification для строк матричного прогона (MatrixSweep): без Allure и
+     * логирующих фильтров, т.к. запросы идут из пула вне контекста теста,
+     * запрос и ответ прикладываются к результату строки отдельно
+     */
+    protected RequestSpecification givenForMatrix() {
+        return givenSimple().noFilters();
+    }
+
+    /**
+     * Прогреть сервис и путь REST Assured сессиями LOGIN/ACTION/LOGOUT до установившегося режима
+     * (SteadyStateDetector, параметры -Dload.warmup*), один раз на JVM. Вызывать до настройки своих стабов:
+     * прогрев идет на стабах по умолчанию, его запросы затем стираются из журнала WireMock
+     */
+    protected WarmUp.Result warmUpService() {
+        synchronized (TestBase.class) {
+            if (serviceWarmUp == null) {
+                serviceWarmUp = WarmUp.run("service via REST Assured", 1, LoadConfig.warmUpMaxDuration(),
+                        SteadyStateDetector.fromConfig(), (random, detector) -> {
+                            String token = TestDataGenerator.generateValidToken(random);
+                            for (String action : new String[]{"LOGIN", "ACTION", "LOGOUT"}) {
+                                long start = System.nanoTime();
+                                givenForMatrix().formParam("token", token).formParam("action", action).post("/endpoint");
+                                detector.record(System.nanoTime() - start);
+                            }
+                        });
+                // Первый запрос через given() грузит шаблоны Allure и Groovy-проверку тела ответа:
+                // прогоняем этот путь один раз, иначе его стоимость попала бы в первый замер теста
+                given().formParam("token", TestDataGenerator.generateValidToken(RunSeed.random("warmup-service")))
+                        .formParam("action", "LOGIN")
+                        .when().post("/endpoint")
+                        .then().body("result", org.hamcrest.Matchers.anything());
+                wireMockServer.resetRequests();
+                upstreamTimeline.clear();
+            }
+        }
+        Allure.addAttachment("Прогрев", "text/plain", serviceWarmUp.toString());
+        return serviceWarmUp;
+    }
+
     /**
      * Получить RequestSpecification для WireMock запросов
      */
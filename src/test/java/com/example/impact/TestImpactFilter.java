@@ -0,0 +1,118 @@
+package com.example.impact;
+
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.TestTag;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Выбор тестов по влиянию изменений (подключается через META-INF/services).
+ *
+ * Без параметров ничего не фильтрует. Параметры (можно сочетать):
+ * -Dimpact.areas=auth,security     - измененные области поведения сервиса (см. test-impact.properties)
+ * -Dimpact.changed=path1,path2     - измененные файлы
+ * -Dimpact.since=origin/main       - измененные файлы по git diff относительно ref (+ неотслеживаемые)
+ *
+ * Пример для PR: mvn test -Dimpact.since=origin/main
+ */
+public class TestImpactFilter implements PostDiscoveryFilter {
+
+    private TestSelection selection;
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        TestSource source = descriptor.getSource().orElse(null);
+        if (!(source instanceof MethodSource)) {
+            // Классы и движки не фильтруем: пустые контейнеры отсекает сам Launcher
+            return FilterResult.included("container");
+        }
+        TestSelection current = selection();
+        Set<String> tags = descriptor.getTags().stream().map(TestTag::getName).collect(Collectors.toSet());
+        String className = ((MethodSource) source).getClassName();
+        return current.includes(className, tags)
+                ? FilterResult.included("affected by change")
+                : FilterResult.excluded("not affected: " + current.summary());
+    }
+
+    private synchronized TestSelection selection() {
+        if (selection == null) {
+            selection = resolve();
+        }
+        return selection;
+    }
+
+    private static TestSelection resolve() {
+        List<String> areas = csv(System.getProperty("impact.areas"));
+        List<String> changed = new ArrayList<>(csv(System.getProperty("impact.changed")));
+        String since = System.getProperty("impact.since");
+        if (since != null && !since.isBlank()) {
+            changed.addAll(changedSince(since.trim()));
+        }
+
+        boolean requested = !areas.isEmpty() || !changed.isEmpty() || since != null;
+        if (!requested) {
+            return TestSelection.ALL_TESTS;
+        }
+
+        TestSelection result = TestImpactMap.load().select(areas, changed);
+        System.out.println("=== [IMPACT] areas=" + areas + ", changed files=" + changed.size()
+                + " -> " + result.summary() + " ===");
+        if (result.isEmpty()) {
+            System.out.println("=== [IMPACT] No tests affected by the change ===");
+        }
+        return result;
+    }
+
+    static List<String> changedSince(String ref) {
+        Set<String> files = new LinkedHashSet<>(git("diff", "--name-only", ref));
+        files.addAll(git("ls-files", "--others", "--exclude-standard"));
+        return new ArrayList<>(files);
+    }
+
+    private static List<String> git(String... args) {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            List<String> lines;
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                lines = reader.lines().map(String::trim).filter(line -> !line.isEmpty()).collect(Collectors.toList());
+            }
+            if (!process.waitFor(30, TimeUnit.SECONDS) || process.exitValue() != 0) {
+                throw new IllegalStateException("git " + String.join(" ", args) + " failed: " + lines);
+            }
+            return lines;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot run git " + String.join(" ", args), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted: git " + String.join(" ", args), e);
+        }
+    }
+
+    private static List<String> csv(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,342 @@
+package com.example.impact;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Карта влияния изменений на тесты.
+ *
+ * Две части:
+ * - области поведения сервиса и правила для путей вне src/test/java - из test-impact.properties
+ *   (ведется вручную, т.к. не выводится из кода);
+ * - зависимости тестовых классов от исходников обвязки (TestBase, utils, load, mock) -
+ *   вычисляются по import'ам и упоминаниям классов, транзитивно, и сохраняются в
+ *   target/test-impact/dependency-map.properties. Карта пересчитывается, только если
+ *   какой-либо исходник новее сохраненной.
+ */
+public final class TestImpactMap {
+
+    public static final String RULES_RESOURCE = "test-impact.properties";
+    public static final String ALL = "*";
+
+    private static final Pattern PACKAGE = Pattern.compile("^package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+    private static final Pattern IMPORT = Pattern.compile("^import\\s+(static\\s+)?([\\w.]+?)(\\.\\*)?\\s*;", Pattern.MULTILINE);
+    private static final Pattern TEST_METHOD =
+            Pattern.compile("^\\s*@(Test|TestFactory|ParameterizedTest|RepeatedTest)\\b", Pattern.MULTILINE);
+
+    private final Map<String, Set<String>> areaTags;
+    private final Map<String, Set<String>> pathRules;
+    private final Map<String, Set<String>> dependencies;
+
+    private TestImpactMap(Map<String, Set<String>> areaTags,
+                          Map<String, Set<String>> pathRules,
+                          Map<String, Set<String>> dependencies) {
+        this.areaTags = areaTags;
+        this.pathRules = pathRules;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Карта по умолчанию: правила из classpath, исходники из -Dimpact.sourceRoot
+     * (src/test/java), кэш зависимостей в -Dimpact.mapFile
+     */
+    public static TestImpactMap load() {
+        Properties rules = new Properties();
+        try (InputStream in = TestImpactMap.class.getClassLoader().getResourceAsStream(RULES_RESOURCE)) {
+            if (in != null) {
+                rules.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + RULES_RESOURCE, e);
+        }
+        return build(rules,
+                Paths.get(System.getProperty("impact.sourceRoot", "src/test/java")),
+                Paths.get(System.getProperty("impact.mapFile", "target/test-impact/dependency-map.properties")));
+    }
+
+    public static TestImpactMap build(Properties rules, Path sourceRoot, Path mapFile) {
+        Map<String, Set<String>> areaTags = new TreeMap<>();
+        Map<String, Set<String>> pathRules = new TreeMap<>();
+        for (String key : rules.stringPropertyNames()) {
+            Set<String> values = split(rules.getProperty(key));
+            if (key.startsWith("area.")) {
+                areaTags.put(key.substring("area.".length()), values);
+            } else if (key.startsWith("path.")) {
+                pathRules.put(key.substring("path.".length()), values);
+            }
+        }
+        return new TestImpactMap(areaTags, pathRules, dependencies(sourceRoot, mapFile));
+    }
+
+    public Set<String> areas() {
+        return areaTags.keySet();
+    }
+
+    /** Тестовый класс -> исходники, от которых он зависит (включая собственный) */
+    public Map<String, Set<String>> dependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Выбор тестов по измененным областям сервиса и измененным файлам
+     *
+     * @param areas        области из test-impact.properties (auth, security, ...)
+     * @param changedFiles пути относительно корня проекта, как их выдает git diff --name-only
+     */
+    public TestSelection select(Collection<String> areas, Collection<String> changedFiles) {
+        Set<String> tags = new TreeSet<>();
+        Set<String> classes = new TreeSet<>();
+        Set<String> ignored = new TreeSet<>();
+        boolean everything = false;
+
+        Deque<String> pendingAreas = new ArrayDeque<>(areas);
+        for (String file : changedFiles) {
+            String path = file.replace('\\', '/');
+            Set<String> dependants = dependants(path);
+            if (!dependants.isEmpty()) {
+                classes.addAll(dependants);
+                continue;
+            }
+            Set<String> ruleAreas = matchPathRule(path);
+            if (ruleAreas.isEmpty()) {
+                ignored.add(path);
+            } else if (ruleAreas.contains(ALL)) {
+                everything = true;
+            } else {
+                pendingAreas.addAll(ruleAreas);
+            }
+        }
+
+        for (String area : pendingAreas) {
+            if (ALL.equals(area)) {
+                everything = true;
+                continue;
+            }
+            Set<String> areaTagSet = areaTags.get(area);
+            if (areaTagSet == null) {
+                throw new IllegalArgumentException("Unknown impact area '" + area + "', known: " + areaTags.keySet());
+            }
+            tags.addAll(areaTagSet);
+        }
+        return new TestSelection(everything, tags, classes, ignored);
+    }
+
+    private Set<String> dependants(String path) {
+        return dependencies.entrySet().stream()
+                .filter(entry -> entry.getValue().contains(path))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private Set<String> matchPathRule(String path) {
+        Set<String> result = new TreeSet<>();
+        pathRules.forEach((prefix, values) -> {
+            if (path.equals(prefix) || (prefix.endsWith("/") && path.startsWith(prefix))) {
+                result.addAll(values);
+            }
+        });
+        return result;
+    }
+
+    // ==================== ЗАВИСИМОСТИ ИСХОДНИКОВ ====================
+
+    private static Map<String, Set<String>> dependencies(Path sourceRoot, Path mapFile) {
+        if (!Files.isDirectory(sourceRoot)) {
+            return readMap(mapFile);
+        }
+        List<Path> sources = javaSources(sourceRoot);
+        if (Files.exists(mapFile) && !newerThan(sources, mapFile)) {
+            return readMap(mapFile);
+        }
+        Map<String, Set<String>> computed = computeDependencies(sourceRoot, sources);
+        writeMap(mapFile, computed);
+        return computed;
+    }
+
+    static Map<String, Set<String>> computeDependencies(Path sourceRoot, List<Path> sources) {
+        Map<String, SourceFile> byName = new TreeMap<>();
+        for (Path source : sources) {
+            SourceFile file = SourceFile.parse(sourceRoot, source);
+            byName.put(file.qualifiedName, file);
+        }
+
+        // Прямые зависимости: класс из того же пакета, явно или через * импортированный и упомянутый в коде
+        Map<String, Set<String>> direct = new TreeMap<>();
+        for (SourceFile file : byName.values()) {
+            Set<String> uses = new TreeSet<>();
+            for (SourceFile other : byName.values()) {
+                if (other != file && file.canSee(other) && file.mentions(other.simpleName)) {
+                    uses.add(other.qualifiedName);
+                }
+            }
+            direct.put(file.qualifiedName, uses);
+        }
+
+        Map<String, Set<String>> result = new TreeMap<>();
+        for (SourceFile file : byName.values()) {
+            if (!file.isTestClass) {
+                continue;
+            }
+            Set<String> visited = new LinkedHashSet<>();
+            Deque<String> queue = new ArrayDeque<>(List.of(file.qualifiedName));
+            while (!queue.isEmpty()) {
+                String next = queue.poll();
+                if (visited.add(next)) {
+                    queue.addAll(direct.getOrDefault(next, Set.of()));
+                }
+            }
+            result.put(file.qualifiedName, visited.stream()
+                    .map(name -> byName.get(name).path)
+                    .collect(Collectors.toCollection(TreeSet::new)));
+        }
+        return result;
+    }
+
+    private static List<Path> javaSources(Path sourceRoot) {
+        try (Stream<Path> walk = Files.walk(sourceRoot)) {
+            return walk.filter(path -> path.toString().endsWith(".java")).sorted().collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot scan " + sourceRoot, e);
+        }
+    }
+
+    private static boolean newerThan(List<Path> sources, Path mapFile) {
+        try {
+            FileTime mapTime = Files.getLastModifiedTime(mapFile);
+            for (Path source : sources) {
+                if (Files.getLastModifiedTime(source).compareTo(mapTime) > 0) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private static Map<String, Set<String>> readMap(Path mapFile) {
+        Map<String, Set<String>> result = new TreeMap<>();
+        if (!Files.exists(mapFile)) {
+            return result;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(mapFile, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + mapFile, e);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            result.put(key, split(properties.getProperty(key)));
+        }
+        return result;
+    }
+
+    private static void writeMap(Path mapFile, Map<String, Set<String>> map) {
+        try {
+            Path parent = mapFile.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            try (Writer writer = Files.newBufferedWriter(mapFile, StandardCharsets.UTF_8)) {
+                writer.write("# Тестовый класс -> исходники, от которых он зависит (пересчитывается автоматически)\n");
+                for (Map.Entry<String, Set<String>> entry : map.entrySet()) {
+                    writer.write(entry.getKey() + "=" + String.join(",", entry.getValue()) + "\n");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write " + mapFile, e);
+        }
+    }
+
+    private static Set<String> split(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(item -> !item.isEmpty())
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static final class SourceFile {
+        final String path;
+        final String packageName;
+        final String simpleName;
+        final String qualifiedName;
+        final Set<String> imports = new TreeSet<>();
+        final Set<String> wildcardImports = new TreeSet<>();
+        final String content;
+        final boolean isTestClass;
+
+        private SourceFile(String path, String packageName, String simpleName, String content) {
+            this.path = path;
+            this.packageName = packageName;
+            this.simpleName = simpleName;
+            this.qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+            this.content = content;
+            this.isTestClass = TEST_METHOD.matcher(content).find();
+        }
+
+        static SourceFile parse(Path sourceRoot, Path source) {
+            String content;
+            try {
+                content = Files.readString(source, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read " + source, e);
+            }
+            Matcher packageMatcher = PACKAGE.matcher(content);
+            String packageName = packageMatcher.find() ? packageMatcher.group(1) : "";
+            String fileName = source.getFileName().toString();
+            String relative = Paths.get("").toAbsolutePath().relativize(source.toAbsolutePath())
+                    .toString().replace('\\', '/');
+
+            SourceFile file = new SourceFile(relative, packageName,
+                    fileName.substring(0, fileName.length() - ".java".length()), content);
+
+            Matcher importMatcher = IMPORT.matcher(content);
+            while (importMatcher.find()) {
+                String name = importMatcher.group(2);
+                boolean isStatic = importMatcher.group(1) != null;
+                boolean wildcard = importMatcher.group(3) != null;
+                if (isStatic) {
+                    // import static a.b.Type.member / a.b.Type.* - зависимость от Type
+                    file.imports.add(wildcard ? name : name.substring(0, Math.max(0, name.lastIndexOf('.'))));
+                } else if (wildcard) {
+                    file.wildcardImports.add(name);
+                } else {
+                    file.imports.add(name);
+                }
+            }
+            return file;
+        }
+
+        boolean canSee(SourceFile other) {
+            return other.packageName.equals(packageName)
+                    || imports.contains(other.qualifiedName)
+                    || wildcardImports.contains(other.packageName);
+        }
+
+        boolean mentions(String name) {
+            return Pattern.compile("\\b" + Pattern.quote(name) + "\\b").matcher(content).find();
+        }
+    }
+}
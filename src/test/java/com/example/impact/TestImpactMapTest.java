@@ -0,0 +1,105 @@
+package com.example.impact;
+
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Проверка карты влияния на синтетическом дереве исходников (сервис и WireMock не нужны)
+ */
+@Epic("Test Infrastructure")
+@Feature("Test Impact Selection")
+@Tag("impact")
+public class TestImpactMapTest {
+
+    @TempDir
+    Path sourceRoot;
+
+    @Test
+    @Tag("087")
+    @DisplayName("Выбор тестов по измененным файлам и областям сервиса")
+    @Severity(NORMAL)
+    void selectsAffectedTests() throws IOException {
+        Allure.description("Изменение файла обвязки выбирает все тестовые классы, транзитивно от него зависящие; " +
+                "область сервиса выбирает тесты по тегам; pom.xml - весь набор; README - ничего.");
+
+        Path base = source("com/example/base/Base.java", "package com.example.base;\n"
+                + "import com.example.utils.Tokens;\n"
+                + "public class Base { String token() { return Tokens.next(); } }\n");
+        Path tokens = source("com/example/utils/Tokens.java", "package com.example.utils;\n"
+                + "public class Tokens { public static String next() { return \"T\"; } }\n");
+        Path sweep = source("com/example/utils/Sweep.java", "package com.example.utils;\n"
+                + "/** Используется из @TestFactory */\n"
+                + "public class Sweep { }\n");
+        Path login = source("com/example/auth/LoginCase.java", "package com.example.auth;\n"
+                + "import com.example.base.Base;\n"
+                + "public class LoginCase extends Base {\n    @Test\n    void login() { }\n}\n");
+        Path matrix = source("com/example/security/MatrixCase.java", "package com.example.security;\n"
+                + "import com.example.base.*;\n"
+                + "import com.example.utils.Sweep;\n"
+                + "public class MatrixCase extends Base {\n    @TestFactory\n    Object rows() { return new Sweep(); }\n}\n");
+
+        Properties rules = new Properties();
+        rules.setProperty("area.auth", "auth, authentication");
+        rules.setProperty("path.pom.xml", TestImpactMap.ALL);
+
+        TestImpactMap map = Allure.step("1. Построение карты зависимостей", () -> {
+            TestImpactMap built = TestImpactMap.build(rules, sourceRoot, sourceRoot.resolve("map.properties"));
+            Allure.addAttachment("Зависимости", "text/plain", built.dependencies().toString());
+            return built;
+        });
+
+        Allure.step("2. В карте только тестовые классы, с транзитивными зависимостями", () -> {
+            assertThat(map.dependencies().keySet(),
+                    containsInAnyOrder("com.example.auth.LoginCase", "com.example.security.MatrixCase"));
+            assertThat(map.dependencies().get("com.example.auth.LoginCase"),
+                    hasItems(path(login), path(base), path(tokens)));
+            assertThat(map.dependencies().get("com.example.auth.LoginCase"), not(hasItem(path(sweep))));
+        });
+
+        Allure.step("3. Изменение файлов обвязки", () -> {
+            TestSelection onlyMatrix = map.select(List.of(), List.of(path(sweep)));
+            assertThat(onlyMatrix.classes(), contains("com.example.security.MatrixCase"));
+
+            TestSelection both = map.select(List.of(), List.of(path(tokens)));
+            assertThat(both.classes(),
+                    containsInAnyOrder("com.example.auth.LoginCase", "com.example.security.MatrixCase"));
+            Allure.addAttachment("Выбор", "text/plain", onlyMatrix.summary() + "\n" + both.summary());
+        });
+
+        Allure.step("4. Области сервиса и файлы вне исходников", () -> {
+            TestSelection auth = map.select(List.of("auth"), List.of());
+            assertThat(auth.includes("com.example.other.AnyTest", Set.of("authentication")), is(true));
+            assertThat(auth.includes("com.example.other.AnyTest", Set.of("security")), is(false));
+
+            assertThat(map.select(List.of(), List.of("pom.xml")).everything(), is(true));
+
+            TestSelection readme = map.select(List.of(), List.of("README.md"));
+            assertThat(readme.isEmpty(), is(true));
+            assertThat(readme.ignoredFiles(), contains("README.md"));
+
+            Assertions.assertThrows(IllegalArgumentException.class, () -> map.select(List.of("billing"), List.of()));
+        });
+    }
+
+    private Path source(String relative, String content) throws IOException {
+        Path file = sourceRoot.resolve(relative);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, content);
+    }
+
+    private static String path(Path file) {
+        return Path.of("").toAbsolutePath().relativize(file.toAbsolutePath()).toString().replace('\\', '/');
+    }
+}
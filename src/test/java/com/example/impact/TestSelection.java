@@ -0,0 +1,29 @@
+package com.example.impact;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Результат выбора тестов: весь набор, либо тесты с указанными тегами и указанные классы
+ */
+public record TestSelection(boolean everything, Set<String> tags, Set<String> classes, Set<String> ignoredFiles) {
+
+    public static final TestSelection ALL_TESTS = new TestSelection(true, Set.of(), Set.of(), Set.of());
+
+    public boolean includes(String className, Collection<String> testTags) {
+        return everything || classes.contains(className) || !Collections.disjoint(tags, testTags);
+    }
+
+    public boolean isEmpty() {
+        return !everything && tags.isEmpty() && classes.isEmpty();
+    }
+
+    public String summary() {
+        if (everything) {
+            return "full suite";
+        }
+        return "tags=" + tags + ", classes=" + classes
+                + (ignoredFiles.isEmpty() ? "" : ", files without tests=" + ignoredFiles);
+    }
+}
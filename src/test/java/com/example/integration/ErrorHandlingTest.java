@@ -1,9 +1,12 @@
 package com.example.integration;
 
 import com.example.base.TestBase;
+import com.example.mock.VirtualTimeDelays;
 import io.qameta.allure.*;
 import org.junit.jupiter.api.*;
 
+import java.time.Duration;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static io.qameta.allure.SeverityLevel.*;
 import static io.restassured.RestAssured.given;
@@ -72,10 +75,12 @@ public class ErrorHandlingTest extends TestBase {
         Allure.description("Эмуляция превышения времени ожидания подключения к внешнему сервису");
 
         Allure.step("1. Настройка мока с задержкой 30 секунд", () -> {
+            // Виртуальная задержка: ответ удерживается, пока сервис не закроет соединение,
+            // и поток WireMock освобождается сразу, а не через 30 секунд
             wireMockServer.stubFor(post("/auth")
-                    .willReturn(ok().withFixedDelay(30000)));
+                    .willReturn(VirtualTimeDelays.withVirtualDelay(ok(), Duration.ofSeconds(30))));
             Allure.addAttachment("Конфигурация", "text/plain",
-                    "Задержка ответа: 30000ms (30 секунд)\n" +
+                    "Задержка ответа: 30000ms (30 секунд, виртуальное время)\n" +
                             "Ожидание: превышение connection timeout");
         });
 
@@ -99,6 +104,8 @@ public class ErrorHandlingTest extends TestBase {
                     .body("result", org.hamcrest.Matchers.equalTo("ERROR"))
                     .body("message", org.hamcrest.Matchers.notNullValue());
 
+            virtualDelays.holds().forEach(hold ->
+                    Allure.addAttachment("Ожидание сервиса", "text/plain", hold.toString()));
             Allure.addAttachment("Результат", "text/plain",
                     "✓ Таймаут подключения обработан корректно\n" +
                             "✓ Статус 500 Internal Server Error\n" +
@@ -0,0 +1,145 @@
+package com.example.integration;
+
+import com.example.base.TestBase;
+import com.example.mock.VirtualTimeDelays;
+import io.qameta.allure.*;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Таймауты сервиса на виртуальных задержках WireMock ({@link VirtualTimeDelays}):
+ * ответы /auth удерживаются до явного release() или до закрытия соединения сервисом,
+ * поэтому момент, когда сервис сдался, измеряется на стороне мока с точностью до миллисекунды,
+ * а все пробы ждут одновременно, а не по очереди
+ */
+@Epic("Integration")
+@Feature("Virtual Time Timeouts")
+@Tag("integration")
+@Tag("timeouts")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class VirtualTimeTimeoutTest extends TestBase {
+
+    private static final int PROBES = 6;
+    private static final Duration MAX_WAIT = Duration.ofSeconds(Long.getLong("timeout.maxWaitSeconds", 60));
+    private static final long BOUNDARY_MARGIN_MILLIS = 200;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void requireInProcessMock() {
+        // Тест читает состояние virtualDelays в этой JVM
+        assumeInProcessMock();
+        Assumptions.assumeTrue(VirtualTimeDelays.detectsDisconnects(), "No /proc/net/tcp: service disconnects are not detected");
+    }
+
+    @BeforeAll
+    void startExecutor() {
+        executor = Executors.newFixedThreadPool(PROBES);
+    }
+
+    @AfterAll
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @Tag("089")
+    @DisplayName("Точное время ожидания внешнего сервиса и проверка границы без последовательных задержек")
+    @Severity(NORMAL)
+    void measureUpstreamReadTimeoutWithVirtualDelays() throws Exception {
+        Allure.description("Все пробы /auth удерживаются одновременно, пока сервис сам не закроет соединение: " +
+                "время удержания - фактический read timeout сервиса. Затем граница проверяется точно: " +
+                "ответ, отпущенный за " + BOUNDARY_MARGIN_MILLIS + " мс до таймаута, должен быть принят.");
+
+        Allure.step("1. Настройка /auth: ответ удерживается до release() или разрыва соединения", () -> {
+            wireMockServer.stubFor(post("/auth").atPriority(1)
+                    .willReturn(VirtualTimeDelays.heldUntilReleased(okJson("{\"status\":\"ok\"}"))));
+        });
+
+        List<CompletableFuture<Response>> probes = Allure.step("2. Одновременная отправка " + PROBES + " LOGIN", () -> {
+            List<CompletableFuture<Response>> sent = new ArrayList<>();
+            for (int i = 0; i < PROBES; i++) {
+                sent.add(login(generateToken()));
+            }
+            assertThat("Все пробы должны дойти до мока",
+                    virtualDelays.awaitArrivals(PROBES, Duration.ofSeconds(10)), is(true));
+            return sent;
+        });
+
+        double timeoutMillis = Allure.step("3. Ожидание, пока сервис сдастся по каждой пробе", () -> {
+            boolean settled = virtualDelays.awaitSettled(MAX_WAIT);
+            List<VirtualTimeDelays.Hold> holds = virtualDelays.holds();
+            Allure.addAttachment("Удержания", "text/plain", describe(holds));
+            assertThat("Сервис не закрыл соединение за " + MAX_WAIT.toSeconds() + " с (нет таймаута чтения?)",
+                    settled, is(true));
+
+            for (VirtualTimeDelays.Hold hold : holds) {
+                assertThat(hold.toString(), hold.outcome(), is(VirtualTimeDelays.Outcome.DISCONNECTED));
+            }
+            for (CompletableFuture<Response> probe : probes) {
+                assertThat(probe.get(10, TimeUnit.SECONDS).statusCode(), is(not(200)));
+            }
+
+            DoubleSummaryStatistics stats = holds.stream().mapToDouble(VirtualTimeDelays.Hold::heldMillis)
+                    .summaryStatistics();
+            String summary = String.format("read timeout: min %.1f ms, avg %.1f ms, max %.1f ms, spread %.1f ms",
+                    stats.getMin(), stats.getAverage(), stats.getMax(), stats.getMax() - stats.getMin());
+            Allure.addAttachment("Таймаут сервиса", "text/plain", summary);
+            System.out.println("=== [TIMEOUT] " + summary + " ===");
+            return stats.getMin();
+        });
+
+        Assumptions.assumeTrue(timeoutMillis > 2 * BOUNDARY_MARGIN_MILLIS,
+                "Таймаут сервиса слишком мал для проверки границы");
+
+        Allure.step("4. Граница: ответ за " + BOUNDARY_MARGIN_MILLIS + " мс до таймаута принимается", () -> {
+            virtualDelays.reset();
+            String token = generateToken();
+            CompletableFuture<Response> inTime = login(token);
+            assertThat(virtualDelays.awaitArrivals(1, Duration.ofSeconds(10)), is(true));
+
+            long releaseAt = (long) timeoutMillis - BOUNDARY_MARGIN_MILLIS;
+            VirtualTimeDelays.Hold hold = virtualDelays.holds().get(0);
+            while (hold.heldMillis() < releaseAt && hold.outcome() == VirtualTimeDelays.Outcome.PENDING) {
+                Thread.sleep(1);
+            }
+            virtualDelays.release(h -> token.equals(h.token()));
+
+            Response response = inTime.get(MAX_WAIT.toSeconds(), TimeUnit.SECONDS);
+            Allure.addAttachment("Удержание", "text/plain", hold.toString());
+            assertThat(hold.toString(), hold.outcome(), is(VirtualTimeDelays.Outcome.RELEASED));
+            assertThat(response.statusCode(), is(200));
+            assertThat(response.jsonPath().getString("result"), is("OK"));
+        });
+    }
+
+    private CompletableFuture<Response> login(String token) {
+        return CompletableFuture.supplyAsync(() -> givenForMatrix()
+                .formParam("token", token)
+                .formParam("action", "LOGIN")
+                .when()
+                .post("/endpoint"), executor);
+    }
+
+    private static String describe(List<VirtualTimeDelays.Hold> holds) {
+        StringBuilder text = new StringBuilder();
+        for (VirtualTimeDelays.Hold hold : holds) {
+            text.append(hold).append('\n');
+        }
+        return text.toString();
+    }
+}
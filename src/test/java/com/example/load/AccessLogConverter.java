@@ -0,0 +1,91 @@
+package com.example.load;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Pattern;
+
+/**
+ * Преобразование выгрузки production access логов в бинарный журнал {@link RequestLogWriter}
+ * Вход - CSV без заголовка: epochMillis,token,action,apiKey (apiKey "-" - заголовок отсутствовал)
+ * Анонимизация:
+ * - валидные токены заменяются на стабильный хэш того же формата (сессии сохраняются)
+ * - в невалидных токенах буквы и цифры заменяются на 'x' (длина и спецсимволы сохраняются)
+ * - production ключ заменяется тестовым, остальные ключи - на 'x' той же длины
+ */
+public class AccessLogConverter {
+
+    private static final Pattern VALID_TOKEN = Pattern.compile("[0-9A-F]{32}");
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final String productionApiKey;
+    private final MessageDigest digest;
+
+    public AccessLogConverter(String productionApiKey) {
+        this.productionApiKey = productionApiKey;
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Конвертировать CSV в журнал; возвращает количество записей
+     */
+    public long convert(Path accessLog, Path target) {
+        try (BufferedReader reader = Files.newBufferedReader(accessLog, StandardCharsets.UTF_8);
+             RequestLogWriter writer = new RequestLogWriter(target, 0)) {
+            long previousMillis = Long.MIN_VALUE;
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] fields = line.split(",", 4);
+                if (fields.length != 4) {
+                    throw new IllegalArgumentException("Malformed access log line " + lineNumber + ": " + line);
+                }
+                long millis = Long.parseLong(fields[0].trim());
+                long interArrival = previousMillis == Long.MIN_VALUE ? 0 : (millis - previousMillis) * 1000;
+                previousMillis = millis;
+
+                writer.write(new RequestLogEntry(interArrival, anonymizeToken(fields[1]), fields[2],
+                        anonymizeApiKey(fields[3]), RequestLogEntry.UNKNOWN_STATUS, 0));
+            }
+            return writer.entries();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot convert access log " + accessLog, e);
+        }
+    }
+
+    String anonymizeToken(String token) {
+        if (VALID_TOKEN.matcher(token).matches()) {
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            char[] anonymized = new char[32];
+            for (int i = 0; i < 16; i++) {
+                anonymized[i * 2] = HEX[(hash[i] >> 4) & 0xF];
+                anonymized[i * 2 + 1] = HEX[hash[i] & 0xF];
+            }
+            return new String(anonymized);
+        }
+        return token.replaceAll("[A-Za-z0-9]", "x");
+    }
+
+    String anonymizeApiKey(String apiKey) {
+        if ("-".equals(apiKey)) {
+            return null;
+        }
+        if (apiKey.equals(productionApiKey)) {
+            return EndpointRequest.DEFAULT_API_KEY;
+        }
+        return "x".repeat(apiKey.length());
+    }
+}
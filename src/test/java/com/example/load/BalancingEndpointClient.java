@@ -0,0 +1,230 @@
+package com.example.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Клиентская балансировка по нескольким экземплярам сервиса (-Dload.targets) со статистикой по узлам:
+ * - ROUND_ROBIN: по кругу;
+ * - LEAST_OUTSTANDING: узел с наименьшим числом запросов в полете;
+ * - TOKEN_HASH: по hash token - все запросы сессии идут на один узел (sticky).
+ *
+ * Узел LOGIN запоминается по token: ACTION или LOGOUT того же token на другом узле - разрыв привязки сессии.
+ * Разрывы и ошибки на них считаются отдельно: ошибки только на разрывах значат, что сессии не разделяются
+ * между экземплярами и балансировщику нужна привязка
+ */
+public class BalancingEndpointClient implements EndpointClient {
+
+    public enum Strategy {
+        ROUND_ROBIN,
+        LEAST_OUTSTANDING,
+        TOKEN_HASH
+    }
+
+    private final Strategy strategy;
+    private final List<Node> nodes = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Node> loginNodes = new ConcurrentHashMap<>();
+    private final LongAdder sessionRequests = new LongAdder();
+    private final LongAdder affinityBreaks = new LongAdder();
+    private final LongAdder failedOnBreak = new LongAdder();
+
+    /**
+     * @param clientFactory клиент на один узел по его base URL (закрывается вместе с этим клиентом)
+     */
+    public BalancingEndpointClient(List<String> targets, Strategy strategy, Function<String, EndpointClient> clientFactory) {
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("No target instances");
+        }
+        this.strategy = strategy;
+        for (String target : targets) {
+            nodes.add(new Node(target, clientFactory.apply(target)));
+        }
+    }
+
+    @Override
+    public EndpointResponse send(EndpointRequest request) {
+        Node node = choose(request);
+        Node loginNode = "LOGIN".equals(request.action()) ? null : loginNodes.get(request.token());
+        boolean broken = loginNode != null && loginNode != node;
+
+        node.peakOutstanding.accumulateAndGet(node.outstanding.incrementAndGet(), Math::max);
+        EndpointResponse response;
+        try {
+            response = node.client.send(request);
+        } finally {
+            node.outstanding.decrementAndGet();
+        }
+        node.record(response);
+
+        if ("LOGIN".equals(request.action())) {
+            if (response.isOk()) {
+                loginNodes.put(request.token(), node);
+            }
+        } else if (loginNode != null) {
+            sessionRequests.increment();
+            if (broken) {
+                affinityBreaks.increment();
+                if (!response.isOk()) {
+                    failedOnBreak.increment();
+                }
+            }
+            if ("LOGOUT".equals(request.action())) {
+                loginNodes.remove(request.token());
+            }
+        }
+        return response;
+    }
+
+    private Node choose(EndpointRequest request) {
+        int size = nodes.size();
+        switch (strategy) {
+            case TOKEN_HASH:
+                return nodes.get(Math.floorMod(request.token().hashCode(), size));
+            case LEAST_OUTSTANDING: {
+                // Обход с плавающего начала, чтобы при равенстве узлы не выбирались всегда в одном порядке
+                int start = Math.floorMod(next.getAndIncrement(), size);
+                Node best = null;
+                for (int i = 0; i < size; i++) {
+                    Node candidate = nodes.get((start + i) % size);
+                    if (best == null || candidate.outstanding.get() < best.outstanding.get()) {
+                        best = candidate;
+                    }
+                }
+                return best;
+            }
+            default:
+                return nodes.get(Math.floorMod(next.getAndIncrement(), size));
+        }
+    }
+
+    @Override
+    public String name() {
+        return strategy.name().toLowerCase().replace('_', '-') + " x" + nodes.size();
+    }
+
+    public Strategy strategy() {
+        return strategy;
+    }
+
+    public List<Node> nodes() {
+        return nodes;
+    }
+
+    /**
+     * ACTION и LOGOUT после успешного LOGIN (только они проверяются на привязку)
+     */
+    public long sessionRequests() {
+        return sessionRequests.sum();
+    }
+
+    /**
+     * Сколько запросов сессии ушло не на узел ее LOGIN
+     */
+    public long affinityBreaks() {
+        return affinityBreaks.sum();
+    }
+
+    /**
+     * Сколько из разрывов привязки завершились ошибкой
+     */
+    public long failedOnBreak() {
+        return failedOnBreak.sum();
+    }
+
+    public String summary() {
+        return String.format("%s: %d session requests, %d affinity breaks (%d failed)",
+                name(), sessionRequests(), affinityBreaks(), failedOnBreak());
+    }
+
+    /**
+     * Таблица по узлам: доля запросов, пропускная способность, задержки, ошибки, пик запросов в полете
+     */
+    public String formatTable() {
+        long total = nodes.stream().mapToLong(Node::requests).sum();
+        StringBuilder table = new StringBuilder(String.format("%-28s %9s %7s %9s %9s %9s %9s %8s %6s%n",
+                "node", "requests", "share%", "req/s", "p50,ms", "p99,ms", "max,ms", "errors", "peak"));
+        for (Node node : nodes) {
+            LatencyStats.Snapshot latency = node.latency();
+            table.append(String.format("%-28s %9d %7.1f %9.1f %9.2f %9.2f %9.2f %8d %6d%n",
+                    node.target, node.requests(), total == 0 ? 0 : node.requests() * 100.0 / total, node.throughput(),
+                    latency.p50(), latency.p99(), latency.max(), node.errors(), node.peakOutstanding()));
+        }
+        return table.append(summary()).append('\n').toString();
+    }
+
+    @Override
+    public void close() {
+        for (Node node : nodes) {
+            node.client.close();
+        }
+    }
+
+    /**
+     * Один экземпляр сервиса и его статистика
+     */
+    public static final class Node {
+
+        private final String target;
+        private final EndpointClient client;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger peakOutstanding = new AtomicInteger();
+        private final LatencyStats latency = new LatencyStats();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final AtomicLong firstStart = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong lastEnd = new AtomicLong(Long.MIN_VALUE);
+
+        private Node(String target, EndpointClient client) {
+            this.target = target;
+            this.client = client;
+        }
+
+        private void record(EndpointResponse response) {
+            latency.record(response.latencyNanos());
+            requests.increment();
+            if (!response.isOk()) {
+                errors.increment();
+            }
+            firstStart.accumulateAndGet(response.startNanos(), Math::min);
+            lastEnd.accumulateAndGet(response.startNanos() + response.latencyNanos(), Math::max);
+        }
+
+        public String target() {
+            return target;
+        }
+
+        public long requests() {
+            return requests.sum();
+        }
+
+        public long errors() {
+            return errors.sum();
+        }
+
+        public LatencyStats.Snapshot latency() {
+            return latency.snapshot();
+        }
+
+        /**
+         * Наибольшее число одновременных запросов к узлу
+         */
+        public int peakOutstanding() {
+            return peakOutstanding.get();
+        }
+
+        /**
+         * Запросов в секунду от первого запроса к узлу до последнего ответа
+         */
+        public double throughput() {
+            long span = lastEnd.get() - firstStart.get();
+            return span <= 0 ? 0 : requests() * 1_000_000_000.0 / span;
+        }
+    }
+}
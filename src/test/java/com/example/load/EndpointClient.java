@@ -0,0 +1,23 @@
+package com.example.load;
+
+import java.io.Closeable;
+
+/**
+ * Клиент для нагрузочных прогонов /endpoint
+ * В отличие от REST Assured, реализации потокобезопасны и явно управляют соединениями
+ */
+public interface EndpointClient extends Closeable {
+
+    /**
+     * Отправить запрос и дождаться ответа; исключения не пробрасываются, см. {@link EndpointResponse#failed}
+     */
+    EndpointResponse send(EndpointRequest request);
+
+    /**
+     * Название режима для отчетов
+     */
+    String name();
+
+    @Override
+    void close();
+}
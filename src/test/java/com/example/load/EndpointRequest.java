@@ -0,0 +1,71 @@
+package com.example.load;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Один запрос к /endpoint: token, action, X-Api-Key и дополнительные заголовки
+ */
+public final class EndpointRequest {
+
+    public static final String DEFAULT_API_KEY = "qazWSXedc";
+
+    private final String token;
+    private final String action;
+    private final String apiKey;
+    private final Map<String, String> headers;
+
+    private EndpointRequest(String token, String action, String apiKey, Map<String, String> headers) {
+        this.token = token;
+        this.action = action;
+        this.apiKey = apiKey;
+        this.headers = headers;
+    }
+
+    public static EndpointRequest of(String token, String action) {
+        return new EndpointRequest(token, action, DEFAULT_API_KEY, Collections.emptyMap());
+    }
+
+    /**
+     * Копия запроса с другим X-Api-Key (null - заголовок не отправляется)
+     */
+    public EndpointRequest withApiKey(String apiKey) {
+        return new EndpointRequest(token, action, apiKey, headers);
+    }
+
+    /**
+     * Копия запроса с дополнительным заголовком
+     */
+    public EndpointRequest withHeader(String name, String value) {
+        Map<String, String> copy = new LinkedHashMap<>(headers);
+        copy.put(name, value);
+        return new EndpointRequest(token, action, apiKey, Collections.unmodifiableMap(copy));
+    }
+
+    public String token() {
+        return token;
+    }
+
+    public String action() {
+        return action;
+    }
+
+    public String apiKey() {
+        return apiKey;
+    }
+
+    public Map<String, String> headers() {
+        return headers;
+    }
+
+    /**
+     * Тело в формате application/x-www-form-urlencoded
+     */
+    public String formBody() {
+        return "token=" + URLEncoder.encode(token, StandardCharsets.UTF_8)
+                + "&action=" + URLEncoder.encode(action, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.load;
+
+/**
+ * Результат одного запроса к /endpoint
+ * status = -1, если запрос упал с исключением (соединение, таймаут)
+ */
+public record EndpointResponse(int status, String body, long startNanos, long latencyNanos) {
+
+    public static EndpointResponse failed(long startNanos, long latencyNanos) {
+        return new EndpointResponse(-1, "", startNanos, latencyNanos);
+    }
+
+    public boolean isOk() {
+        return status == 200 && body != null && body.contains("\"OK\"");
+    }
+}
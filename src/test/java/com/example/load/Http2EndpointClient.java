@@ -0,0 +1,100 @@
+package com.example.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP/2 клиент на java.net.http.HttpClient
+ * Для http:// выполняется h2c upgrade, после чего все запросы идут параллельными
+ * потоками (streams) через одно соединение. Если сервис не поддерживает h2c,
+ * клиент откатывается на HTTP/1.1 - это видно по {@link #http2Responses()}
+ */
+public class Http2EndpointClient implements EndpointClient {
+
+    private final URI endpointUri;
+    private final HttpClient client;
+    private final LongAdder http2Responses = new LongAdder();
+    private final LongAdder responses = new LongAdder();
+
+    public Http2EndpointClient(String baseUrl) {
+        this.endpointUri = URI.create(baseUrl + "/endpoint");
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(LoadConfig.requestTimeout())
+                .build();
+    }
+
+    /**
+     * Установить соединение и выполнить h2c upgrade запросом без тела (GET /endpoint).
+     * JDK клиент не выполняет upgrade для запросов с телом, поэтому без этого шага
+     * первые POST запросы могут уйти по HTTP/1.1
+     */
+    public Http2EndpointClient upgrade() {
+        try {
+            client.send(HttpRequest.newBuilder(endpointUri).timeout(LoadConfig.requestTimeout()).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            System.err.println("=== [WARN] h2c upgrade request failed: " + e.getMessage() + " ===");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return this;
+    }
+
+    @Override
+    public EndpointResponse send(EndpointRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(endpointUri)
+                .timeout(LoadConfig.requestTimeout())
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(request.formBody()));
+        if (request.apiKey() != null) {
+            builder.header("X-Api-Key", request.apiKey());
+        }
+        for (Map.Entry<String, String> header : request.headers().entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+            long latency = System.nanoTime() - start;
+            responses.increment();
+            if (response.version() == HttpClient.Version.HTTP_2) {
+                http2Responses.increment();
+            }
+            return new EndpointResponse(response.statusCode(), response.body(), start, latency);
+        } catch (IOException e) {
+            return EndpointResponse.failed(start, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return EndpointResponse.failed(start, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "h2c multiplexed";
+    }
+
+    /**
+     * Сколько ответов пришло по HTTP/2 (остальные - после отката на HTTP/1.1)
+     */
+    public long http2Responses() {
+        return http2Responses.sum();
+    }
+
+    public long responses() {
+        return responses.sum();
+    }
+
+    @Override
+    public void close() {
+        // java.net.http.HttpClient в Java 17 не требует явного закрытия
+    }
+}
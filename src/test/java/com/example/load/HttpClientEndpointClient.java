@@ -0,0 +1,149 @@
+package com.example.load;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.NoConnectionReuseStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Map;
+
+/**
+ * HTTP/1.1 клиент на Apache HttpClient с явным управлением соединениями:
+ * - keepAlive: фиксированный пул постоянных соединений
+ * - connectionPerRequest: новое TCP соединение на каждый запрос (Connection: close)
+ * Время установки каждого соединения замеряется отдельно
+ */
+public class HttpClientEndpointClient implements EndpointClient {
+
+    private static final ContentType FORM = ContentType.create("application/x-www-form-urlencoded");
+
+    private final String name;
+    private final String endpointUrl;
+    private final boolean reuseConnections;
+    private final LatencyStats connectStats = new LatencyStats();
+    private final CloseableHttpClient client;
+
+    private HttpClientEndpointClient(String name, String baseUrl, int poolSize, boolean reuseConnections) {
+        this.name = name;
+        this.endpointUrl = baseUrl + "/endpoint";
+        this.reuseConnections = reuseConnections;
+
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", new TimedSocketFactory(connectStats))
+                .build();
+        PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(registry);
+        manager.setMaxTotal(poolSize);
+        manager.setDefaultMaxPerRoute(poolSize);
+
+        int timeout = (int) LoadConfig.requestTimeout().toMillis();
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(manager)
+                .disableAutomaticRetries()
+                .disableCookieManagement()
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(timeout)
+                        .setConnectionRequestTimeout(timeout)
+                        .setSocketTimeout(timeout)
+                        .build());
+        if (!reuseConnections) {
+            builder.setConnectionReuseStrategy(NoConnectionReuseStrategy.INSTANCE);
+        }
+        this.client = builder.build();
+    }
+
+    /**
+     * Пул из poolSize постоянных соединений
+     */
+    public static HttpClientEndpointClient keepAlive(String baseUrl, int poolSize) {
+        return new HttpClientEndpointClient("keep-alive pool=" + poolSize, baseUrl, poolSize, true);
+    }
+
+    /**
+     * Новое соединение на каждый запрос, не более maxConcurrent одновременно
+     */
+    public static HttpClientEndpointClient connectionPerRequest(String baseUrl, int maxConcurrent) {
+        return new HttpClientEndpointClient("connection per request", baseUrl, maxConcurrent, false);
+    }
+
+    @Override
+    public EndpointResponse send(EndpointRequest request) {
+        HttpPost post = new HttpPost(endpointUrl);
+        if (request.apiKey() != null) {
+            post.setHeader("X-Api-Key", request.apiKey());
+        }
+        post.setHeader("Accept", "application/json");
+        if (!reuseConnections) {
+            post.setHeader("Connection", "close");
+        }
+        for (Map.Entry<String, String> header : request.headers().entrySet()) {
+            post.setHeader(header.getKey(), header.getValue());
+        }
+        post.setEntity(new StringEntity(request.formBody(), FORM));
+
+        long start = System.nanoTime();
+        try (CloseableHttpResponse response = client.execute(post)) {
+            String body = response.getEntity() == null ? "" : EntityUtils.toString(response.getEntity());
+            return new EndpointResponse(response.getStatusLine().getStatusCode(), body, start, System.nanoTime() - start);
+        } catch (IOException e) {
+            return EndpointResponse.failed(start, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Статистика установки TCP соединений; count() - сколько соединений было открыто
+     */
+    public LatencyStats connectStats() {
+        return connectStats;
+    }
+
+    @Override
+    public void close() {
+        try {
+            client.close();
+        } catch (IOException e) {
+            System.err.println("=== [WARN] Failed to close HTTP client: " + e.getMessage() + " ===");
+        }
+    }
+
+    /**
+     * Фабрика сокетов, замеряющая время connect()
+     */
+    private static class TimedSocketFactory extends PlainConnectionSocketFactory {
+
+        private final LatencyStats connectStats;
+
+        TimedSocketFactory(LatencyStats connectStats) {
+            this.connectStats = connectStats;
+        }
+
+        @Override
+        public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+                                    InetSocketAddress localAddress, HttpContext context) throws IOException {
+            long start = System.nanoTime();
+            Socket connected = super.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+            connectStats.record(System.nanoTime() - start);
+            return connected;
+        }
+    }
+}
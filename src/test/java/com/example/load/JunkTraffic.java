@@ -0,0 +1,254 @@
+package com.example.load;
+
+import com.example.utils.RunSeed;
+import com.example.utils.TestDataGenerator;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Поток мусорных запросов к /endpoint, которые сервис должен отклонить (те же входные данные,
+ * что в ApiKeyTest, TokenValidationTest и TestDataGenerator):
+ * - WRONG_API_KEY: LOGIN с валидным token и неверным или отсутствующим X-Api-Key (ключи, которые после обрезки
+ *   пробелов совпадают с верным, исключены - сервер HTTP обрезает значения заголовков);
+ * - MALFORMED_TOKEN: LOGIN с token неверной длины, алфавита, unicode, инъекциями;
+ * - BAD_ACTION: валидный token и невалидный action.
+ *
+ * workers потоков в замкнутом цикле выбирают категорию и запрос случайно (seed прогона), статистика - по категориям.
+ * Запрос, на который сервис ответил OK, считается принятым мусором.
+ * Использование: try (JunkTraffic junk = new JunkTraffic(client, 8).start()) {...; junk.stats()}
+ * или new JunkTraffic(client, 8).runFor(duration).stats()
+ */
+public class JunkTraffic implements AutoCloseable {
+
+    public enum Category {
+        WRONG_API_KEY,
+        MALFORMED_TOKEN,
+        BAD_ACTION
+    }
+
+    // Валидных token на категорию: по ним запросы сервиса к внешнему API относятся к категории
+    private static final int TOKENS_PER_CATEGORY = 64;
+
+    private final EndpointClient client;
+    private final int workers;
+    private final Map<Category, List<EndpointRequest>> requests = new EnumMap<>(Category.class);
+    private final Map<String, Category> categoryByToken = new HashMap<>();
+    private final Map<Category, Counters> counters = new EnumMap<>(Category.class);
+    private final LatencyStats all = new LatencyStats();
+    private volatile boolean running;
+    private ExecutorService pool;
+    private long startNanos;
+    private volatile boolean stopped;
+    private long stopNanos;
+
+    public JunkTraffic(EndpointClient client, int workers) {
+        this.client = client;
+        this.workers = workers;
+        Random random = RunSeed.random("junk-traffic");
+
+        List<String> wrongKeys = new ArrayList<>(TestDataGenerator.generateApiKeys());
+        wrongKeys.removeIf(key -> key != null && key.strip().equals(EndpointRequest.DEFAULT_API_KEY));
+        wrongKeys.add(null);
+        List<EndpointRequest> wrongApiKey = new ArrayList<>();
+        for (int i = 0; i < TOKENS_PER_CATEGORY; i++) {
+            String token = token(Category.WRONG_API_KEY, TestDataGenerator.generateValidToken(random));
+            wrongApiKey.add(EndpointRequest.of(token, "LOGIN").withApiKey(wrongKeys.get(i % wrongKeys.size())));
+        }
+
+        Map<String, String> malformed = new LinkedHashMap<>(TestDataGenerator.generateBoundaryTokens());
+        malformed.remove("32_characters_valid");
+        malformed.putAll(TestDataGenerator.generateUnicodeTokens());
+        malformed.putAll(TestDataGenerator.generateSecurityTestTokens());
+        malformed.put("invalid_chars", TestDataGenerator.generateInvalidToken());
+        List<EndpointRequest> malformedToken = new ArrayList<>();
+        for (String token : malformed.values()) {
+            malformedToken.add(EndpointRequest.of(token(Category.MALFORMED_TOKEN, token), "LOGIN"));
+        }
+        for (String payload : TestDataGenerator.generateSqlInjectionPayloads()) {
+            malformedToken.add(EndpointRequest.of(token(Category.MALFORMED_TOKEN, payload), "LOGIN"));
+        }
+        for (String payload : TestDataGenerator.generateXssPayloads()) {
+            malformedToken.add(EndpointRequest.of(token(Category.MALFORMED_TOKEN, payload), "LOGIN"));
+        }
+
+        List<String> invalidActions = TestDataGenerator.generateInvalidActions();
+        List<EndpointRequest> badAction = new ArrayList<>();
+        for (int i = 0; i < TOKENS_PER_CATEGORY; i++) {
+            String token = token(Category.BAD_ACTION, TestDataGenerator.generateValidToken(random));
+            badAction.add(EndpointRequest.of(token, invalidActions.get(i % invalidActions.size())));
+        }
+
+        requests.put(Category.WRONG_API_KEY, wrongApiKey);
+        requests.put(Category.MALFORMED_TOKEN, malformedToken);
+        requests.put(Category.BAD_ACTION, badAction);
+        for (Category category : Category.values()) {
+            counters.put(category, new Counters());
+        }
+    }
+
+    private String token(Category category, String token) {
+        categoryByToken.putIfAbsent(token, category);
+        return token;
+    }
+
+    public JunkTraffic start() {
+        running = true;
+        AtomicInteger threadCounter = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(workers, r -> {
+            Thread thread = new Thread(r, "junk-worker-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        startNanos = System.nanoTime();
+        Category[] categories = Category.values();
+        for (int i = 0; i < workers; i++) {
+            Random random = RunSeed.random("junk-worker-" + i);
+            pool.submit(() -> {
+                while (running) {
+                    Category category = categories[random.nextInt(categories.length)];
+                    List<EndpointRequest> candidates = requests.get(category);
+                    EndpointResponse response = client.send(candidates.get(random.nextInt(candidates.size())));
+                    counters.get(category).record(response);
+                    all.record(response.latencyNanos());
+                }
+            });
+        }
+        return this;
+    }
+
+    /**
+     * Поток в течение duration; после возврата (и при прерывании) потоки остановлены
+     */
+    public JunkTraffic runFor(Duration duration) throws InterruptedException {
+        start();
+        try {
+            TimeUnit.NANOSECONDS.sleep(duration.toNanos());
+        } finally {
+            close();
+        }
+        return this;
+    }
+
+    /**
+     * Категория по token из запроса сервиса к внешнему API (null - не мусорный token)
+     */
+    public Category categoryOf(String token) {
+        return token == null ? null : categoryByToken.get(token);
+    }
+
+    /**
+     * Статистика с момента start() (после close() - за весь поток)
+     */
+    public Stats stats() {
+        long elapsed = (stopped ? stopNanos : System.nanoTime()) - startNanos;
+        Map<Category, CategoryStats> byCategory = new EnumMap<>(Category.class);
+        for (Map.Entry<Category, Counters> entry : counters.entrySet()) {
+            Counters c = entry.getValue();
+            byCategory.put(entry.getKey(), new CategoryStats(entry.getKey(), c.requests.sum(), c.accepted.sum(),
+                    c.latency.snapshot(), c.statuses()));
+        }
+        return new Stats(elapsed, byCategory, all.snapshot());
+    }
+
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        pool.shutdown();
+        try {
+            pool.awaitTermination(LoadConfig.requestTimeout().toMillis() + 1_000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        stopNanos = System.nanoTime();
+        stopped = true;
+    }
+
+    private static final class Counters {
+
+        private final LatencyStats latency = new LatencyStats();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder accepted = new LongAdder();
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        void record(EndpointResponse response) {
+            latency.record(response.latencyNanos());
+            requests.increment();
+            if (response.isOk()) {
+                accepted.increment();
+            }
+            statuses.computeIfAbsent(response.status(), s -> new LongAdder()).increment();
+        }
+
+        Map<Integer, Long> statuses() {
+            Map<Integer, Long> copy = new TreeMap<>();
+            statuses.forEach((status, count) -> copy.put(status, count.sum()));
+            return copy;
+        }
+    }
+
+    /**
+     * Одна категория: accepted - ответы OK на мусор, statuses - распределение кодов ответа (-1 - ошибка соединения)
+     */
+    public record CategoryStats(Category category, long requests, long accepted, LatencyStats.Snapshot latency,
+                                Map<Integer, Long> statuses) {
+    }
+
+    /**
+     * Итог потока: по категориям и по всем мусорным запросам вместе
+     */
+    public record Stats(long elapsedNanos, Map<Category, CategoryStats> byCategory, LatencyStats.Snapshot latency) {
+
+        public long requests() {
+            return byCategory.values().stream().mapToLong(CategoryStats::requests).sum();
+        }
+
+        public long accepted() {
+            return byCategory.values().stream().mapToLong(CategoryStats::accepted).sum();
+        }
+
+        public double throughput() {
+            return elapsedNanos == 0 ? 0 : requests() * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        public double throughput(Category category) {
+            return elapsedNanos == 0 ? 0 : byCategory.get(category).requests() * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d req, %.1f req/s, p50=%.2fms p99=%.2fms, accepted %d",
+                    requests(), throughput(), latency.p50(), latency.p99(), accepted());
+        }
+
+        /**
+         * Таблица по категориям; upstreamCalls - запросы сервиса к внешнему API по категориям (может быть пустой)
+         */
+        public String formatTable(Map<Category, Long> upstreamCalls) {
+            StringBuilder table = new StringBuilder(String.format("%-16s %9s %9s %9s %9s %9s %9s %9s  %s%n",
+                    "category", "requests", "req/s", "mean,ms", "p50,ms", "p99,ms", "accepted", "upstream", "statuses"));
+            for (CategoryStats c : byCategory.values()) {
+                table.append(String.format("%-16s %9d %9.1f %9.2f %9.2f %9.2f %9d %9s  %s%n",
+                        c.category, c.requests, throughput(c.category), c.latency.mean(), c.latency.p50(), c.latency.p99(),
+                        c.accepted, upstreamCalls.containsKey(c.category) ? upstreamCalls.get(c.category) : "-", c.statuses));
+            }
+            return table.append("all junk: ").append(this).append('\n').toString();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.load;
+
+import com.example.mock.UpstreamTimeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Разбиение задержки каждого /endpoint запроса по визитам сервиса к внешнему API ({@link UpstreamTimeline}):
+ * - pre: от отправки клиентом до прихода первого запроса в WireMock (прием, валидация, очередь пула);
+ * - upstream: суммарное время в WireMock (все визиты этого token внутри окна запроса);
+ * - post: от ухода последнего ответа WireMock до получения ответа клиентом.
+ * Запрос без визитов (LOGOUT, отказ до вызова) целиком относится к pre.
+ *
+ * Подключается как {@link ResponseListener}; разбор - {@link #breakdown()} после прогона.
+ * С создания и до {@link #close()} включает запись визитов в timeline
+ */
+public class LatencyDecomposition implements ResponseListener, AutoCloseable {
+
+    private final UpstreamTimeline timeline;
+    private final ConcurrentLinkedQueue<Call> calls = new ConcurrentLinkedQueue<>();
+
+    public LatencyDecomposition(UpstreamTimeline timeline) {
+        this.timeline = timeline;
+        timeline.attach();
+    }
+
+    @Override
+    public void onResponse(EndpointRequest request, EndpointResponse response) {
+        calls.add(new Call(request.token(), request.action(), response.status(),
+                response.startNanos(), response.startNanos() + response.latencyNanos()));
+    }
+
+    /**
+     * Разбивка по action; визиты сопоставляются по token и попаданию в окно запроса
+     */
+    public Map<String, Breakdown> breakdown() {
+        Map<String, Breakdown> byAction = new TreeMap<>();
+        for (Call call : calls) {
+            long firstArrival = Long.MAX_VALUE;
+            long lastDeparture = Long.MIN_VALUE;
+            long upstream = 0;
+            int visits = 0;
+            for (UpstreamTimeline.Visit visit : timeline.visits(call.token)) {
+                if (visit.arrivalNanos() < call.start || visit.arrivalNanos() > call.end) {
+                    continue;
+                }
+                visits++;
+                firstArrival = Math.min(firstArrival, visit.arrivalNanos());
+                // Уход фиксируется после отправки ответа и может чуть опоздать к получению клиентом
+                long departure = Math.min(visit.departureNanos(), call.end);
+                lastDeparture = Math.max(lastDeparture, departure);
+                upstream += departure - visit.arrivalNanos();
+            }
+            Breakdown breakdown = byAction.computeIfAbsent(call.action, Breakdown::new);
+            if (visits == 0) {
+                breakdown.record(call.end - call.start, 0, 0, 0);
+            } else {
+                breakdown.record(firstArrival - call.start, upstream, call.end - lastDeparture, visits);
+            }
+        }
+        return byAction;
+    }
+
+    public int calls() {
+        return calls.size();
+    }
+
+    /**
+     * Остановить запись визитов; разбор по уже записанным остается доступен
+     */
+    @Override
+    public void close() {
+        timeline.detach();
+    }
+
+    private record Call(String token, String action, int status, long start, long end) {
+    }
+
+    /**
+     * Агрегированная разбивка одного action
+     */
+    public static final class Breakdown {
+
+        private final String action;
+        private final LatencyStats total = new LatencyStats();
+        private final LatencyStats pre = new LatencyStats();
+        private final LatencyStats upstream = new LatencyStats();
+        private final LatencyStats post = new LatencyStats();
+        private long withUpstream;
+        private long visits;
+        private long preSum;
+        private long upstreamSum;
+        private long postSum;
+
+        Breakdown(String action) {
+            this.action = action;
+        }
+
+        void record(long preNanos, long upstreamNanos, long postNanos, int visitCount) {
+            total.record(preNanos + upstreamNanos + postNanos);
+            pre.record(preNanos);
+            preSum += preNanos;
+            postSum += postNanos;
+            upstreamSum += upstreamNanos;
+            if (visitCount > 0) {
+                withUpstream++;
+                visits += visitCount;
+                upstream.record(upstreamNanos);
+                post.record(postNanos);
+            }
+        }
+
+        public String action() {
+            return action;
+        }
+
+        public int count() {
+            return total.count();
+        }
+
+        public long withUpstream() {
+            return withUpstream;
+        }
+
+        public long visits() {
+            return visits;
+        }
+
+        public LatencyStats.Snapshot total() {
+            return total.snapshot();
+        }
+
+        public LatencyStats.Snapshot pre() {
+            return pre.snapshot();
+        }
+
+        /**
+         * Только запросы, дошедшие до внешнего API
+         */
+        public LatencyStats.Snapshot upstream() {
+            return upstream.snapshot();
+        }
+
+        public LatencyStats.Snapshot post() {
+            return post.snapshot();
+        }
+
+        /**
+         * Доли pre / upstream / post в суммарном времени action, %
+         */
+        public double[] shares() {
+            double sum = preSum + upstreamSum + postSum;
+            return sum == 0 ? new double[3]
+                    : new double[]{preSum * 100 / sum, upstreamSum * 100 / sum, postSum * 100 / sum};
+        }
+
+        @Override
+        public String toString() {
+            double[] shares = shares();
+            return String.format("%s: %d calls (%d reached upstream), pre p50=%.1fms p99=%.1fms, "
+                            + "upstream p50=%.1fms p99=%.1fms, post p50=%.1fms p99=%.1fms, shares %.0f/%.0f/%.0f%%",
+                    action, count(), withUpstream, pre().p50(), pre().p99(), upstream().p50(), upstream().p99(),
+                    post().p50(), post().p99(), shares[0], shares[1], shares[2]);
+        }
+
+        public static String formatTable(Iterable<Breakdown> breakdowns) {
+            StringBuilder table = new StringBuilder(String.format("%-8s %7s %9s %10s %10s %10s %10s %10s %10s %10s %16s%n",
+                    "action", "calls", "upstream", "total p50", "total p99", "pre p50", "pre p99",
+                    "up p50", "up p99", "post p99", "pre/up/post %"));
+            List<Breakdown> list = new ArrayList<>();
+            breakdowns.forEach(list::add);
+            for (Breakdown b : list) {
+                double[] shares = b.shares();
+                table.append(String.format("%-8s %7d %9d %10.2f %10.2f %10.2f %10.2f %10.2f %10.2f %10.2f %16s%n",
+                        b.action, b.count(), b.withUpstream, b.total().p50(), b.total().p99(), b.pre().p50(), b.pre().p99(),
+                        b.upstream().p50(), b.upstream().p99(), b.post().p99(),
+                        String.format("%.0f/%.0f/%.0f", shares[0], shares[1], shares[2])));
+            }
+            return table.toString();
+        }
+    }
+}
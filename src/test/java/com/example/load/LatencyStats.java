@@ -0,0 +1,56 @@
+package com.example.load;
+
+import java.util.Arrays;
+
+/**
+ * Потокобезопасный накопитель задержек (в наносекундах) с расчетом перцентилей
+ */
+public class LatencyStats {
+
+    private long[] samples = new long[1024];
+    private int size;
+
+    public synchronized void record(long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+
+    public synchronized int count() {
+        return size;
+    }
+
+    public synchronized Snapshot snapshot() {
+        if (size == 0) {
+            return new Snapshot(0, 0, 0, 0, 0, 0);
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (long value : sorted) {
+            sum += value;
+        }
+        return new Snapshot(size,
+                toMillis(sum / (double) size),
+                toMillis(percentile(sorted, 0.50)),
+                toMillis(percentile(sorted, 0.90)),
+                toMillis(percentile(sorted, 0.99)),
+                toMillis(sorted[size - 1]));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double toMillis(double nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Срез статистики, все значения в миллисекундах
+     */
+    public record Snapshot(int count, double mean, double p50, double p90, double p99, double max) {
+    }
+}
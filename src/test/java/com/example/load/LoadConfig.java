@@ -0,0 +1,263 @@
+package com.example.load;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Параметры нагрузочных прогонов, задаются через -D свойства
+ * Пример: mvn test -Pload -Dload.workers=32 -Dload.durationSeconds=30
+ */
+public final class LoadConfig {
+
+    private LoadConfig() {
+    }
+
+    public static String baseUrl() {
+        return System.getProperty("load.baseUrl", "http://localhost:8080");
+    }
+
+    /**
+     * Экземпляры сервиса через запятую (-Dload.targets=http://host1:8080,http://host2:8080), по умолчанию - baseUrl()
+     */
+    public static List<String> targets() {
+        String targets = System.getProperty("load.targets");
+        if (targets == null || targets.isBlank()) {
+            return List.of(baseUrl());
+        }
+        return java.util.Arrays.stream(targets.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(s -> s.endsWith("/") ? s.substring(0, s.length() - 1) : s)
+                .toList();
+    }
+
+    public static int workers() {
+        return Integer.getInteger("load.workers", 16);
+    }
+
+    public static Duration duration() {
+        return Duration.ofSeconds(Long.getLong("load.durationSeconds", 10L));
+    }
+
+    public static int poolSize() {
+        return Integer.getInteger("load.poolSize", 8);
+    }
+
+    public static Duration requestTimeout() {
+        return Duration.ofMillis(Long.getLong("load.requestTimeoutMillis", 30_000L));
+    }
+
+    /**
+     * Каталог для бинарных журналов прогонов (null - не записывать)
+     */
+    public static String recordDir() {
+        return System.getProperty("load.recordDir");
+    }
+
+    /**
+     * Журнал для воспроизведения (null - сценарий записывает свой)
+     */
+    public static String replayFile() {
+        return System.getProperty("load.replayFile");
+    }
+
+    /**
+     * CSV выгрузка production access логов для воспроизведения (см. AccessLogConverter)
+     */
+    public static String accessLog() {
+        return System.getProperty("load.accessLog");
+    }
+
+    /**
+     * API ключ в production логах, который заменяется тестовым при анонимизации
+     */
+    public static String productionApiKey() {
+        return System.getProperty("load.productionApiKey", EndpointRequest.DEFAULT_API_KEY);
+    }
+
+    /**
+     * Ускорение при воспроизведении: 1 - исходный темп, 0 - без пауз
+     */
+    public static double replaySpeed() {
+        return Double.parseDouble(System.getProperty("load.replaySpeed", "4"));
+    }
+
+    /**
+     * Лестница числа удерживаемых медленных /auth соединений, например "0,10,25,50"
+     */
+    public static int[] slowConnectionSteps() {
+        return intList("load.slowConnections", "0,4,8,16,32");
+    }
+
+    public static Duration slowUpstreamDelay() {
+        return Duration.ofMillis(Long.getLong("load.slowUpstreamDelayMillis", 8_000L));
+    }
+
+    /**
+     * Длительность окна отказа внешнего сервиса в сценариях восстановления
+     */
+    public static Duration outageLength() {
+        return Duration.ofSeconds(Long.getLong("load.outageSeconds", 5L));
+    }
+
+    /**
+     * SLO для поиска точки насыщения: p99 и доля ошибок
+     */
+    public static double sloP99Millis() {
+        return Double.parseDouble(System.getProperty("load.sloP99Millis", "200"));
+    }
+
+    public static double sloMaxErrorRate() {
+        return Double.parseDouble(System.getProperty("load.sloMaxErrorRate", "0.01"));
+    }
+
+    /**
+     * Начальная предлагаемая нагрузка (req/s) и множитель ступенчатого роста
+     */
+    public static double startRate() {
+        return Double.parseDouble(System.getProperty("load.startRate", "50"));
+    }
+
+    public static double rateGrowth() {
+        return Double.parseDouble(System.getProperty("load.rateGrowth", "2"));
+    }
+
+    public static double maxRate() {
+        return Double.parseDouble(System.getProperty("load.maxRate", "20000"));
+    }
+
+    public static Duration stepDuration() {
+        return Duration.ofSeconds(Long.getLong("load.stepSeconds", 5L));
+    }
+
+    /**
+     * Воркеров для открытого цикла: должно хватать на rate × задержку
+     */
+    public static int openLoopWorkers() {
+        return Integer.getInteger("load.openLoopWorkers", 256);
+    }
+
+    public static int actionsPerSession() {
+        return Integer.getInteger("load.actionsPerSession", 3);
+    }
+
+    /**
+     * Поиск таймаутов сервиса: одновременных проб, точность границы и допустимый дрейф под нагрузкой
+     */
+    public static int timeoutProbes() {
+        return Integer.getInteger("load.timeoutProbes", 4);
+    }
+
+    public static long timeoutResolutionMillis() {
+        return Long.getLong("load.timeoutResolutionMillis", 5L);
+    }
+
+    public static long timeoutMaxDriftMillis() {
+        return Long.getLong("load.timeoutMaxDriftMillis", 250L);
+    }
+
+    /**
+     * Сколько ждать, пока сервис сдастся по удерживаемому запросу
+     */
+    public static Duration timeoutMaxWait() {
+        return Duration.ofSeconds(Long.getLong("load.timeoutMaxWaitSeconds", 60L));
+    }
+
+    /**
+     * Размеры потоковых тел (KB) для проверки лимитов парсера, например "1024,8192,32768"
+     */
+    public static int[] payloadSizesKb() {
+        return intList("load.payloadSizesKb", "1024,8192,32768");
+    }
+
+    /**
+     * Размеры раздутых заголовков (KB)
+     */
+    public static int[] headerSizesKb() {
+        return intList("load.headerSizesKb", "8,64,1024");
+    }
+
+    /**
+     * Предел времени отказа на большой запрос: дольше - сервис читает тело целиком, не проверяя размер
+     */
+    public static long maxRejectMillis() {
+        return Long.getLong("load.maxRejectMillis", 5_000L);
+    }
+
+    /**
+     * Медленные клиенты: число соединений, интервал между байтами и допустимый рост p99 обычного трафика
+     */
+    public static int slowClients() {
+        return Integer.getInteger("load.slowClients", 2000);
+    }
+
+    public static Duration slowClientInterval() {
+        return Duration.ofMillis(Long.getLong("load.slowClientIntervalMillis", 1_000L));
+    }
+
+    public static double slowClientMaxP99Factor() {
+        return Double.parseDouble(System.getProperty("load.slowClientMaxP99Factor", "3"));
+    }
+
+    /**
+     * Мусорный трафик (см. JunkTraffic): число потоков-отправителей и допустимый рост p99 легитимных сессий рядом с ним
+     */
+    public static int junkWorkers() {
+        return Integer.getInteger("load.junkWorkers", poolSize());
+    }
+
+    public static double junkMaxP99Factor() {
+        return Double.parseDouble(System.getProperty("load.junkMaxP99Factor", "3"));
+    }
+
+    /**
+     * Насыщение WireMock (см. MockSaturationMonitor): период опроса пула Jetty, доля насыщенных отсчетов,
+     * с которой прогон помечается, и прерывание прогона при устойчивом насыщении
+     */
+    public static Duration mockSampleInterval() {
+        return Duration.ofMillis(Long.getLong("load.mockSampleMillis", 100L));
+    }
+
+    public static double mockSaturationShare() {
+        return Double.parseDouble(System.getProperty("load.mockSaturationShare", "0.05"));
+    }
+
+    public static boolean abortOnMockSaturation() {
+        return Boolean.getBoolean("load.abortOnMockSaturation");
+    }
+
+    /**
+     * Прогрев перед измерениями (см. WarmUp, SteadyStateDetector): включение для нагрузочных прогонов,
+     * размер окна, число сравниваемых окон, допуск на разброс средних, отношение дисперсий и предел времени
+     */
+    public static boolean warmUp() {
+        return Boolean.getBoolean("load.warmup");
+    }
+
+    public static int warmUpWindow() {
+        return Integer.getInteger("load.warmupWindow", 50);
+    }
+
+    public static int warmUpWindows() {
+        return Integer.getInteger("load.warmupWindows", 3);
+    }
+
+    public static double warmUpTolerance() {
+        return Double.parseDouble(System.getProperty("load.warmupTolerance", "0.1"));
+    }
+
+    public static double warmUpVarianceRatio() {
+        return Double.parseDouble(System.getProperty("load.warmupVarianceRatio", "4"));
+    }
+
+    public static Duration warmUpMaxDuration() {
+        return Duration.ofSeconds(Long.getLong("load.warmupMaxSeconds", 30L));
+    }
+
+    private static int[] intList(String property, String defaults) {
+        return java.util.Arrays.stream(System.getProperty(property, defaults).split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.load;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Итог одного нагрузочного прогона
+ */
+public class LoadResult {
+
+    private final String name;
+    private final long requests;
+    private final long errors;
+    private final long elapsedNanos;
+    private final LatencyStats.Snapshot latency;
+    private final Map<String, String> extras = new LinkedHashMap<>();
+
+    public LoadResult(String name, long requests, long errors, long elapsedNanos, LatencyStats.Snapshot latency) {
+        this.name = name;
+        this.requests = requests;
+        this.errors = errors;
+        this.elapsedNanos = elapsedNanos;
+        this.latency = latency;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long requests() {
+        return requests;
+    }
+
+    public long errors() {
+        return errors;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public LatencyStats.Snapshot latency() {
+        return latency;
+    }
+
+    /**
+     * Запросов в секунду за весь прогон
+     */
+    public double throughput() {
+        return elapsedNanos == 0 ? 0 : requests * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public double errorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    /**
+     * Дополнительная метрика режима (например, стоимость установки соединения)
+     */
+    public LoadResult withExtra(String key, String value) {
+        extras.put(key, value);
+        return this;
+    }
+
+    public Map<String, String> extras() {
+        return extras;
+    }
+
+    /**
+     * Тот же итог под другим именем (для сравнительных таблиц), дополнительные метрики сохраняются
+     */
+    public LoadResult withName(String name) {
+        LoadResult renamed = new LoadResult(name, requests, errors, elapsedNanos, latency);
+        renamed.extras.putAll(extras);
+        return renamed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d req, %d err, %.1f req/s, p50=%.2fms p99=%.2fms max=%.2fms %s",
+                name, requests, errors, throughput(), latency.p50(), latency.p99(), latency.max(), extras);
+    }
+
+    /**
+     * Текстовая таблица для сравнения режимов (для Allure и консоли)
+     */
+    public static String formatTable(List<LoadResult> results) {
+        StringBuilder table = new StringBuilder(String.format("%-28s %10s %8s %10s %9s %9s %9s %9s%n",
+                "mode", "requests", "errors", "req/s", "mean,ms", "p50,ms", "p99,ms", "max,ms"));
+        for (LoadResult r : results) {
+            table.append(String.format("%-28s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    r.name, r.requests, r.errors, r.throughput(),
+                    r.latency.mean(), r.latency.p50(), r.latency.p99(), r.latency.max()));
+            r.extras.forEach((key, value) -> table.append("    ").append(key).append(": ").append(value).append('\n'));
+        }
+        return table.toString();
+    }
+}
@@ -0,0 +1,327 @@
+package com.example.load;
+
+import com.example.mock.MockSaturationMonitor;
+import com.example.profiling.EndpointCallEvent;
+import com.example.profiling.FlightRecording;
+import com.example.tracing.TraceContext;
+import com.example.utils.RunSeed;
+import com.example.utils.TestDataGenerator;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Замкнутый нагрузочный цикл: workers потоков крутят сессии
+ * LOGIN → ACTION × actionsPerSession → LOGOUT до истечения duration
+ * Токены каждого воркера порождаются от seed прогона (RunSeed), а при заданном
+ * -Dload.recordDir каждый прогон пишется в бинарный журнал для воспроизведения
+ * С заданным ratePerSecond цикл становится открытым: сессии стартуют по расписанию
+ * независимо от ответов, а задержка первого запроса сессии считается от запланированного
+ * момента старта (без coordinated omission)
+ * Каждый запрос получает свой W3C traceparent (см. TraceContext), если он не задан заранее
+ * Пока идет прогон, пул Jetty WireMock внутри JVM опрашивается (MockSaturationMonitor): насыщение мока
+ * отмечается в результате, а с -Dload.abortOnMockSaturation=true устойчивое насыщение прерывает прогон
+ * С прогревом (-Dload.warmup=true или warmUp(true)) сессии сначала идут до установившегося режима
+ * (SteadyStateDetector), и только потом начинается измеряемая фаза: задержки прогрева в статистику не входят
+ */
+public class LoadRunner {
+
+    // Старт сессии позже расписания более чем на 5ms считается опозданием
+    private static final long LATE_THRESHOLD_NANOS = 5_000_000;
+    // Запрос не привязан к расписанию (замкнутый цикл, не первый запрос сессии). System.nanoTime может быть
+    // нулем или отрицательным, поэтому признак - отдельное значение, а не 0
+    private static final long NOT_SCHEDULED = Long.MIN_VALUE;
+
+    private final EndpointClient client;
+    private int workers = LoadConfig.workers();
+    private Duration duration = LoadConfig.duration();
+    private int actionsPerSession = LoadConfig.actionsPerSession();
+    private double ratePerSecond;
+    private RequestLogWriter log;
+    private final List<ResponseListener> listeners = new ArrayList<>();
+    private MockSaturationMonitor mockMonitor = MockSaturationMonitor.active();
+    private boolean abortOnMockSaturation = LoadConfig.abortOnMockSaturation();
+    private MockSaturationMonitor.Verdict mockVerdict;
+    private boolean warmUp = LoadConfig.warmUp();
+    private WarmUp.Result warmUpResult;
+
+    public LoadRunner(EndpointClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Замер сессиями через keep-alive пул (LoadConfig.poolSize() воркеров и соединений, LoadConfig.duration()):
+     * итог печатается с меткой tag и возвращается под именем name вместе с отметками прогона (прогрев, насыщение мока)
+     */
+    public static LoadResult measureKeepAlive(String baseUrl, String tag, String name, ResponseListener... listeners) {
+        try (HttpClientEndpointClient client = HttpClientEndpointClient.keepAlive(baseUrl, LoadConfig.poolSize())) {
+            LoadRunner runner = new LoadRunner(client).workers(LoadConfig.poolSize()).duration(LoadConfig.duration());
+            for (ResponseListener listener : listeners) {
+                runner.listener(listener);
+            }
+            LoadResult result = runner.run();
+            System.out.println("=== [" + tag + "] " + name + ": " + result + " ===");
+            return result.withName(name);
+        }
+    }
+
+    public LoadRunner workers(int workers) {
+        this.workers = workers;
+        return this;
+    }
+
+    public LoadRunner duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    public LoadRunner actionsPerSession(int actionsPerSession) {
+        this.actionsPerSession = actionsPerSession;
+        return this;
+    }
+
+    /**
+     * Предлагаемая нагрузка в запросах в секунду (0 - замкнутый цикл, по умолчанию).
+     * Воркеров должно хватать на rate × задержку, иначе сессии начинают опаздывать
+     */
+    public LoadRunner ratePerSecond(double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+        return this;
+    }
+
+    /**
+     * Писать все запросы прогона в журнал (закрывает его вызывающий код)
+     */
+    public LoadRunner recordTo(RequestLogWriter log) {
+        this.log = log;
+        return this;
+    }
+
+    public LoadRunner listener(ResponseListener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Монитор насыщения WireMock (по умолчанию - активный в этой JVM, null - не наблюдать)
+     */
+    public LoadRunner mockMonitor(MockSaturationMonitor mockMonitor) {
+        this.mockMonitor = mockMonitor;
+        return this;
+    }
+
+    /**
+     * Прервать прогон, если WireMock насыщен все отсчеты последней секунды (по умолчанию -Dload.abortOnMockSaturation)
+     */
+    public LoadRunner abortOnMockSaturation(boolean abortOnMockSaturation) {
+        this.abortOnMockSaturation = abortOnMockSaturation;
+        return this;
+    }
+
+    /**
+     * Итог наблюдения за WireMock в последнем прогоне (null - не наблюдался)
+     */
+    public MockSaturationMonitor.Verdict mockVerdict() {
+        return mockVerdict;
+    }
+
+    /**
+     * Прогреть сервис и harness перед измеряемой фазой (по умолчанию -Dload.warmup)
+     */
+    public LoadRunner warmUp(boolean warmUp) {
+        this.warmUp = warmUp;
+        return this;
+    }
+
+    /**
+     * Итог прогрева последнего прогона (null - прогрева не было)
+     */
+    public WarmUp.Result warmUpResult() {
+        return warmUpResult;
+    }
+
+    public LoadResult run() {
+        if (warmUp) {
+            SteadyStateDetector detector = SteadyStateDetector.fromConfig();
+            Run warm = new Run(null, detector);
+            warmUpResult = WarmUp.run(client.name(), workers, LoadConfig.warmUpMaxDuration(), detector,
+                    (random, d) -> runSession(warm, random, NOT_SCHEDULED));
+        }
+        System.out.println("=== [LOAD] " + client.name() + ": " + workers + " workers, " + duration.toSeconds() + "s ===");
+
+        RequestLogWriter ownLog = log == null && LoadConfig.recordDir() != null ? openRecording() : null;
+        Run run = new Run(ownLog != null ? ownLog : log, null);
+        // Отдельная запись JFR на фазу (-Djfr.enabled=true): сводка и файл прикладываются к тесту
+        FlightRecording phase = FlightRecording.startIfEnabled("load " + client.name() + " " + System.currentTimeMillis());
+        MockSaturationMonitor.Watch mockWatch = mockMonitor != null && mockMonitor.available()
+                ? mockMonitor.watch(LoadConfig.mockSampleInterval()) : null;
+        boolean abortOnMockSaturation = mockWatch != null && this.abortOnMockSaturation;
+        AtomicBoolean mockAborted = new AtomicBoolean();
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers,
+                r -> new Thread(r, "load-worker-" + threadCounter.incrementAndGet()));
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        long sessionInterval = ratePerSecond > 0 ? (long) (1e9 * (actionsPerSession + 2) / ratePerSecond) : 0;
+        AtomicLong sessions = new AtomicLong();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                Random random = RunSeed.random("load-worker-" + i);
+                futures.add(pool.submit(() -> {
+                    while (true) {
+                        if (abortOnMockSaturation && (mockAborted.get() || mockWatch.saturatedNow())) {
+                            mockAborted.set(true);
+                            break;
+                        }
+                        long intended = NOT_SCHEDULED;
+                        if (sessionInterval > 0) {
+                            intended = start + sessions.getAndIncrement() * sessionInterval;
+                            if (intended - deadline >= 0) {
+                                break;
+                            }
+                            sleepUntil(intended);
+                        } else if (System.nanoTime() - deadline >= 0) {
+                            break;
+                        }
+                        runSession(run, random, intended);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Load run interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Load worker failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            if (mockWatch != null) {
+                mockWatch.close();
+            }
+            if (phase != null) {
+                phase.stopAndAttach();
+            }
+            if (ownLog != null) {
+                ownLog.close();
+                System.out.println("=== [LOAD] Recorded " + ownLog.entries() + " requests to " + ownLog.file() + " ===");
+            }
+        }
+
+        LoadResult result = new LoadResult(client.name(), run.requests.sum(), run.errors.sum(),
+                System.nanoTime() - start, run.latency.snapshot());
+        mockVerdict = mockWatch == null ? null : mockWatch.verdict(LoadConfig.mockSaturationShare());
+        if (mockVerdict != null) {
+            System.out.println("=== [" + (mockVerdict.saturated() ? "WARN" : "LOAD") + "] WireMock " + mockVerdict.summary() + " ===");
+            if (mockVerdict.saturated()) {
+                result.withExtra("mock", "SATURATED, suggested wiremock.containerThreads=" + mockVerdict.suggestedThreads());
+            }
+            if (mockAborted.get()) {
+                throw new IllegalStateException("Load run aborted: WireMock, not the service, limits throughput - "
+                        + mockVerdict.summary());
+            }
+        }
+        if (warmUpResult != null) {
+            result.withExtra("warm-up", String.format("%d req, %.1fs, %s", warmUpResult.requests(), warmUpResult.seconds(),
+                    warmUpResult.steady() ? "steady" : "not steady"));
+        }
+        if (ratePerSecond > 0) {
+            result.withExtra("offered req/s", String.format("%.1f", ratePerSecond))
+                    .withExtra("late session starts", String.valueOf(run.lateSessions.sum()));
+        }
+        System.out.println("=== [LOAD] " + result + " ===");
+        return result;
+    }
+
+    private RequestLogWriter openRecording() {
+        String fileName = client.name().replaceAll("[^A-Za-z0-9=.-]+", "_")
+                + "-" + RunSeed.seed() + "-" + System.currentTimeMillis() + ".bin";
+        return new RequestLogWriter(Path.of(LoadConfig.recordDir(), fileName), RunSeed.seed());
+    }
+
+    private void runSession(Run run, Random random, long intendedStart) {
+        String token = TestDataGenerator.generateValidToken(random);
+        run.send(EndpointRequest.of(token, "LOGIN"), intendedStart);
+        for (int i = 0; i < actionsPerSession; i++) {
+            run.send(EndpointRequest.of(token, "ACTION"), NOT_SCHEDULED);
+        }
+        run.send(EndpointRequest.of(token, "LOGOUT"), NOT_SCHEDULED);
+    }
+
+    private static void sleepUntil(long deadline) {
+        long wait;
+        while ((wait = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    /**
+     * Состояние одного прогона, общее для всех воркеров
+     */
+    private class Run {
+
+        private final LatencyStats latency = new LatencyStats();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder lateSessions = new LongAdder();
+        private final RequestLogWriter log;
+        // Не null - прогрев: задержки идут только в детектор, без журнала, слушателей и статистики
+        private final SteadyStateDetector warmUp;
+
+        Run(RequestLogWriter log, SteadyStateDetector warmUp) {
+            this.log = log;
+            this.warmUp = warmUp;
+        }
+
+        /**
+         * intendedStart != NOT_SCHEDULED - запланированный момент старта (открытый цикл):
+         * опоздание к нему добавляется к задержке запроса
+         */
+        void send(EndpointRequest request, long intendedStart) {
+            if (TraceContext.enabled() && !request.headers().containsKey(TraceContext.HEADER)) {
+                request = request.withHeader(TraceContext.HEADER, TraceContext.newRoot().traceparent());
+            }
+            if (warmUp != null) {
+                warmUp.record(client.send(request).latencyNanos());
+                return;
+            }
+            // Номер в журнале берется при отправке: записи идут в порядке отправки, а не завершения
+            long ticket = log != null ? log.begin() : -1;
+            EndpointCallEvent event = new EndpointCallEvent(client.name(), request.action());
+            event.begin();
+            EndpointResponse response = client.send(request);
+            event.finish(response.status());
+            if (intendedStart != NOT_SCHEDULED && response.startNanos() - intendedStart > LATE_THRESHOLD_NANOS) {
+                lateSessions.increment();
+                response = new EndpointResponse(response.status(), response.body(), intendedStart,
+                        response.startNanos() + response.latencyNanos() - intendedStart);
+            }
+            if (log != null) {
+                log.complete(ticket, request, response);
+            }
+            for (ResponseListener listener : listeners) {
+                listener.onResponse(request, response);
+            }
+            latency.record(response.latencyNanos());
+            requests.increment();
+            if (!response.isOk()) {
+                errors.increment();
+            }
+        }
+    }
+}
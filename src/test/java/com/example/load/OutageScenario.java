@@ -0,0 +1,231 @@
+package com.example.load;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+/**
+ * Сценарий отказов внешнего сервиса под постоянной нагрузкой:
+ * LoadRunner непрерывно гоняет сессии LOGIN/ACTION/LOGOUT, а WireMock переключает
+ * /auth и /doAction в окна отказа (500) и обратно. Для каждого окна считается время
+ * до первого успеха, время возврата к базовому p99 и потраченный бюджет ошибок,
+ * а соотношение вызовов внешнего сервиса к запросам показывает ретраи или circuit breaker
+ */
+public class OutageScenario {
+
+    private static final long BUCKET_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final double BASELINE_TOLERANCE = 1.5;
+
+    private final WireMockServer wireMock;
+    private final EndpointClient client;
+    private int workers = LoadConfig.workers();
+    private Duration baseline = Duration.ofSeconds(5);
+    private final List<Outage> outages = new ArrayList<>();
+
+    public OutageScenario(WireMockServer wireMock, EndpointClient client) {
+        this.wireMock = wireMock;
+        this.client = client;
+    }
+
+    public OutageScenario workers(int workers) {
+        this.workers = workers;
+        return this;
+    }
+
+    public OutageScenario baseline(Duration baseline) {
+        this.baseline = baseline;
+        return this;
+    }
+
+    /**
+     * Добавить окно отказа: paths отвечают 500 в течение length, затем recovery на восстановление
+     */
+    public OutageScenario outage(String name, Duration length, Duration recovery, String... paths) {
+        outages.add(new Outage(name, length, recovery, paths));
+        return this;
+    }
+
+    public Report run() {
+        Duration total = baseline;
+        for (Outage outage : outages) {
+            total = total.plus(outage.length).plus(outage.recovery);
+        }
+
+        ConcurrentLinkedQueue<Sample> samples = new ConcurrentLinkedQueue<>();
+        // Без прогрева: окна отказа отсчитываются от start, прогрев сдвинул бы нагрузку относительно них
+        LoadRunner runner = new LoadRunner(client).workers(workers).duration(total).warmUp(false)
+                .listener((request, response) -> samples.add(new Sample(response.startNanos(),
+                        response.startNanos() + response.latencyNanos(), response.latencyNanos(), response.isOk())));
+
+        wireMock.resetRequests();
+        ExecutorService loadThread = Executors.newSingleThreadExecutor(r -> new Thread(r, "outage-load"));
+        List<Phase> phases = new ArrayList<>();
+        long start = System.nanoTime();
+        long startWall = System.currentTimeMillis();
+        try {
+            CompletableFuture<LoadResult> load = CompletableFuture.supplyAsync(runner::run, loadThread);
+            long next = start + baseline.toNanos();
+            for (Outage outage : outages) {
+                sleepUntil(next);
+                List<StubMapping> stubs = new ArrayList<>();
+                for (String path : outage.paths) {
+                    stubs.add(wireMock.stubFor(post(path).atPriority(1).willReturn(serverError())));
+                }
+                long outageStart = System.nanoTime();
+                long outageStartWall = System.currentTimeMillis();
+                System.out.println("=== [OUTAGE] " + outage.name + " started: " + Arrays.toString(outage.paths) + " -> 500 ===");
+
+                sleepUntil(outageStart + outage.length.toNanos());
+                stubs.forEach(wireMock::removeStub);
+                long outageEnd = System.nanoTime();
+                long outageEndWall = System.currentTimeMillis();
+                System.out.println("=== [OUTAGE] " + outage.name + " ended ===");
+
+                next = outageEnd + outage.recovery.toNanos();
+                phases.add(new Phase(outage, outageStart, outageEnd, next, outageStartWall, outageEndWall,
+                        outageEndWall + outage.recovery.toMillis()));
+            }
+            load.join();
+        } finally {
+            loadThread.shutdownNow();
+        }
+
+        return analyze(new ArrayList<>(samples), phases, start, startWall);
+    }
+
+    private Report analyze(List<Sample> samples, List<Phase> phases, long start, long startWall) {
+        samples.sort(Comparator.comparingLong(Sample::startNanos));
+        List<ServeEvent> upstream = wireMock.getAllServeEvents();
+
+        long baselineEnd = phases.isEmpty() ? Long.MAX_VALUE : phases.get(0).start;
+        long baselineEndWall = phases.isEmpty() ? Long.MAX_VALUE : phases.get(0).startWall;
+        double baselineP99 = p99(samples, start, baselineEnd);
+        double baselineRatio = ratio(upstream, startWall, baselineEndWall, samples, start, baselineEnd);
+
+        List<OutageResult> results = new ArrayList<>();
+        for (Phase phase : phases) {
+            long requestsDuring = count(samples, phase.start, phase.end, false);
+            long errorsDuring = count(samples, phase.start, phase.end, true);
+
+            double firstSuccess = -1;
+            for (Sample sample : samples) {
+                if (sample.startNanos >= phase.end && sample.ok) {
+                    firstSuccess = (sample.endNanos - phase.end) / 1_000_000.0;
+                    break;
+                }
+            }
+
+            long recoveredAt = -1;
+            for (long bucket = phase.end; bucket < phase.recoveryEnd; bucket += BUCKET_NANOS) {
+                long bucketEnd = Math.min(bucket + BUCKET_NANOS, phase.recoveryEnd);
+                if (count(samples, bucket, bucketEnd, false) > 0
+                        && count(samples, bucket, bucketEnd, true) == 0
+                        && p99(samples, bucket, bucketEnd) <= baselineP99 * BASELINE_TOLERANCE) {
+                    recoveredAt = bucket;
+                    break;
+                }
+            }
+            long budgetEnd = recoveredAt >= 0 ? recoveredAt : phase.recoveryEnd;
+
+            results.add(new OutageResult(phase.outage.name, Arrays.toString(phase.outage.paths),
+                    (phase.end - phase.start) / 1_000_000, requestsDuring, errorsDuring, firstSuccess,
+                    recoveredAt >= 0 ? (recoveredAt - phase.end) / 1_000_000.0 : -1,
+                    count(samples, phase.start, budgetEnd, true),
+                    count(samples, phase.end, budgetEnd, true),
+                    ratio(upstream, phase.startWall, phase.endWall, samples, phase.start, phase.end),
+                    ratio(upstream, phase.endWall, phase.recoveryEndWall, samples, phase.end, phase.recoveryEnd)));
+        }
+        Report report = new Report(baselineP99, baselineRatio, results);
+        System.out.println("=== [OUTAGE] Report ===\n" + report.formatTable());
+        return report;
+    }
+
+    private static long count(List<Sample> samples, long from, long to, boolean errorsOnly) {
+        return samples.stream()
+                .filter(s -> s.startNanos >= from && s.startNanos < to)
+                .filter(s -> !errorsOnly || !s.ok)
+                .count();
+    }
+
+    private static double p99(List<Sample> samples, long from, long to) {
+        LatencyStats stats = new LatencyStats();
+        samples.stream()
+                .filter(s -> s.startNanos >= from && s.startNanos < to)
+                .forEach(s -> stats.record(s.latencyNanos));
+        return stats.snapshot().p99();
+    }
+
+    /**
+     * Вызовов /auth и /doAction на один клиентский запрос в окне
+     */
+    private static double ratio(List<ServeEvent> upstream, long fromWall, long toWall,
+                                List<Sample> samples, long from, long to) {
+        long requests = count(samples, from, to, false);
+        if (requests == 0) {
+            return 0;
+        }
+        long calls = upstream.stream()
+                .filter(e -> e.getRequest().getUrl().matches("/auth|/doAction"))
+                .mapToLong(e -> e.getRequest().getLoggedDate().getTime())
+                .filter(t -> t >= fromWall && t < toWall)
+                .count();
+        return (double) calls / requests;
+    }
+
+    private static void sleepUntil(long deadline) {
+        long wait;
+        while ((wait = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    private record Outage(String name, Duration length, Duration recovery, String[] paths) {
+    }
+
+    private record Phase(Outage outage, long start, long end, long recoveryEnd,
+                         long startWall, long endWall, long recoveryEndWall) {
+    }
+
+    private record Sample(long startNanos, long endNanos, long latencyNanos, boolean ok) {
+    }
+
+    /**
+     * Итоги одного окна отказа; -1 - событие не наступило до конца окна восстановления
+     */
+    public record OutageResult(String name, String paths, long outageMillis, long requestsDuring, long errorsDuring,
+                               double timeToFirstSuccessMillis, double timeToBaselineP99Millis,
+                               long errorBudgetSpent, long errorsAfterRestore,
+                               double upstreamPerRequestDuring, double upstreamPerRequestAfter) {
+    }
+
+    public record Report(double baselineP99, double baselineUpstreamPerRequest, List<OutageResult> outages) {
+
+        public String formatTable() {
+            StringBuilder table = new StringBuilder(String.format(
+                    "baseline p99: %.2fms, upstream calls per request: %.2f%n", baselineP99, baselineUpstreamPerRequest));
+            table.append(String.format("%-16s %-22s %9s %9s %12s %14s %10s %12s %11s %11s%n",
+                    "outage", "paths", "req", "err", "1st ok,ms", "baseline,ms", "budget", "err after", "up/req in", "up/req out"));
+            for (OutageResult r : outages) {
+                table.append(String.format("%-16s %-22s %9d %9d %12.1f %14.1f %10d %12d %11.2f %11.2f%n",
+                        r.name, r.paths, r.requestsDuring, r.errorsDuring, r.timeToFirstSuccessMillis,
+                        r.timeToBaselineP99Millis, r.errorBudgetSpent, r.errorsAfterRestore,
+                        r.upstreamPerRequestDuring, r.upstreamPerRequestAfter));
+            }
+            return table.toString();
+        }
+    }
+}
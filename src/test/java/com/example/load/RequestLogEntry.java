@@ -0,0 +1,16 @@
+package com.example.load;
+
+/**
+ * Запись журнала запросов: интервал от предыдущего запроса, параметры запроса и исход
+ * apiKey = null - заголовок X-Api-Key не отправлялся; status = -1 - ошибка соединения,
+ * status = UNKNOWN_STATUS - исход не известен (трафик из access логов)
+ */
+public record RequestLogEntry(long interArrivalMicros, String token, String action, String apiKey,
+                              int status, int latencyMicros) {
+
+    public static final int UNKNOWN_STATUS = 0;
+
+    public EndpointRequest toRequest() {
+        return EndpointRequest.of(token, action).withApiKey(apiKey);
+    }
+}
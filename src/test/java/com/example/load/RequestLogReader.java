@@ -0,0 +1,140 @@
+package com.example.load;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Потоковое чтение журнала, записанного {@link RequestLogWriter}
+ * Файл отображается в память окнами по WINDOW_SIZE байт, поэтому многогигабайтные
+ * журналы не загружаются в heap целиком
+ */
+public class RequestLogReader implements Closeable {
+
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+    private static final int HEADER_SIZE = 4 + 2 + 8;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long size;
+    private final short version;
+    private final long seed;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private char[] chars = new char[64];
+
+    public RequestLogReader(Path file) {
+        this.file = file;
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IllegalArgumentException("Not a request log: " + file);
+            }
+            map(0);
+            if (window.getInt() != RequestLogWriter.MAGIC) {
+                throw new IllegalArgumentException("Not a request log: " + file);
+            }
+            this.version = window.getShort();
+            if (version < RequestLogWriter.MIN_VERSION || version > RequestLogWriter.VERSION) {
+                throw new IllegalArgumentException("Unsupported request log version " + version + ": " + file);
+            }
+            this.seed = window.getLong();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open request log " + file, e);
+        }
+    }
+
+    /**
+     * Версия формата журнала (см. {@link RequestLogWriter}); в версии 1 интервалы могут быть отрицательными
+     */
+    public short version() {
+        return version;
+    }
+
+    /**
+     * Seed прогона, в котором был записан журнал
+     */
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * Следующая запись или null, если журнал закончился
+     */
+    public RequestLogEntry next() {
+        long recordStart = windowStart + window.position();
+        if (recordStart >= size) {
+            return null;
+        }
+        try {
+            return readEntry();
+        } catch (BufferUnderflowException e) {
+            // Запись пересекает границу окна - отображаем следующее окно с начала записи
+            if (windowStart + window.limit() >= size) {
+                throw new IllegalStateException("Truncated request log " + file + " at offset " + recordStart, e);
+            }
+            map(recordStart);
+            return readEntry();
+        }
+    }
+
+    private RequestLogEntry readEntry() {
+        int interArrival = window.getInt();
+        String token = readUtf();
+        String action = readUtf();
+        String apiKey = window.get() != 0 ? readUtf() : null;
+        int status = window.getShort();
+        int latency = window.getInt();
+        return new RequestLogEntry(interArrival, token, action, apiKey, status, latency);
+    }
+
+    /**
+     * Декодирование modified UTF-8, как в DataOutputStream.writeUTF
+     */
+    private String readUtf() {
+        int length = Short.toUnsignedInt(window.getShort());
+        if (length > window.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        int count = 0;
+        int end = window.position() + length;
+        while (window.position() < end) {
+            int b = window.get() & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[count++] = (char) (((b & 0x1F) << 6) | (window.get() & 0x3F));
+            } else {
+                chars[count++] = (char) (((b & 0x0F) << 12) | ((window.get() & 0x3F) << 6) | (window.get() & 0x3F));
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    private void map(long position) {
+        try {
+            windowStart = position;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map request log " + file, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close request log " + file, e);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.load;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Воспроизведение журнала запросов с исходным темпом или ускоренно
+ * speed = 1 - исходные интервалы, speed = 4 - в 4 раза быстрее, speed = 0 - без пауз
+ * Запросы разных token идут параллельно, а запросы одного token - строго в порядке журнала:
+ * следующий отправляется только после ответа на предыдущий (LOGIN не обгонит ACTION своей сессии)
+ */
+public class RequestLogReplayer {
+
+    private final EndpointClient client;
+    private int workers = LoadConfig.workers();
+    private double speed = 1.0;
+    private long mismatches;
+
+    public RequestLogReplayer(EndpointClient client) {
+        this.client = client;
+    }
+
+    public RequestLogReplayer workers(int workers) {
+        this.workers = workers;
+        return this;
+    }
+
+    public RequestLogReplayer speed(double speed) {
+        this.speed = speed;
+        return this;
+    }
+
+    /**
+     * Сколько запросов последнего воспроизведения получили другой статус, чем в записи
+     */
+    public long mismatches() {
+        return mismatches;
+    }
+
+    public LoadResult replay(Path file) {
+        try (RequestLogReader reader = new RequestLogReader(file)) {
+            return replay(reader::next, "replay x" + speed + " of " + file.getFileName());
+        }
+    }
+
+    /**
+     * Воспроизвести поток записей; source возвращает null в конце
+     */
+    LoadResult replay(EntrySource source, String name) {
+        System.out.println("=== [REPLAY] " + name + ": " + workers + " workers ===");
+
+        LatencyStats latency = new LatencyStats();
+        LongAdder requests = new LongAdder();
+        LongAdder errors = new LongAdder();
+        LongAdder mismatches = new LongAdder();
+        LongAccumulator maxLagNanos = new LongAccumulator(Math::max, 0);
+
+        // Ограничиваем число запросов в полете, чтобы не копить очередь при отставании сервиса
+        Semaphore inFlight = new Semaphore(workers);
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers,
+                r -> new Thread(r, "replay-worker-" + threadCounter.incrementAndGet()));
+
+        // Последний запрос каждого token: следующий запрос этого token запускается после него
+        Map<String, CompletableFuture<Void>> lastByToken = new ConcurrentHashMap<>();
+
+        long start = System.nanoTime();
+        long scheduleMicros = 0;
+        try {
+            RequestLogEntry entry;
+            while ((entry = source.next()) != null) {
+                // Сумма интервалов дает момент отправки запроса в исходном прогоне
+                // (в журналах версии 1 записи шли в порядке завершения и интервал мог быть отрицательным)
+                scheduleMicros += entry.interArrivalMicros();
+                if (speed > 0) {
+                    long target = start + (long) (scheduleMicros * 1000 / speed);
+                    long wait;
+                    while ((wait = target - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    maxLagNanos.accumulate(System.nanoTime() - target);
+                }
+
+                inFlight.acquire();
+                RequestLogEntry current = entry;
+                Runnable task = () -> {
+                    try {
+                        EndpointResponse response = client.send(current.toRequest());
+                        latency.record(response.latencyNanos());
+                        requests.increment();
+                        if (!response.isOk()) {
+                            errors.increment();
+                        }
+                        if (current.status() != RequestLogEntry.UNKNOWN_STATUS && current.status() != response.status()) {
+                            mismatches.increment();
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                };
+                CompletableFuture<Void> sent = lastByToken.compute(current.token(), (token, previous) -> previous == null
+                        ? CompletableFuture.runAsync(task, pool)
+                        : previous.exceptionally(error -> null).thenRunAsync(task, pool));
+                sent.whenComplete((ignored, error) -> lastByToken.remove(current.token(), sent));
+            }
+            for (CompletableFuture<Void> last : List.copyOf(lastByToken.values())) {
+                last.join();
+            }
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.HOURS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Replay interrupted", e);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        this.mismatches = mismatches.sum();
+        LoadResult result = new LoadResult(name, requests.sum(), errors.sum(),
+                System.nanoTime() - start, latency.snapshot())
+                .withExtra("status mismatches vs recording", String.valueOf(mismatches.sum()))
+                .withExtra("max dispatch lag", String.format("%.2fms", maxLagNanos.get() / 1_000_000.0));
+        System.out.println("=== [REPLAY] " + result + " ===");
+        return result;
+    }
+
+    /**
+     * Источник записей журнала
+     */
+    @FunctionalInterface
+    interface EntrySource {
+        RequestLogEntry next();
+    }
+}
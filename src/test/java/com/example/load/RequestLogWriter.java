@@ -0,0 +1,141 @@
+package com.example.load;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Компактная бинарная запись последовательности запросов и их таймингов
+ * Формат: int magic, short version, long seed, затем записи
+ * (int interArrivalMicros, UTF token, UTF action, byte hasApiKey, [UTF apiKey], short status, int latencyMicros)
+ * Записи идут в порядке отправки запросов: {@link #begin()} выдает номер при отправке, {@link #complete} сохраняет
+ * исход, а в файл уходят только завершенные записи без пропусков по номерам. Интервал между записями неотрицательный
+ * Версии: 1 - записи в порядке завершения (интервал мог быть отрицательным), 2 - в порядке отправки
+ */
+public class RequestLogWriter implements Closeable {
+
+    static final int MAGIC = 0x4E435251; // "NCRQ"
+    static final short VERSION = 2;
+    // Самая старая версия, которую еще читает RequestLogReader
+    static final short MIN_VERSION = 1;
+
+    private final Path file;
+    private final DataOutputStream out;
+    private long lastSendNanos = Long.MIN_VALUE;
+    private long entries;
+    // Отправленные, но еще не записанные запросы по номеру отправки
+    private final TreeMap<Long, Pending> pending = new TreeMap<>();
+    private long nextTicket;
+
+    public RequestLogWriter(Path file, long seed) {
+        this.file = file;
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024));
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(seed);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create request log " + file, e);
+        }
+    }
+
+    /**
+     * Отметить отправку запроса (вызывать непосредственно перед отправкой); возвращает номер для {@link #complete}
+     */
+    public synchronized long begin() {
+        long ticket = nextTicket++;
+        pending.put(ticket, new Pending(System.nanoTime()));
+        return ticket;
+    }
+
+    /**
+     * Сохранить исход запроса; в файл записываются все завершенные запросы, отправленные до первого незавершенного
+     */
+    public synchronized void complete(long ticket, EndpointRequest request, EndpointResponse response) {
+        Pending entry = pending.get(ticket);
+        if (entry == null) {
+            throw new IllegalArgumentException("Unknown or already written ticket " + ticket);
+        }
+        entry.request = request;
+        entry.response = response;
+        flush(false);
+    }
+
+    private void flush(boolean closing) {
+        while (!pending.isEmpty()) {
+            Map.Entry<Long, Pending> first = pending.firstEntry();
+            Pending entry = first.getValue();
+            if (entry.response == null && !closing) {
+                return;
+            }
+            pending.pollFirstEntry();
+            if (entry.response == null) {
+                // Запрос так и не завершился - в журнал не попадает
+                continue;
+            }
+            long interArrival = lastSendNanos == Long.MIN_VALUE ? 0 : (entry.sendNanos - lastSendNanos) / 1000;
+            lastSendNanos = entry.sendNanos;
+            write(new RequestLogEntry(interArrival, entry.request.token(), entry.request.action(), entry.request.apiKey(),
+                    entry.response.status(), (int) Math.min(Integer.MAX_VALUE, entry.response.latencyNanos() / 1000)));
+        }
+    }
+
+    public synchronized void write(RequestLogEntry entry) {
+        try {
+            out.writeInt((int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, entry.interArrivalMicros())));
+            out.writeUTF(entry.token());
+            out.writeUTF(entry.action());
+            out.writeBoolean(entry.apiKey() != null);
+            if (entry.apiKey() != null) {
+                out.writeUTF(entry.apiKey());
+            }
+            out.writeShort(entry.status());
+            out.writeInt(entry.latencyMicros());
+            entries++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write request log " + file, e);
+        }
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public synchronized long entries() {
+        return entries;
+    }
+
+    @Override
+    public synchronized void close() {
+        int incomplete = (int) pending.values().stream().filter(p -> p.response == null).count();
+        flush(true);
+        if (incomplete > 0) {
+            System.err.println("=== [WARN] " + incomplete + " unfinished requests not written to " + file + " ===");
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close request log " + file, e);
+        }
+    }
+
+    private static final class Pending {
+
+        private final long sendNanos;
+        private EndpointRequest request;
+        private EndpointResponse response;
+
+        Pending(long sendNanos) {
+            this.sendNanos = sendNanos;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.load;
+
+/**
+ * Наблюдатель за каждым запросом нагрузочного прогона (временные ряды, разбивки и т.п.)
+ * Вызывается из потоков воркеров, реализации должны быть потокобезопасны
+ */
+@FunctionalInterface
+public interface ResponseListener {
+
+    void onResponse(EndpointRequest request, EndpointResponse response);
+}
@@ -0,0 +1,142 @@
+package com.example.load;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Поиск точки насыщения (knee point) /endpoint:
+ * предлагаемая нагрузка растет ступенями (×growth) до первого нарушения SLO,
+ * затем граница уточняется бинарным поиском между последней хорошей и первой плохой ступенью.
+ * Результат - кривая задержка/пропускная способность и максимальная устойчивая нагрузка
+ */
+public class SaturationCurveFinder {
+
+    private final EndpointClient client;
+    private double sloP99Millis = LoadConfig.sloP99Millis();
+    private double maxErrorRate = LoadConfig.sloMaxErrorRate();
+    private double startRate = LoadConfig.startRate();
+    private double growth = LoadConfig.rateGrowth();
+    private double maxRate = LoadConfig.maxRate();
+    private Duration stepDuration = LoadConfig.stepDuration();
+    private int searchIterations = 4;
+    private int workers = LoadConfig.openLoopWorkers();
+
+    public SaturationCurveFinder(EndpointClient client) {
+        this.client = client;
+    }
+
+    public SaturationCurveFinder slo(double p99Millis, double maxErrorRate) {
+        this.sloP99Millis = p99Millis;
+        this.maxErrorRate = maxErrorRate;
+        return this;
+    }
+
+    public SaturationCurveFinder rates(double startRate, double growth, double maxRate) {
+        this.startRate = startRate;
+        this.growth = growth;
+        this.maxRate = maxRate;
+        return this;
+    }
+
+    public SaturationCurveFinder stepDuration(Duration stepDuration) {
+        this.stepDuration = stepDuration;
+        return this;
+    }
+
+    public SaturationCurveFinder searchIterations(int searchIterations) {
+        this.searchIterations = searchIterations;
+        return this;
+    }
+
+    public Curve find() {
+        List<Point> points = new ArrayList<>();
+        Point lastGood = null;
+        Point firstBad = null;
+
+        for (double rate = startRate; rate <= maxRate; rate *= growth) {
+            Point point = measure(rate);
+            points.add(point);
+            if (!point.withinSlo()) {
+                firstBad = point;
+                break;
+            }
+            lastGood = point;
+        }
+
+        if (firstBad != null) {
+            double low = lastGood != null ? lastGood.offered : 0;
+            double high = firstBad.offered;
+            for (int i = 0; i < searchIterations; i++) {
+                Point point = measure((low + high) / 2);
+                points.add(point);
+                if (point.withinSlo()) {
+                    low = point.offered;
+                    lastGood = lastGood == null || point.achieved > lastGood.achieved ? point : lastGood;
+                } else {
+                    high = point.offered;
+                }
+            }
+        }
+
+        points.sort(Comparator.comparingDouble(Point::offered));
+        return new Curve(points, lastGood, sloP99Millis, maxErrorRate);
+    }
+
+    private Point measure(double rate) {
+        System.out.println("=== [KNEE] Offered load " + String.format("%.1f", rate) + " req/s ===");
+        LoadResult result = new LoadRunner(client)
+                .workers(workers)
+                .duration(stepDuration)
+                .ratePerSecond(rate)
+                .run();
+        // Отставание от расписания уже учтено в задержках (открытый цикл), поэтому достаточно SLO
+        boolean within = result.latency().p99() <= sloP99Millis && result.errorRate() <= maxErrorRate;
+        return new Point(rate, result.throughput(), result.latency().p50(), result.latency().p90(),
+                result.latency().p99(), result.errorRate(), within);
+    }
+
+    /**
+     * Точка кривой: предлагаемая и достигнутая нагрузка (req/s), задержки в ms
+     */
+    public record Point(double offered, double achieved, double p50, double p90, double p99,
+                        double errorRate, boolean withinSlo) {
+    }
+
+    public record Curve(List<Point> points, Point maxSustainable, double sloP99Millis, double maxErrorRate) {
+
+        /**
+         * Максимальная достигнутая нагрузка в пределах SLO (0 - SLO нарушен уже на первой ступени)
+         */
+        public double maxSustainableThroughput() {
+            return maxSustainable == null ? 0 : maxSustainable.achieved;
+        }
+
+        public String toCsv() {
+            StringBuilder csv = new StringBuilder("offered_rps,achieved_rps,p50_ms,p90_ms,p99_ms,error_rate,within_slo\n");
+            for (Point p : points) {
+                csv.append(String.format(java.util.Locale.ROOT, "%.1f,%.1f,%.3f,%.3f,%.3f,%.5f,%s%n",
+                        p.offered, p.achieved, p.p50, p.p90, p.p99, p.errorRate, p.withinSlo));
+            }
+            return csv.toString();
+        }
+
+        public Path writeCsv(Path file) {
+            try {
+                if (file.getParent() != null) {
+                    Files.createDirectories(file.getParent());
+                }
+                Files.writeString(file, toCsv(), StandardCharsets.UTF_8);
+                return file;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write saturation curve " + file, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Резидентная память процесса сервиса (VmRSS из /proc/&lt;pid&gt;/status) во время одного запроса.
+ *
+ * PID берется из -Dload.servicePid, иначе ищется процесс, слушающий порт сервиса
+ * (/proc/net/tcp* -> inode сокета -> /proc/&lt;pid&gt;/fd). Работает только на Linux и только если
+ * сервис запущен на той же машине; иначе {@link #available()} == false и замеры пропускаются.
+ */
+public class ServiceMemorySampler {
+
+    private static final long SAMPLE_MILLIS = 5;
+
+    private final long pid;
+
+    private ServiceMemorySampler(long pid) {
+        this.pid = pid;
+    }
+
+    public static ServiceMemorySampler forPort(int port) {
+        Long configured = Long.getLong("load.servicePid");
+        return new ServiceMemorySampler(configured != null ? configured : findListener(port));
+    }
+
+    public boolean available() {
+        return pid > 0 && rssKb() >= 0;
+    }
+
+    public long pid() {
+        return pid;
+    }
+
+    /**
+     * Текущий VmRSS, KB; -1 - недоступно
+     */
+    public long rssKb() {
+        if (pid <= 0) {
+            return -1;
+        }
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+        return -1;
+    }
+
+    /**
+     * Выполнить действие, опрашивая VmRSS каждые 5 мс; возвращает пик прироста над исходным значением
+     */
+    public <T> Sampled<T> during(Supplier<T> action) {
+        if (!available()) {
+            return new Sampled<>(action.get(), -1, -1);
+        }
+        long before = rssKb();
+        AtomicLong peak = new AtomicLong(before);
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                peak.accumulateAndGet(rssKb(), Math::max);
+                try {
+                    Thread.sleep(SAMPLE_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "service-rss-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+        try {
+            return new Sampled<>(action.get(), before, peak.get());
+        } finally {
+            sampler.interrupt();
+        }
+    }
+
+    // LISTEN (0A) сокет на порту -> inode -> процесс, у которого он открыт
+    private static long findListener(int port) {
+        String hexPort = String.format(":%04X", port);
+        String inode = null;
+        for (String table : List.of("/proc/net/tcp", "/proc/net/tcp6")) {
+            try {
+                for (String line : Files.readAllLines(Path.of(table))) {
+                    String[] columns = line.trim().split("\\s+");
+                    if (columns.length > 9 && columns[1].endsWith(hexPort) && "0A".equals(columns[3])) {
+                        inode = columns[9];
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                return -1;
+            }
+            if (inode != null) {
+                break;
+            }
+        }
+        if (inode == null) {
+            return -1;
+        }
+        String target = "socket:[" + inode + "]";
+        try (Stream<Path> processes = Files.list(Path.of("/proc"))) {
+            return processes
+                    .filter(p -> p.getFileName().toString().matches("\\d+"))
+                    .filter(p -> ownsSocket(p, target))
+                    .mapToLong(p -> Long.parseLong(p.getFileName().toString()))
+                    .findFirst()
+                    .orElse(-1);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static boolean ownsSocket(Path process, String target) {
+        try (Stream<Path> fds = Files.list(process.resolve("fd"))) {
+            return fds.anyMatch(fd -> {
+                try {
+                    return target.equals(Files.readSymbolicLink(fd).toString());
+                } catch (IOException | UnsupportedOperationException e) {
+                    return false;
+                }
+            });
+        } catch (IOException | SecurityException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Результат действия и память сервиса во время него (KB, -1 - не измерялась)
+     */
+    public record Sampled<T>(T value, long rssBeforeKb, long rssPeakKb) {
+
+        public long growthKb() {
+            return rssBeforeKb < 0 ? -1 : rssPeakKb - rssBeforeKb;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.example.load;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Медленные клиенты (slowloris) на одном NIO селекторе: тысячи неблокирующих соединений к /endpoint.
+ * Начало запроса пишется целиком сразу после установления соединения, дальше раз в interval досылается
+ * по одному байту хвоста, и запрос никогда не завершается.
+ * - HEADERS: начало - строка запроса и Host, хвост - бесконечные заголовки "X-Slow-N: ..." - запрос
+ *   не доходит до обработчика;
+ * - BODY: начало - полные заголовки с большим Content-Length, хвост - form-тело - занят поток чтения тела.
+ *
+ * Закрытые сервисом соединения считаются и переоткрываются, чтобы давление держалось постоянным.
+ * Использование: try (SlowClientSwarm swarm = new SlowClientSwarm(url, Mode.BODY, 2000, interval).start()) {...}
+ */
+public class SlowClientSwarm implements AutoCloseable {
+
+    public enum Mode {
+        HEADERS,
+        BODY
+    }
+
+    private static final long BODY_LENGTH = 1 << 20;
+    private static final int CONNECTS_PER_TICK = 200;
+
+    private final InetSocketAddress address;
+    private final Mode mode;
+    private final int connections;
+    private final long intervalNanos;
+    private final List<Slow> open = new ArrayList<>();
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong closedByServer = new AtomicLong();
+    private final AtomicLong connectFailures = new AtomicLong();
+    private final AtomicLong bytesTrickled = new AtomicLong();
+    private final AtomicLong bodiesStarted = new AtomicLong();
+    private final AtomicLong responses = new AtomicLong();
+    private volatile int currentlyOpen;
+    private volatile boolean running;
+    private Selector selector;
+    private Thread loop;
+
+    public SlowClientSwarm(String baseUrl, Mode mode, int connections, Duration interval) {
+        URI uri = URI.create(baseUrl);
+        this.address = new InetSocketAddress(uri.getHost(), uri.getPort() == -1 ? 80 : uri.getPort());
+        this.mode = mode;
+        this.connections = connections;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    public SlowClientSwarm start() {
+        try {
+            selector = Selector.open();
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot open selector", e);
+        }
+        running = true;
+        loop = new Thread(this::run, "slow-client-swarm");
+        loop.setDaemon(true);
+        loop.start();
+        return this;
+    }
+
+    /**
+     * Дождаться, пока будет установлено target соединений (часть может не открыться); false по таймауту
+     */
+    public boolean awaitOpen(int target, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (currentlyOpen < target) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        return true;
+    }
+
+    public Stats stats() {
+        return new Stats(mode, connections, currentlyOpen, opened.get(), closedByServer.get(),
+                connectFailures.get(), responses.get(), bytesTrickled.get(), bodiesStarted.get());
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (selector != null) {
+            selector.wakeup();
+        }
+        if (loop != null) {
+            try {
+                loop.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        long nextTick = System.nanoTime();
+        ByteBuffer readBuffer = ByteBuffer.allocate(4096);
+        try {
+            while (running) {
+                openMissing();
+                long wait = Math.max(1, TimeUnit.NANOSECONDS.toMillis(nextTick - System.nanoTime()));
+                selector.select(wait);
+                handleEvents(readBuffer);
+                if (System.nanoTime() >= nextTick) {
+                    trickle();
+                    nextTick += intervalNanos;
+                }
+                currentlyOpen = countConnected();
+            }
+        } catch (IOException e) {
+            System.err.println("=== [WARN] Slow client swarm stopped: " + e.getMessage() + " ===");
+        } finally {
+            for (Slow slow : open) {
+                slow.close();
+            }
+            open.clear();
+            currentlyOpen = 0;
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+                // селектор уже закрыт
+            }
+        }
+    }
+
+    // Недостающие соединения открываются порциями, чтобы не упереться в backlog сервиса разом
+    private void openMissing() {
+        int toOpen = Math.min(CONNECTS_PER_TICK, connections - open.size());
+        for (int i = 0; i < toOpen; i++) {
+            try {
+                SocketChannel channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                Slow slow = new Slow(channel, opened.incrementAndGet());
+                boolean connected = channel.connect(address);
+                channel.register(selector, connected ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT, slow);
+                open.add(slow);
+                if (connected) {
+                    connected(slow);
+                }
+            } catch (IOException e) {
+                connectFailures.incrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private void handleEvents(ByteBuffer readBuffer) {
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            Slow slow = (Slow) key.attachment();
+            try {
+                if (key.isValid() && key.isConnectable()) {
+                    slow.channel.finishConnect();
+                    key.interestOps(SelectionKey.OP_READ);
+                    connected(slow);
+                } else if (key.isValid() && key.isReadable()) {
+                    readBuffer.clear();
+                    int n = slow.channel.read(readBuffer);
+                    if (n < 0) {
+                        drop(slow, true);
+                    } else if (n > 0 && !slow.answered) {
+                        // Сервис ответил, не дождавшись конца запроса (408/400/413)
+                        slow.answered = true;
+                        responses.incrementAndGet();
+                    }
+                }
+            } catch (IOException e) {
+                if (slow.connected) {
+                    drop(slow, true);
+                } else {
+                    connectFailures.incrementAndGet();
+                    drop(slow, false);
+                }
+            }
+        }
+    }
+
+    // Начало запроса - одной неблокирующей записью; недописанный остаток дошлет trickle()
+    private void connected(Slow slow) throws IOException {
+        slow.connected = true;
+        slow.head = ByteBuffer.wrap(slow.head().getBytes(StandardCharsets.US_ASCII));
+        slow.channel.write(slow.head);
+    }
+
+    private void trickle() {
+        ByteBuffer single = ByteBuffer.allocate(1);
+        for (Slow slow : new ArrayList<>(open)) {
+            if (!slow.connected) {
+                continue;
+            }
+            try {
+                if (slow.head.hasRemaining()) {
+                    slow.channel.write(slow.head);
+                    continue;
+                }
+                if (slow.pending == null || !slow.pending.hasRemaining()) {
+                    slow.pending = ByteBuffer.wrap(slow.nextChunk().getBytes(StandardCharsets.US_ASCII));
+                }
+                single.clear();
+                single.put(slow.pending.get()).flip();
+                int written = slow.channel.write(single);
+                bytesTrickled.addAndGet(written);
+                if (written > 0 && mode == Mode.BODY && !slow.bodyStarted) {
+                    slow.bodyStarted = true;
+                    bodiesStarted.incrementAndGet();
+                }
+            } catch (IOException e) {
+                drop(slow, true);
+            }
+        }
+    }
+
+    private void drop(Slow slow, boolean byServer) {
+        if (byServer) {
+            closedByServer.incrementAndGet();
+        }
+        slow.close();
+        open.remove(slow);
+    }
+
+    private int countConnected() {
+        int count = 0;
+        for (Slow slow : open) {
+            if (slow.connected) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Одно медленное соединение: сначала начало запроса, затем бесконечный хвост
+     */
+    private final class Slow {
+
+        private final SocketChannel channel;
+        private final long id;
+        private ByteBuffer head;
+        private ByteBuffer pending;
+        private boolean started;
+        private boolean connected;
+        private boolean bodyStarted;
+        private boolean answered;
+        private long headerIndex;
+
+        private Slow(SocketChannel channel, long id) {
+            this.channel = channel;
+            this.id = id;
+        }
+
+        private String head() {
+            String head = "POST /endpoint HTTP/1.1\r\nHost: " + address.getHostString() + "\r\n"
+                    + "X-Api-Key: " + EndpointRequest.DEFAULT_API_KEY + "\r\n";
+            if (mode == Mode.BODY) {
+                return head + "Content-Type: application/x-www-form-urlencoded\r\n"
+                        + "Content-Length: " + BODY_LENGTH + "\r\n\r\n";
+            }
+            return head;
+        }
+
+        private String nextChunk() {
+            if (mode == Mode.BODY && !started) {
+                started = true;
+                return "token=";
+            }
+            if (mode == Mode.HEADERS) {
+                return "X-Slow-" + id + "-" + (headerIndex++) + ": a\r\n";
+            }
+            return StreamingPayload.TOKEN_ALPHABET;
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // соединение уже закрыто
+            }
+        }
+    }
+
+    /**
+     * Состояние роя медленных клиентов
+     *
+     * @param currentlyOpen  установленных соединений сейчас
+     * @param opened         всего открыто (с переоткрытием закрытых сервисом)
+     * @param closedByServer сколько раз сервис закрыл медленное соединение
+     * @param responses      сколько медленных соединений получили ответ до конца запроса
+     * @param bodiesStarted  сколько соединений BODY начали досылать тело (заголовки приняты сервисом целиком)
+     */
+    public record Stats(Mode mode, int target, int currentlyOpen, long opened, long closedByServer,
+                        long connectFailures, long responses, long bytesTrickled, long bodiesStarted) {
+
+        @Override
+        public String toString() {
+            return String.format("%s: target=%d open=%d opened=%d closed by service=%d connect failures=%d "
+                            + "early responses=%d trickled=%d bytes bodies started=%d",
+                    mode, target, currentlyOpen, opened, closedByServer, connectFailures, responses, bytesTrickled,
+                    bodiesStarted);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.load;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Определение установившегося режима по задержкам: окна по window запросов, режим считается
+ * установившимся, когда в последних windows окнах
+ * - средние почти не отличаются: коэффициент вариации средних не больше tolerance;
+ * - разброс внутри окон сопоставим: отношение наибольшей дисперсии к наименьшей не больше maxVarianceRatio.
+ * Потокобезопасен: задержки могут записывать несколько воркеров
+ */
+public class SteadyStateDetector {
+
+    private final int window;
+    private final int windows;
+    private final double tolerance;
+    private final double maxVarianceRatio;
+    private final long[] current;
+    private final List<Window> history = new ArrayList<>();
+    private int filled;
+    private long recorded;
+    private boolean steady;
+
+    public SteadyStateDetector(int window, int windows, double tolerance, double maxVarianceRatio) {
+        if (window < 2 || windows < 2) {
+            throw new IllegalArgumentException("Need at least 2 windows of 2 samples, got " + windows + " x " + window);
+        }
+        this.window = window;
+        this.windows = windows;
+        this.tolerance = tolerance;
+        this.maxVarianceRatio = maxVarianceRatio;
+        this.current = new long[window];
+    }
+
+    /**
+     * Параметры из -Dload.warmup* (см. LoadConfig)
+     */
+    public static SteadyStateDetector fromConfig() {
+        return new SteadyStateDetector(LoadConfig.warmUpWindow(), LoadConfig.warmUpWindows(),
+                LoadConfig.warmUpTolerance(), LoadConfig.warmUpVarianceRatio());
+    }
+
+    public synchronized void record(long nanos) {
+        recorded++;
+        current[filled++] = nanos;
+        if (filled == window) {
+            history.add(Window.of(current));
+            filled = 0;
+            steady = steady || test();
+        }
+    }
+
+    private boolean test() {
+        if (history.size() < windows) {
+            return false;
+        }
+        List<Window> recent = history.subList(history.size() - windows, history.size());
+        double sum = 0;
+        double minVariance = Double.MAX_VALUE;
+        double maxVariance = 0;
+        for (Window w : recent) {
+            sum += w.mean;
+            minVariance = Math.min(minVariance, w.variance);
+            maxVariance = Math.max(maxVariance, w.variance);
+        }
+        double mean = sum / windows;
+        double squares = 0;
+        for (Window w : recent) {
+            squares += (w.mean - mean) * (w.mean - mean);
+        }
+        double cv = mean == 0 ? 0 : Math.sqrt(squares / (windows - 1)) / mean;
+        boolean varianceStable = maxVariance == 0 || (minVariance > 0 && maxVariance / minVariance <= maxVarianceRatio);
+        return cv <= tolerance && varianceStable;
+    }
+
+    /**
+     * Установившийся режим достигнут (остается true после первого успешного теста)
+     */
+    public synchronized boolean steady() {
+        return steady;
+    }
+
+    public synchronized long recorded() {
+        return recorded;
+    }
+
+    /**
+     * Средние по завершенным окнам, мс
+     */
+    public synchronized List<Double> windowMeans() {
+        return history.stream().map(w -> w.mean / 1_000_000.0).toList();
+    }
+
+    public String describe() {
+        return String.format("windows of %d requests, steady when the last %d have CV of means <= %.0f%% "
+                + "and variance ratio <= %.1f", window, windows, tolerance * 100, maxVarianceRatio);
+    }
+
+    private record Window(double mean, double variance) {
+
+        static Window of(long[] samples) {
+            double sum = 0;
+            for (long sample : samples) {
+                sum += sample;
+            }
+            double mean = sum / samples.length;
+            double squares = 0;
+            for (long sample : samples) {
+                squares += (sample - mean) * (sample - mean);
+            }
+            return new Window(mean, squares / (samples.length - 1));
+        }
+    }
+}
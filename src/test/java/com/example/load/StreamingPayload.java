@@ -0,0 +1,129 @@
+package com.example.load;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Синтетическое тело или значение заголовка произвольной длины: prefix + fill байт по кругу из pattern + suffix.
+ * Байты генерируются при чтении из трех маленьких массивов, поэтому многомегабайтная нагрузка
+ * не занимает памяти в тесте (в отличие от "A".repeat(n) и REST Assured, который строит тело целиком).
+ *
+ * Поток одноразовый: для повторной отправки нужен {@link #reopen()}
+ */
+public final class StreamingPayload extends InputStream {
+
+    /** Символы валидного токена (HEX, как TestDataGenerator): длинный токен проходит проверку алфавита и упирается только в длину */
+    public static final String TOKEN_ALPHABET = "0123456789ABCDEF";
+
+    private final byte[] prefix;
+    private final byte[] pattern;
+    private final long fillLength;
+    private final byte[] suffix;
+    private long position;
+
+    private StreamingPayload(byte[] prefix, byte[] pattern, long fillLength, byte[] suffix) {
+        if (pattern.length == 0 && fillLength > 0) {
+            throw new IllegalArgumentException("Empty pattern for non-empty fill");
+        }
+        this.prefix = prefix;
+        this.pattern = pattern;
+        this.fillLength = fillLength;
+        this.suffix = suffix;
+    }
+
+    public static StreamingPayload of(String prefix, String pattern, long fillLength, String suffix) {
+        return new StreamingPayload(bytes(prefix), bytes(pattern), fillLength, bytes(suffix));
+    }
+
+    /**
+     * Фиксированное значение (обычный заголовок или короткое тело)
+     */
+    public static StreamingPayload fixed(String value) {
+        return of(value, "", 0, "");
+    }
+
+    /**
+     * Значение из length повторов pattern (например, заголовок X-Api-Key на мегабайт)
+     */
+    public static StreamingPayload repeat(String pattern, long length) {
+        return of("", pattern, length, "");
+    }
+
+    /**
+     * Форма token=&lt;tokenLength символов алфавита токена&gt;&amp;action=action
+     */
+    public static StreamingPayload tokenForm(long tokenLength, String action) {
+        return of("token=", TOKEN_ALPHABET, tokenLength, "&action=" + action);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Полная длина в байтах (для Content-Length)
+     */
+    public long length() {
+        return prefix.length + fillLength + suffix.length;
+    }
+
+    /**
+     * Новый поток с тем же содержимым
+     */
+    public StreamingPayload reopen() {
+        return new StreamingPayload(prefix, pattern, fillLength, suffix);
+    }
+
+    @Override
+    public int read() {
+        if (position >= length()) {
+            return -1;
+        }
+        return byteAt(position++) & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int count) {
+        long left = length() - position;
+        if (left <= 0) {
+            return -1;
+        }
+        int n = (int) Math.min(count, left);
+        for (int i = 0; i < n; i++) {
+            buffer[offset + i] = byteAt(position + i);
+        }
+        position += n;
+        return n;
+    }
+
+    @Override
+    public long skip(long count) {
+        long skipped = Math.max(0, Math.min(count, length() - position));
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, length() - position);
+    }
+
+    private byte byteAt(long index) {
+        if (index < prefix.length) {
+            return prefix[(int) index];
+        }
+        long fillIndex = index - prefix.length;
+        if (fillIndex < fillLength) {
+            return pattern[(int) (fillIndex % pattern.length)];
+        }
+        return suffix[(int) (fillIndex - fillLength)];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d bytes (%d + %d x '%s' + %d)", length(), prefix.length, fillLength,
+                pattern.length > 8 ? new String(pattern, 0, 8, StandardCharsets.US_ASCII) + "..."
+                        : new String(pattern, StandardCharsets.US_ASCII),
+                suffix.length);
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.load;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * POST /endpoint по голому сокету: заголовки и тело пишутся из {@link StreamingPayload} буфером 8 KB,
+ * ответ читается параллельно с записью. Так видно, на каком байте сервис отказал
+ * (ранний 413/431 или закрытие соединения), а не только итоговый статус.
+ *
+ * Пример:
+ * sender.request().header("X-Api-Key", key).body(StreamingPayload.tokenForm(8 << 20, "LOGIN")).send()
+ */
+public class StreamingRequestSender {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_BODY_CAPTURE = 512;
+    private static final long NO_RESPONSE = Long.MIN_VALUE;
+    // Чтение ответа блокируется на сокете до requestTimeout: свои потоки, а не общий ForkJoinPool
+    private static final ExecutorService READERS = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "streaming-response-reader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String host;
+    private final int port;
+
+    public StreamingRequestSender(String baseUrl) {
+        URI uri = URI.create(baseUrl);
+        this.host = uri.getHost();
+        this.port = uri.getPort() == -1 ? 80 : uri.getPort();
+    }
+
+    public Request request() {
+        return new Request();
+    }
+
+    /**
+     * Один запрос: заголовки в порядке добавления, тело с Content-Length или chunked
+     */
+    public final class Request {
+
+        private final List<String> names = new ArrayList<>();
+        private final List<StreamingPayload> values = new ArrayList<>();
+        private StreamingPayload body = StreamingPayload.fixed("");
+        private boolean chunked;
+
+        private Request() {
+        }
+
+        public Request header(String name, String value) {
+            return header(name, StreamingPayload.fixed(value));
+        }
+
+        /**
+         * Заголовок, значение которого генерируется при записи (oversized headers)
+         */
+        public Request header(String name, StreamingPayload value) {
+            names.add(name);
+            values.add(value);
+            return this;
+        }
+
+        public Request body(StreamingPayload body) {
+            this.body = body;
+            return this;
+        }
+
+        /**
+         * Transfer-Encoding: chunked вместо Content-Length
+         */
+        public Request chunked() {
+            this.chunked = true;
+            return this;
+        }
+
+        public Result send() {
+            return StreamingRequestSender.this.send(this);
+        }
+
+        private long headerBytes() {
+            long total = 0;
+            for (int i = 0; i < names.size(); i++) {
+                total += names.get(i).length() + 4 + values.get(i).length();
+            }
+            return total;
+        }
+    }
+
+    private Result send(Request request) {
+        String head = head(request);
+        long offered = head.length() + request.headerBytes() + 2 + request.body.length();
+        AtomicLong written = new AtomicLong();
+        long timeoutMillis = LoadConfig.requestTimeout().toMillis();
+        long start = System.nanoTime();
+
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), (int) timeoutMillis);
+            socket.setSoTimeout((int) timeoutMillis);
+            socket.setTcpNoDelay(true);
+
+            // Ответ может прийти раньше, чем запрос дописан: читаем в отдельном потоке
+            CompletableFuture<Response> response = CompletableFuture.supplyAsync(() -> readResponse(socket, written), READERS);
+
+            String writeError = null;
+            try {
+                writeRequest(socket.getOutputStream(), head, request, written, response);
+            } catch (IOException e) {
+                // Сервис закрыл или сбросил соединение, не дочитав запрос
+                writeError = e.getClass().getSimpleName() + ": " + e.getMessage();
+            }
+            long writeEnd = System.nanoTime();
+
+            Response parsed;
+            try {
+                parsed = response.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                parsed = Response.none("no response in " + timeoutMillis + " ms");
+            } catch (ExecutionException e) {
+                parsed = Response.none(String.valueOf(e.getCause()));
+            }
+            return new Result(parsed.status, offered, written.get(), parsed.bytesSentAtFirstByte,
+                    parsed.firstByteNanos == NO_RESPONSE ? Double.NaN : (parsed.firstByteNanos - start) / 1_000_000.0,
+                    (writeEnd - start) / 1_000_000.0, (parsed.endNanos - start) / 1_000_000.0, writeError, parsed.body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Streaming request interrupted", e);
+        } catch (IOException e) {
+            double elapsed = (System.nanoTime() - start) / 1_000_000.0;
+            return new Result(-1, offered, written.get(), -1, Double.NaN, elapsed, elapsed,
+                    "connect: " + e.getMessage(), "");
+        }
+    }
+
+    private String head(Request request) {
+        return "POST /endpoint HTTP/1.1\r\n"
+                + "Host: " + host + ":" + port + "\r\n"
+                + "Accept: application/json\r\n"
+                + "Content-Type: application/x-www-form-urlencoded\r\n"
+                + "Connection: close\r\n"
+                + (request.chunked ? "Transfer-Encoding: chunked\r\n" : "Content-Length: " + request.body.length() + "\r\n");
+    }
+
+    private static void writeRequest(OutputStream socketOut, String head, Request request, AtomicLong written,
+                                     CompletableFuture<Response> response) throws IOException {
+        CountingOutput out = new CountingOutput(socketOut, written);
+        out.write(head);
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        for (int i = 0; i < request.names.size(); i++) {
+            out.write(request.names.get(i) + ": ");
+            copy(request.values.get(i), out, buffer, response, false);
+            out.write("\r\n");
+        }
+        out.write("\r\n");
+        copy(request.body, out, buffer, response, request.chunked);
+        if (request.chunked) {
+            out.write("0\r\n\r\n");
+        }
+        out.flush();
+    }
+
+    // Копирование кусками; если сервис уже ответил, дописывать бессмысленно
+    private static void copy(InputStream source, CountingOutput out, byte[] buffer,
+                             CompletableFuture<Response> response, boolean chunked) throws IOException {
+        int n;
+        while ((n = source.read(buffer, 0, buffer.length)) > 0) {
+            if (response.isDone()) {
+                throw new IOException("response received before request was fully written");
+            }
+            if (chunked) {
+                out.write(Integer.toHexString(n) + "\r\n");
+            }
+            out.write(buffer, 0, n);
+            if (chunked) {
+                out.write("\r\n");
+            }
+        }
+    }
+
+    private static Response readResponse(Socket socket, AtomicLong written) {
+        try {
+            InputStream in = socket.getInputStream();
+            int first = in.read();
+            if (first < 0) {
+                return Response.none("connection closed without response");
+            }
+            long firstByteNanos = System.nanoTime();
+            long sentAtFirstByte = written.get();
+
+            ByteArrayOutputStream raw = new ByteArrayOutputStream();
+            raw.write(first);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int n;
+            // Connection: close - читаем до конца, сохраняя только начало ответа
+            while ((n = in.read(buffer)) > 0) {
+                if (raw.size() < MAX_BODY_CAPTURE * 8) {
+                    raw.write(buffer, 0, n);
+                }
+            }
+            return Response.parse(raw.toString(StandardCharsets.UTF_8), firstByteNanos, sentAtFirstByte);
+        } catch (IOException e) {
+            return Response.none(e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    private static final class Response {
+
+        private final int status;
+        private final String body;
+        private final long firstByteNanos;
+        private final long bytesSentAtFirstByte;
+        // Ответ дочитан, соединение закрыто или сброшено, либо истек таймаут ожидания
+        private final long endNanos = System.nanoTime();
+
+        private Response(int status, String body, long firstByteNanos, long bytesSentAtFirstByte) {
+            this.status = status;
+            this.body = body;
+            this.firstByteNanos = firstByteNanos;
+            this.bytesSentAtFirstByte = bytesSentAtFirstByte;
+        }
+
+        static Response none(String reason) {
+            return new Response(-1, reason, NO_RESPONSE, -1);
+        }
+
+        static Response parse(String raw, long firstByteNanos, long bytesSentAtFirstByte) {
+            int status = -1;
+            String[] statusLine = raw.split("\r\n", 2)[0].split(" ");
+            if (statusLine.length > 1 && statusLine[0].startsWith("HTTP/")) {
+                try {
+                    status = Integer.parseInt(statusLine[1]);
+                } catch (NumberFormatException ignored) {
+                    // не HTTP ответ
+                }
+            }
+            int bodyStart = raw.indexOf("\r\n\r\n");
+            String body = bodyStart < 0 ? "" : raw.substring(bodyStart + 4);
+            return new Response(status, body.length() > MAX_BODY_CAPTURE ? body.substring(0, MAX_BODY_CAPTURE) : body,
+                    firstByteNanos, bytesSentAtFirstByte);
+        }
+    }
+
+    private static final class CountingOutput {
+
+        private final OutputStream out;
+        private final AtomicLong written;
+
+        CountingOutput(OutputStream out, AtomicLong written) {
+            this.out = out;
+            this.written = written;
+        }
+
+        void write(String text) throws IOException {
+            byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+            write(bytes, 0, bytes.length);
+        }
+
+        void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            written.addAndGet(length);
+        }
+
+        void flush() throws IOException {
+            out.flush();
+        }
+    }
+
+    /**
+     * Результат отправки
+     *
+     * @param status             статус ответа, -1 - ответа не было (соединение закрыто или таймаут)
+     * @param bytesOffered       размер запроса, который пытались отправить (без служебных байт chunked)
+     * @param bytesWritten       сколько байт ушло в сокет до ответа или ошибки
+     * @param bytesAtFirstByte   сколько байт было отправлено к моменту первого байта ответа
+     * @param firstByteMillis    время до первого байта ответа (время отказа)
+     * @param writeMillis        время записи запроса
+     * @param closeMillis        время до конца ответа или закрытия соединения сервисом (при зависании - не меньше
+     *                           requestTimeout)
+     * @param writeError         причина прерванной записи (null - запрос записан целиком)
+     */
+    public record Result(int status, long bytesOffered, long bytesWritten, long bytesAtFirstByte,
+                         double firstByteMillis, double writeMillis, double closeMillis, String writeError, String body) {
+
+        public boolean responded() {
+            return status > 0;
+        }
+
+        /**
+         * Сервис ответил раньше, чем получил весь запрос
+         */
+        public boolean rejectedEarly() {
+            return responded() && bytesAtFirstByte >= 0 && bytesAtFirstByte < bytesOffered;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("status=%d offered=%d written=%d at first byte=%d first byte=%.1fms write=%.1fms "
+                            + "closed=%.1fms%s",
+                    status, bytesOffered, bytesWritten, bytesAtFirstByte, firstByteMillis, writeMillis, closeMillis,
+                    writeError == null ? "" : " write error: " + writeError);
+        }
+    }
+}
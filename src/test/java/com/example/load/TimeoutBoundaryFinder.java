@@ -0,0 +1,439 @@
+package com.example.load;
+
+import com.example.mock.VirtualTimeDelays;
+import com.example.utils.RunSeed;
+import com.example.utils.TestDataGenerator;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+/**
+ * Поиск фактических таймаутов исходящего клиента сервиса (/auth и /doAction):
+ * - read timeout: пробы удерживаются в {@link VirtualTimeDelays}, пока сервис не закроет соединение;
+ * - граница read timeout: бисекция по моменту отпускания ответа, по несколько одновременных проб
+ *   на раунд, решение "успел/не успел" - по ответу сервиса;
+ * - connect timeout: WireMock временно заменяется сокетом с заполненной очередью accept,
+ *   соединение сервиса повисает на установлении;
+ * - те же измерения под фоновой нагрузкой, чтобы увидеть дрейф таймаутов из-за голодания потоков.
+ *
+ * Клиент должен иметь пул не меньше числа проб (см. {@link HttpClientEndpointClient#keepAlive})
+ */
+public class TimeoutBoundaryFinder {
+
+    static final String PROBE_PREFIX = "HOLD";
+
+    private final WireMockServer wireMock;
+    private final VirtualTimeDelays delays;
+    private final EndpointClient client;
+    private final Random random = RunSeed.random("timeout-boundary");
+    private int probes = LoadConfig.timeoutProbes();
+    private long resolutionMillis = LoadConfig.timeoutResolutionMillis();
+    private Duration maxWait = LoadConfig.timeoutMaxWait();
+    private int maxRounds = 8;
+
+    public TimeoutBoundaryFinder(WireMockServer wireMock, VirtualTimeDelays delays, EndpointClient client) {
+        this.wireMock = wireMock;
+        this.delays = delays;
+        this.client = client;
+    }
+
+    public TimeoutBoundaryFinder probes(int probes) {
+        this.probes = probes;
+        return this;
+    }
+
+    public TimeoutBoundaryFinder resolution(Duration resolution) {
+        this.resolutionMillis = Math.max(1, resolution.toMillis());
+        return this;
+    }
+
+    public TimeoutBoundaryFinder maxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+        return this;
+    }
+
+    public TimeoutBoundaryFinder maxRounds(int maxRounds) {
+        this.maxRounds = maxRounds;
+        return this;
+    }
+
+    // ==================== READ TIMEOUT ====================
+
+    /**
+     * Все пробы удерживаются одновременно; таймаут каждой - время от прихода в WireMock до разрыва
+     */
+    public Measurement readTimeout(String path) {
+        return measureHeld("read " + path, path, null);
+    }
+
+    /**
+     * То же под фоновой нагрузкой; фон запускается до проб и работает все время измерения.
+     * Прогрев фона отключается: иначе пробы попали бы на прогрев, а не на измеряемую нагрузку
+     */
+    public Measurement readTimeoutUnderLoad(String path, LoadRunner background) {
+        background.warmUp(false);
+        CompletableFuture<LoadResult> load = CompletableFuture.supplyAsync(background::run);
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(500));
+        Measurement measurement = measureHeld("read " + path + " under load", path, load);
+        return measurement.withBackground(load.join());
+    }
+
+    private Measurement measureHeld(String name, String path, CompletableFuture<LoadResult> background) {
+        StubMapping stub = installHold(path);
+        ExecutorService pool = Executors.newFixedThreadPool(probes);
+        try {
+            delays.reset();
+            List<String> tokens = probeTokens(probes);
+            List<Future<EndpointResponse>> calls = new ArrayList<>();
+            for (String token : tokens) {
+                calls.add(pool.submit(() -> probe(path, token)));
+            }
+
+            awaitHolds(tokens.size(), Duration.ofSeconds(10));
+            delays.awaitSettled(maxWait);
+            int stillHeld = delays.releaseAll();
+
+            List<Double> timeouts = new ArrayList<>();
+            for (VirtualTimeDelays.Hold hold : delays.holds()) {
+                if (hold.outcome() == VirtualTimeDelays.Outcome.DISCONNECTED) {
+                    timeouts.add(hold.heldMillis());
+                }
+            }
+            int succeeded = 0;
+            for (Future<EndpointResponse> call : calls) {
+                if (call.get().isOk()) {
+                    succeeded++;
+                }
+            }
+            int arrived = delays.holds().size();
+            Measurement measurement = new Measurement(name, probes, arrived, timeouts, stillHeld, succeeded, 0, null);
+            System.out.println("=== [TIMEOUT] " + measurement + " ===");
+            return measurement;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Timeout measurement interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Timeout probe failed", e.getCause());
+        } finally {
+            delays.releaseAll();
+            wireMock.removeStub(stub);
+            pool.shutdownNow();
+        }
+    }
+
+    // ==================== ГРАНИЦА READ TIMEOUT ====================
+
+    /**
+     * Бисекция по моменту отпускания ответа: в каждом раунде probes одновременных проб,
+     * отпускаемых через равномерно расставленные интервалы внутри текущей границы.
+     * Стартовая граница: [0, максимум измеренного таймаута + 50 мс], поэтому оценка должна быть измерена
+     */
+    public Boundary searchReadBoundary(String path, Measurement estimate) {
+        if (!estimate.measured()) {
+            throw new IllegalArgumentException("No read timeout measured to bound the search: " + estimate);
+        }
+        double lo = 0;
+        double hi = estimate.max() + 50;
+        int rounds = 0;
+        int inversions = 0;
+        StubMapping stub = installHold(path);
+        ExecutorService pool = Executors.newFixedThreadPool(probes * 2);
+        try {
+            while (hi - lo > resolutionMillis && rounds < maxRounds) {
+                rounds++;
+                delays.reset();
+                List<String> tokens = probeTokens(probes);
+                List<Double> offsets = new ArrayList<>();
+                List<Future<EndpointResponse>> calls = new ArrayList<>();
+                for (int i = 0; i < probes; i++) {
+                    double offset = lo + (hi - lo) * (i + 1) / (probes + 1);
+                    String token = tokens.get(i);
+                    offsets.add(offset);
+                    calls.add(pool.submit(() -> probe(path, token)));
+                    pool.submit(() -> releaseAfter(token, offset));
+                }
+
+                double accepted = lo;
+                double rejected = hi;
+                List<Double> acceptedOffsets = new ArrayList<>();
+                for (int i = 0; i < probes; i++) {
+                    if (calls.get(i).get().isOk()) {
+                        acceptedOffsets.add(offsets.get(i));
+                    } else {
+                        rejected = Math.min(rejected, offsets.get(i));
+                    }
+                }
+                for (double offset : acceptedOffsets) {
+                    if (offset < rejected) {
+                        accepted = Math.max(accepted, offset);
+                    } else {
+                        // Принят ответ позже отклоненного: граница "плавает" (джиттер таймера сервиса)
+                        inversions++;
+                    }
+                }
+                lo = accepted;
+                hi = rejected;
+                System.out.printf("=== [TIMEOUT] %s boundary round %d: accepted <= %.1f ms, rejected >= %.1f ms ===%n",
+                        path, rounds, lo, hi);
+            }
+            return new Boundary(path, lo, hi, rounds, inversions);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Boundary search interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Boundary probe failed", e.getCause());
+        } finally {
+            delays.releaseAll();
+            wireMock.removeStub(stub);
+            pool.shutdownNow();
+        }
+    }
+
+    // Отпустить ответ пробы ровно через offset мс после ее прихода в WireMock
+    private void releaseAfter(String token, double offset) {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        VirtualTimeDelays.Hold hold = null;
+        while (hold == null && System.nanoTime() < deadline) {
+            hold = delays.holds().stream().filter(h -> token.equals(h.token())).findFirst().orElse(null);
+            LockSupport.parkNanos(100_000);
+        }
+        while (hold != null && hold.outcome() == VirtualTimeDelays.Outcome.PENDING && hold.heldMillis() < offset) {
+            LockSupport.parkNanos(100_000);
+        }
+        if (hold != null) {
+            VirtualTimeDelays.Hold target = hold;
+            delays.release(h -> h == target);
+        }
+    }
+
+    // ==================== CONNECT TIMEOUT ====================
+
+    /**
+     * WireMock останавливается, на его порту открывается сокет с backlog=1, очередь accept
+     * заполняется, и новые SYN отбрасываются ядром: соединение сервиса висит до его connect timeout.
+     * Таймаут пробы = задержка LOGIN минус медиана задержки обычного LOGIN. Таймаутом считается только
+     * ошибка внешнего сервиса (500 с "ERROR"); остальные отказы (разрыв, другие коды) считаются отдельно,
+     * а ответ не раньше requestTimeout клиента - провал измерения: сервис так и не сдался
+     */
+    public Measurement connectTimeout() {
+        double baseline = baselineLoginMillis();
+        int port = wireMock.port();
+        wireMock.stop();
+        List<Socket> fillers = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(probes);
+        try (ServerSocket blackhole = new ServerSocket()) {
+            blackhole.setReuseAddress(true);
+            blackhole.bind(new InetSocketAddress(port), 1);
+            fillAcceptQueue(port, fillers);
+
+            List<Future<EndpointResponse>> calls = new ArrayList<>();
+            for (String token : probeTokens(probes)) {
+                calls.add(pool.submit(() -> client.send(EndpointRequest.of(token, "LOGIN"))));
+            }
+            List<Double> timeouts = new ArrayList<>();
+            int succeeded = 0;
+            int failedOtherwise = 0;
+            long clientTimeout = LoadConfig.requestTimeout().toNanos();
+            for (Future<EndpointResponse> call : calls) {
+                EndpointResponse response = call.get();
+                if (response.latencyNanos() >= clientTimeout) {
+                    throw new IllegalStateException("Connect probe hit the client timeout " + LoadConfig.requestTimeout()
+                            + " before the service gave up (status " + response.status() + ")");
+                }
+                if (response.isOk()) {
+                    succeeded++;
+                } else if (upstreamError(response)) {
+                    timeouts.add(response.latencyNanos() / 1_000_000.0 - baseline);
+                } else {
+                    failedOtherwise++;
+                    System.out.printf("=== [TIMEOUT] Connect probe failed otherwise: status %d after %.1f ms: %s ===%n",
+                            response.status(), response.latencyNanos() / 1_000_000.0, response.body());
+                }
+            }
+            Measurement measurement = new Measurement("connect", probes, probes, timeouts, 0, succeeded,
+                    failedOtherwise, null);
+            System.out.println("=== [TIMEOUT] " + measurement + " (baseline LOGIN " + String.format("%.1f", baseline) + " ms) ===");
+            return measurement;
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot occupy WireMock port " + port, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Connect timeout measurement interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Connect timeout probe failed", e.getCause());
+        } finally {
+            for (Socket filler : fillers) {
+                try {
+                    filler.close();
+                } catch (IOException ignored) {
+                    // сокет уже закрыт
+                }
+            }
+            pool.shutdownNow();
+            wireMock.start();
+        }
+    }
+
+    // Ответ сервиса на сбой внешнего API (см. ErrorHandlingTest): 500 и result=ERROR
+    private static boolean upstreamError(EndpointResponse response) {
+        return response.status() == 500 && response.body() != null && response.body().contains("\"ERROR\"");
+    }
+
+    private static void fillAcceptQueue(int port, List<Socket> fillers) {
+        for (int i = 0; i < 16; i++) {
+            Socket socket = new Socket();
+            try {
+                socket.connect(new InetSocketAddress("localhost", port), 200);
+                fillers.add(socket);
+            } catch (IOException full) {
+                // Очередь заполнена: следующее соединение уже не устанавливается
+                try {
+                    socket.close();
+                } catch (IOException ignored) {
+                    // не было открыто
+                }
+                return;
+            }
+        }
+    }
+
+    private double baselineLoginMillis() {
+        LatencyStats stats = new LatencyStats();
+        for (String token : probeTokens(5)) {
+            stats.record(client.send(EndpointRequest.of(token, "LOGIN")).latencyNanos());
+        }
+        return stats.snapshot().p50();
+    }
+
+    // ==================== ОБЩЕЕ ====================
+
+    private StubMapping installHold(String path) {
+        return wireMock.stubFor(post(urlEqualTo(path)).atPriority(1)
+                .withRequestBody(containing("token=" + PROBE_PREFIX))
+                .willReturn(VirtualTimeDelays.heldUntilReleased(okJson("{\"status\":\"ok\"}"))));
+    }
+
+    // Для /doAction сначала нужна сессия: LOGIN проходит без удержания
+    private EndpointResponse probe(String path, String token) {
+        if ("/doAction".equals(path)) {
+            EndpointResponse login = client.send(EndpointRequest.of(token, "LOGIN"));
+            if (!login.isOk()) {
+                return login;
+            }
+            return client.send(EndpointRequest.of(token, "ACTION"));
+        }
+        return client.send(EndpointRequest.of(token, "LOGIN"));
+    }
+
+    private void awaitHolds(int count, Duration timeout) throws InterruptedException {
+        if (!delays.awaitArrivals(count, timeout)) {
+            System.out.println("=== [TIMEOUT] Only " + delays.holds().size() + " of " + count
+                    + " probes reached WireMock (queued or rejected inside the service) ===");
+        }
+    }
+
+    private synchronized List<String> probeTokens(int count) {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tokens.add(PROBE_PREFIX + TestDataGenerator.generateValidToken(random).substring(PROBE_PREFIX.length()));
+        }
+        return tokens;
+    }
+
+    /**
+     * Результат измерения таймаута
+     *
+     * @param arrived    сколько проб дошло до WireMock (остальные застряли в сервисе)
+     * @param timeouts   через сколько мс сервис сдался, по каждой пробе
+     * @param neverGaveUp сколько проб сервис не отпустил за maxWait
+     * @param succeeded  сколько проб сервис завершил успешно
+     * @param failedOtherwise сколько проб завершились отказом, не похожим на таймаут (разрыв, неожиданный код)
+     */
+    public record Measurement(String name, int probes, int arrived, List<Double> timeouts, int neverGaveUp,
+                              int succeeded, int failedOtherwise, LoadResult background) {
+
+        Measurement withBackground(LoadResult result) {
+            return new Measurement(name, probes, arrived, timeouts, neverGaveUp, succeeded, failedOtherwise, result);
+        }
+
+        private DoubleSummaryStatistics stats() {
+            return timeouts.stream().mapToDouble(Double::doubleValue).summaryStatistics();
+        }
+
+        public boolean measured() {
+            return !timeouts.isEmpty();
+        }
+
+        public double min() {
+            return measured() ? stats().getMin() : Double.NaN;
+        }
+
+        public double avg() {
+            return measured() ? stats().getAverage() : Double.NaN;
+        }
+
+        public double max() {
+            return measured() ? stats().getMax() : Double.NaN;
+        }
+
+        public double spread() {
+            return max() - min();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: probes=%d arrived=%d timed out=%d never gave up=%d ok=%d failed otherwise=%d "
+                            + "min=%.1fms avg=%.1fms max=%.1fms spread=%.1fms",
+                    name, probes, arrived, timeouts.size(), neverGaveUp, succeeded, failedOtherwise,
+                    min(), avg(), max(), spread());
+        }
+
+        public static String formatTable(List<Measurement> measurements) {
+            StringBuilder table = new StringBuilder(String.format("%-28s %7s %8s %10s %8s %8s %10s %10s %10s %10s%n",
+                    "measurement", "probes", "arrived", "timed out", "ok", "other", "min,ms", "avg,ms", "max,ms", "spread,ms"));
+            for (Measurement m : measurements) {
+                table.append(String.format("%-28s %7d %8d %10d %8d %8d %10.1f %10.1f %10.1f %10.1f%n",
+                        m.name, m.probes, m.arrived, m.timeouts.size(), m.succeeded, m.failedOtherwise,
+                        m.min(), m.avg(), m.max(), m.spread()));
+            }
+            return table.toString();
+        }
+    }
+
+    /**
+     * Граница read timeout: ответ через lastAccepted мс еще принимается, через firstRejected - уже нет
+     *
+     * @param inversions сколько раз ответ был принят позже отклоненного (нестабильный таймер)
+     */
+    public record Boundary(String path, double lastAcceptedMillis, double firstRejectedMillis, int rounds,
+                           int inversions) {
+
+        public double widthMillis() {
+            return firstRejectedMillis - lastAcceptedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s read timeout in (%.1f ms, %.1f ms], width %.1f ms, %d rounds, %d inversions",
+                    path, lastAcceptedMillis, firstRejectedMillis, widthMillis(), rounds, inversions);
+        }
+    }
+}
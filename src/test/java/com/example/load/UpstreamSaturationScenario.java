@@ -0,0 +1,189 @@
+package com.example.load;
+
+import com.example.utils.RunSeed;
+import com.example.utils.TestDataGenerator;
+import com.github.tomakehurst.wiremock.WireMockServer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+/**
+ * Исчерпание исходящего пула соединений сервиса:
+ * на каждом шаге в WireMock удерживается N медленных /auth запросов (токены с префиксом SLOW_PREFIX),
+ * после чего приходят свежие LOGIN с быстрым /auth. По числу медленных запросов, реально дошедших
+ * до WireMock, видна емкость пула, а по задержкам и статусам проб - поведение при насыщении
+ */
+public class UpstreamSaturationScenario {
+
+    static final String SLOW_PREFIX = "DEAD";
+
+    private final WireMockServer wireMock;
+    private final EndpointClient client;
+    private Duration slowDelay = LoadConfig.slowUpstreamDelay();
+    private int probes = 20;
+    private int probeConcurrency = 4;
+
+    public UpstreamSaturationScenario(WireMockServer wireMock, EndpointClient client) {
+        this.wireMock = wireMock;
+        this.client = client;
+    }
+
+    public UpstreamSaturationScenario slowDelay(Duration slowDelay) {
+        this.slowDelay = slowDelay;
+        return this;
+    }
+
+    public UpstreamSaturationScenario probes(int probes, int concurrency) {
+        this.probes = probes;
+        this.probeConcurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * Прогнать все шаги лестницы; клиент должен иметь пул не меньше max(steps) + probeConcurrency
+     */
+    public List<Step> run(int... slowConnectionSteps) {
+        wireMock.stubFor(post("/auth").atPriority(1)
+                .withRequestBody(containing("token=" + SLOW_PREFIX))
+                .willReturn(ok().withFixedDelay((int) slowDelay.toMillis())));
+        wireMock.stubFor(post("/auth").atPriority(5).willReturn(ok()));
+
+        Random random = RunSeed.random("upstream-saturation");
+        List<Step> steps = new ArrayList<>();
+        for (int slow : slowConnectionSteps) {
+            steps.add(runStep(slow, random));
+        }
+        return steps;
+    }
+
+    private Step runStep(int slowConnections, Random random) {
+        System.out.println("=== [SATURATION] Holding " + slowConnections + " slow /auth connections ===");
+        wireMock.resetRequests();
+
+        ExecutorService slowPool = Executors.newFixedThreadPool(Math.max(1, slowConnections));
+        ExecutorService probePool = Executors.newFixedThreadPool(probeConcurrency);
+        try {
+            List<Future<EndpointResponse>> slowCalls = new ArrayList<>();
+            for (int i = 0; i < slowConnections; i++) {
+                String token = SLOW_PREFIX + TestDataGenerator.generateValidToken(random).substring(SLOW_PREFIX.length());
+                slowCalls.add(slowPool.submit(() -> client.send(EndpointRequest.of(token, "LOGIN"))));
+            }
+            int reachedUpstream = awaitSlowArrivals(slowConnections);
+
+            LatencyStats probeLatency = new LatencyStats();
+            List<Future<EndpointResponse>> probeCalls = new ArrayList<>();
+            for (int i = 0; i < probes; i++) {
+                String token = TestDataGenerator.generateValidToken(random);
+                probeCalls.add(probePool.submit(() -> client.send(EndpointRequest.of(token, "LOGIN"))));
+            }
+            int probeErrors = 0;
+            for (Future<EndpointResponse> call : probeCalls) {
+                EndpointResponse response = call.get();
+                probeLatency.record(response.latencyNanos());
+                if (!response.isOk()) {
+                    probeErrors++;
+                }
+            }
+
+            int slowErrors = 0;
+            for (Future<EndpointResponse> call : slowCalls) {
+                if (!call.get().isOk()) {
+                    slowErrors++;
+                }
+            }
+
+            Step step = new Step(slowConnections, reachedUpstream, slowErrors, probes, probeErrors,
+                    probeLatency.snapshot(), slowDelay);
+            System.out.println("=== [SATURATION] " + step + " ===");
+            return step;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Saturation step interrupted", e);
+        } catch (java.util.concurrent.ExecutionException e) {
+            throw new RuntimeException("Saturation request failed", e.getCause());
+        } finally {
+            slowPool.shutdownNow();
+            probePool.shutdownNow();
+        }
+    }
+
+    /**
+     * Ждем, пока медленные запросы дойдут до WireMock: до ожидаемого числа, либо пока число
+     * поступивших не перестанет расти. Не дошедшие стоят в очереди исходящего пула сервиса.
+     * Ожидание ограничено третью задержки, чтобы пробы застали медленные соединения открытыми
+     */
+    private int awaitSlowArrivals(int expected) {
+        long deadline = System.nanoTime() + Math.min(TimeUnit.SECONDS.toNanos(3), slowDelay.toNanos() / 3);
+        long stableFor = TimeUnit.MILLISECONDS.toNanos(300);
+        int arrived = 0;
+        long lastChange = System.nanoTime();
+        while (arrived < expected && System.nanoTime() < deadline && System.nanoTime() - lastChange < stableFor) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+            int count = wireMock.countRequestsMatching(postRequestedFor(urlEqualTo("/auth"))
+                    .withRequestBody(containing("token=" + SLOW_PREFIX)).build()).getCount();
+            if (count != arrived) {
+                arrived = count;
+                lastChange = System.nanoTime();
+            }
+        }
+        return arrived;
+    }
+
+    /**
+     * Итоги одного шага: сколько медленных запросов дошло до /auth и как обслуживались пробы
+     */
+    public record Step(int slowConnections, int reachedUpstream, int slowErrors, int probes, int probeErrors,
+                       LatencyStats.Snapshot probeLatency, Duration slowDelay) {
+
+        public boolean saturated() {
+            return reachedUpstream < slowConnections;
+        }
+
+        /**
+         * healthy - пробы не замечают медленных соединений;
+         * sheds load - пробы быстро получают ошибку;
+         * queues - пробы успешны, но ждут освобождения пула;
+         * hangs - пробы висят дольше медленного ответа
+         */
+        public String behaviour() {
+            double slowMillis = slowDelay.toMillis();
+            if (probeLatency.p50() >= slowMillis) {
+                return "hangs";
+            }
+            if (probeErrors * 2 > probes && probeLatency.p50() < slowMillis / 2) {
+                return "sheds load";
+            }
+            if (probeLatency.p50() >= slowMillis / 2) {
+                return "queues";
+            }
+            return probeErrors == 0 ? "healthy" : "partial errors";
+        }
+
+        @Override
+        public String toString() {
+            return String.format("slow=%d reached /auth=%d probes=%d errors=%d p50=%.1fms p99=%.1fms -> %s",
+                    slowConnections, reachedUpstream, probes, probeErrors,
+                    probeLatency.p50(), probeLatency.p99(), behaviour());
+        }
+
+        public static String formatTable(List<Step> steps) {
+            StringBuilder table = new StringBuilder(String.format("%6s %12s %10s %8s %12s %10s %10s  %s%n",
+                    "slow", "reached/auth", "slow err", "probes", "probe err", "p50,ms", "p99,ms", "behaviour"));
+            for (Step s : steps) {
+                table.append(String.format("%6d %12d %10d %8d %12d %10.1f %10.1f  %s%n",
+                        s.slowConnections, s.reachedUpstream, s.slowErrors, s.probes, s.probeErrors,
+                        s.probeLatency.p50(), s.probeLatency.p99(), s.behaviour()));
+            }
+            return table.toString();
+        }
+    }
+}
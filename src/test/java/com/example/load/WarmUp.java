@@ -0,0 +1,81 @@
+package com.example.load;
+
+import com.example.utils.RunSeed;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Прогрев перед измерениями: workers потоков гоняют сценарий, пока {@link SteadyStateDetector}
+ * не увидит установившийся режим или не истечет maxDuration. Задержки прогрева в отчеты не попадают
+ */
+public final class WarmUp {
+
+    private WarmUp() {
+    }
+
+    /**
+     * @param session одна итерация сценария; задержки ее запросов записываются в переданный детектор
+     */
+    public static Result run(String name, int workers, Duration maxDuration, SteadyStateDetector detector,
+                             BiConsumer<Random, SteadyStateDetector> session) {
+        System.out.println("=== [WARMUP] " + name + ": " + workers + " workers, up to " + maxDuration.toSeconds()
+                + "s, " + detector.describe() + " ===");
+        AtomicInteger threadCounter = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(workers,
+                r -> new Thread(r, "warmup-worker-" + threadCounter.incrementAndGet()));
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                Random random = RunSeed.random("warmup-worker-" + i);
+                futures.add(pool.submit(() -> {
+                    while (!detector.steady() && System.nanoTime() < deadline) {
+                        session.accept(random, detector);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Warm-up interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Warm-up worker failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        Result result = new Result(name, detector.steady(), detector.recorded(), System.nanoTime() - start,
+                detector.windowMeans());
+        System.out.println("=== [" + (result.steady() ? "WARMUP" : "WARN") + "] " + result + " ===");
+        return result;
+    }
+
+    /**
+     * @param windowMeans средние задержки по окнам детектора, мс
+     */
+    public record Result(String name, boolean steady, long requests, long elapsedNanos, List<Double> windowMeans) {
+
+        public double seconds() {
+            return elapsedNanos / 1e9;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %s after %d requests in %.1fs, window means %s ms", name,
+                    steady ? "steady state" : "NOT steady (time limit)", requests, seconds(),
+                    windowMeans.stream().map(m -> String.format("%.1f", m)).collect(Collectors.joining(" ")));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.mock;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Порт WireMock и его публикация для тестируемого сервиса.
+ *
+ * -Dwiremock.port задает порт (по умолчанию 8888, на него настроен сервис); 0 - свободный эфемерный порт:
+ * несколько harness на одной машине не конфликтуют и не ждут повторных попыток.
+ * Выбранный адрес передается сервису (повторно - только если он изменился):
+ * - -Dmock.configFile: properties файл с ключом -Dmock.configKey (по умолчанию external.service.url),
+ *   пишется атомарно (временный файл + перенос);
+ * - -Dservice.restartCommand: команда (sh -c) перезапуска локального сервиса с переменными окружения
+ *   MOCK_URL, MOCK_PORT и MOCK_CONFIG_FILE; после нее ждем, пока сервис снова примет соединения
+ *   (-Dservice.startTimeoutSeconds, по умолчанию 60)
+ * Если порт не DEFAULT_PORT, а ни один способ не задан, сервис продолжит ходить на старый адрес:
+ * для эфемерного порта это ошибка запуска, для запасного порта после неудачной попытки - предупреждение
+ */
+public final class MockEndpointPublisher {
+
+    public static final int DEFAULT_PORT = 8888;
+
+    // Эфемерный порт выбирается один раз на JVM: следующие классы тестов поднимают WireMock на нем же,
+    // и сервис не приходится перенастраивать на каждый класс
+    private static volatile int ephemeralPort;
+    private static volatile String published;
+
+    private MockEndpointPublisher() {
+    }
+
+    /**
+     * Порт для первой попытки запуска WireMock
+     */
+    public static int initialPort() {
+        if (!ephemeral()) {
+            return Integer.getInteger("wiremock.port", DEFAULT_PORT);
+        }
+        if (ephemeralPort == 0) {
+            ephemeralPort = freePort();
+        }
+        return ephemeralPort;
+    }
+
+    /**
+     * Порт для следующей попытки после неудачи на failedPort
+     */
+    public static int nextPort(int failedPort) {
+        if (!ephemeral()) {
+            return failedPort + 1;
+        }
+        ephemeralPort = freePort();
+        return ephemeralPort;
+    }
+
+    public static boolean ephemeral() {
+        return Integer.getInteger("wiremock.port", DEFAULT_PORT) == 0;
+    }
+
+    /**
+     * Свободный порт от ОС. Порт выбирается заранее, а не через bind на 0 внутри Jetty,
+     * чтобы перезапуск WireMock (stop/start в тестах) поднимал его на том же адресе
+     */
+    public static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot allocate a free port", e);
+        }
+    }
+
+    /**
+     * Передать адрес WireMock сервису способами, заданными свойствами. Без них адрес не на DEFAULT_PORT
+     * сервису не доходит: эфемерный порт - IllegalStateException, иначе - предупреждение
+     */
+    public static synchronized void publish(String mockUrl, String serviceUrl) {
+        if (mockUrl.equals(published)) {
+            return;
+        }
+        String configFile = System.getProperty("mock.configFile");
+        boolean viaFile = configFile != null && !configFile.isBlank();
+        String restartCommand = System.getProperty("service.restartCommand");
+        boolean viaRestart = restartCommand != null && !restartCommand.isBlank();
+        if (!viaFile && !viaRestart && URI.create(mockUrl).getPort() != DEFAULT_PORT) {
+            String message = "WireMock is at " + mockUrl + ", but the service is configured for port " + DEFAULT_PORT
+                    + " and neither -Dmock.configFile nor -Dservice.restartCommand is set";
+            if (ephemeral()) {
+                throw new IllegalStateException(message);
+            }
+            System.out.println("=== [WARN] " + message + " ===");
+        }
+        if (viaFile) {
+            writeConfig(Path.of(configFile), System.getProperty("mock.configKey", "external.service.url"), mockUrl);
+            System.out.println("=== [INFO] Mock URL " + mockUrl + " written to " + configFile + " ===");
+        }
+        if (viaRestart) {
+            restartService(restartCommand, mockUrl, configFile, serviceUrl,
+                    Duration.ofSeconds(Long.getLong("service.startTimeoutSeconds", 60L)));
+        }
+        published = mockUrl;
+    }
+
+    static void writeConfig(Path file, String key, String mockUrl) {
+        Properties properties = new Properties();
+        properties.setProperty(key, mockUrl);
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                properties.store(writer, "WireMock endpoint for the service under test");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write mock config " + file, e);
+        }
+    }
+
+    static void restartService(String command, String mockUrl, String configFile, String serviceUrl, Duration timeout) {
+        System.out.println("=== [INFO] Restarting service: " + command + " ===");
+        ProcessBuilder builder = new ProcessBuilder("sh", "-c", command).inheritIO();
+        builder.environment().put("MOCK_URL", mockUrl);
+        builder.environment().put("MOCK_PORT", String.valueOf(URI.create(mockUrl).getPort()));
+        if (configFile != null) {
+            builder.environment().put("MOCK_CONFIG_FILE", configFile);
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            Process process = builder.start();
+            if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+                throw new IllegalStateException("Service restart command did not finish in " + timeout.toSeconds() + "s");
+            }
+            if (process.exitValue() != 0) {
+                throw new IllegalStateException("Service restart command failed with code " + process.exitValue());
+            }
+            awaitListening(URI.create(serviceUrl), deadline);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot run service restart command", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while restarting service", e);
+        }
+        System.out.println("=== [INFO] Service is up at " + serviceUrl + " ===");
+    }
+
+    private static void awaitListening(URI service, long deadline) throws InterruptedException {
+        while (true) {
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress(service.getHost(), service.getPort()), 200);
+                return;
+            } catch (IOException e) {
+                if (System.nanoTime() >= deadline) {
+                    throw new IllegalStateException("Service did not start listening on " + service);
+                }
+                TimeUnit.MILLISECONDS.sleep(100);
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.mock;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.Reader;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Эфемерные порты WireMock и передача адреса сервису (сервис не нужен)
+ */
+@Epic("Test Infrastructure")
+@Feature("Mock Endpoint")
+@Tag("mock")
+public class MockEndpointPublisherTest {
+
+    private static final int INSTANCES = 24;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @Tag("100")
+    @DisplayName("Параллельные WireMock на эфемерных портах и публикация адреса файлом и перезапуском сервиса")
+    @Severity(NORMAL)
+    void ephemeralPortsArePublishedToService() throws Exception {
+        Allure.description(INSTANCES + " WireMock одновременно стартуют на свободных портах без конфликтов и повторных " +
+                "попыток; адрес мока пишется в properties файл сервиса и передается команде перезапуска, после " +
+                "которой ожидается, что сервис снова принимает соединения");
+
+        Allure.step("1. " + INSTANCES + " WireMock одновременно", () -> {
+            List<WireMockServer> servers = new ArrayList<>();
+            ExecutorService pool = Executors.newFixedThreadPool(INSTANCES);
+            long start = System.nanoTime();
+            try {
+                List<Future<WireMockServer>> futures = new ArrayList<>();
+                for (int i = 0; i < INSTANCES; i++) {
+                    futures.add(pool.submit(() -> {
+                        WireMockServer server = new WireMockServer(options().port(MockEndpointPublisher.freePort()));
+                        server.start();
+                        return server;
+                    }));
+                }
+                for (Future<WireMockServer> future : futures) {
+                    servers.add(future.get());
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                Set<Integer> ports = servers.stream().map(WireMockServer::port).collect(Collectors.toCollection(TreeSet::new));
+                String report = String.format("%d instances started in %.1f s on ports %s", servers.size(), seconds, ports);
+                Allure.addAttachment("Порты", "text/plain", report);
+                System.out.println("=== [MOCK] " + report + " ===");
+
+                assertThat(ports, hasSize(INSTANCES));
+                assertThat(ports, not(hasItem(MockEndpointPublisher.DEFAULT_PORT)));
+                assertThat(servers.stream().allMatch(WireMockServer::isRunning), is(true));
+            } finally {
+                servers.forEach(WireMockServer::stop);
+                pool.shutdownNow();
+            }
+        });
+
+        String mockUrl = "http://localhost:" + MockEndpointPublisher.freePort();
+
+        Allure.step("2. Адрес в properties файле сервиса", () -> {
+            Path config = directory.resolve("service").resolve("mock.properties");
+            MockEndpointPublisher.writeConfig(config, "external.service.url", "http://localhost:1");
+            MockEndpointPublisher.writeConfig(config, "external.service.url", mockUrl);
+
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(config, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            assertThat(properties.getProperty("external.service.url"), is(mockUrl));
+            try (var files = Files.list(config.getParent())) {
+                assertThat("Временные файлы не должны оставаться", files.count(), is(1L));
+            }
+        });
+
+        Allure.step("3. Команда перезапуска получает адрес и ждет, пока сервис слушает порт", () -> {
+            Path received = directory.resolve("received.txt");
+            try (ServerSocket service = new ServerSocket(0)) {
+                MockEndpointPublisher.restartService("echo \"$MOCK_URL $MOCK_PORT\" > '" + received + "'", mockUrl, null,
+                        "http://localhost:" + service.getLocalPort(), Duration.ofSeconds(10));
+            }
+            assertThat(Files.readString(received).trim(), is(mockUrl + " " + mockUrl.substring(mockUrl.lastIndexOf(':') + 1)));
+
+            IllegalStateException failed = assertThrows(IllegalStateException.class, () ->
+                    MockEndpointPublisher.restartService("exit 3", mockUrl, null, "http://localhost:1", Duration.ofSeconds(10)));
+            assertThat(failed.getMessage(), containsString("code 3"));
+        });
+
+        Allure.step("4. Эфемерный порт без способа публикации - ошибка запуска", () -> {
+            String port = System.getProperty("wiremock.port");
+            String configFile = System.clearProperty("mock.configFile");
+            String restartCommand = System.clearProperty("service.restartCommand");
+            System.setProperty("wiremock.port", "0");
+            try {
+                IllegalStateException unpublished = assertThrows(IllegalStateException.class, () ->
+                        MockEndpointPublisher.publish(mockUrl, "http://localhost:1"));
+                assertThat(unpublished.getMessage(), containsString("-Dmock.configFile"));
+            } finally {
+                restore("wiremock.port", port);
+                restore("mock.configFile", configFile);
+                restore("service.restartCommand", restartCommand);
+            }
+        });
+    }
+
+    private static void restore(String property, String value) {
+        if (value == null) {
+            System.clearProperty(property);
+        } else {
+            System.setProperty(property, value);
+        }
+    }
+}
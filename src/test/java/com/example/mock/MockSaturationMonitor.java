@@ -0,0 +1,230 @@
+package com.example.mock;
+
+import com.example.load.LatencyStats;
+import com.github.tomakehurst.wiremock.core.Admin;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.extension.PostServeAction;
+import com.github.tomakehurst.wiremock.extension.requestfilter.RequestFilterAction;
+import com.github.tomakehurst.wiremock.extension.requestfilter.StubRequestFilter;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ThreadPoolFactory;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Насыщение WireMock внутри JVM тестов: не мок ли ограничивает пропускную способность вместо сервиса.
+ *
+ * Подключается к WireMock тремя точками:
+ * - {@link ThreadPoolFactory}: пул Jetty (QueuedThreadPool на containerThreads) создается здесь,
+ *   и во время прогона опрашиваются занятые потоки и очередь задач, ждущих поток;
+ * - {@link #serveStart()} / {@link #serveEnd()}: время, которое запрос держит поток Jetty
+ *   (асинхронная задержка withFixedDelay поток не держит и не входит).
+ *
+ * Отсчет насыщен, если в очереди есть задачи или заняты все доступные потоки. Рекомендация
+ * containerThreads - по пиковому спросу (занятые + очередь) и закону Литтла (темп × время удержания) с запасом 25%
+ */
+public class MockSaturationMonitor implements ThreadPoolFactory {
+
+    private static final double HEADROOM = 1.25;
+    // Прогон прерывается, если насыщены все отсчеты последней секунды
+    private static final long ABORT_WINDOW_MILLIS = 1_000;
+
+    private static volatile MockSaturationMonitor active;
+
+    private final List<Watch> watches = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Long> serveStartNanos = new ThreadLocal<>();
+    private final ServeStart serveStart = new ServeStart();
+    private final ServeEnd serveEnd = new ServeEnd();
+    private volatile QueuedThreadPool pool;
+
+    /**
+     * Монитор, чей пул Jetty сейчас запущен (null - WireMock вне JVM или не запущен)
+     */
+    public static MockSaturationMonitor active() {
+        MockSaturationMonitor monitor = active;
+        return monitor != null && monitor.available() ? monitor : null;
+    }
+
+    @Override
+    public ThreadPool buildThreadPool(Options options) {
+        pool = new QueuedThreadPool(options.containerThreads());
+        active = this;
+        return pool;
+    }
+
+    public StubRequestFilter serveStart() {
+        return serveStart;
+    }
+
+    public PostServeAction serveEnd() {
+        return serveEnd;
+    }
+
+    public boolean available() {
+        QueuedThreadPool current = pool;
+        return current != null && current.isRunning();
+    }
+
+    /**
+     * Начать наблюдение; отсчеты идут до {@link Watch#close()}
+     */
+    public Watch watch(Duration interval) {
+        if (!available()) {
+            throw new IllegalStateException("WireMock thread pool is not running in this JVM");
+        }
+        Watch watch = new Watch(pool, interval);
+        watches.add(watch);
+        return watch;
+    }
+
+    /**
+     * Итог наблюдения
+     *
+     * @param saturatedShare   доля отсчетов с очередью или всеми занятыми потоками
+     * @param maxThreads       containerThreads
+     * @param availableThreads потоки для запросов (без занятых Jetty под acceptor/selector)
+     * @param peakBusy         максимум потоков, обслуживающих запросы
+     * @param peakQueue        максимум задач, ждущих поток
+     * @param serves           обслуженных WireMock запросов
+     * @param heldP50          время удержания потока Jetty запросом, мс
+     * @param heldP99          время удержания потока Jetty запросом, мс
+     * @param servesPerSecond  темп запросов к WireMock
+     * @param suggestedThreads рекомендуемое значение wiremock.containerThreads
+     */
+    public record Verdict(boolean saturated, int samples, double saturatedShare, int maxThreads, int availableThreads,
+                          int peakBusy, int peakQueue, long serves, double heldP50, double heldP99,
+                          double servesPerSecond, int suggestedThreads) {
+
+        public String summary() {
+            return String.format("%s: %.0f%% of %d samples saturated, busy peak %d/%d, queue peak %d, %d serves "
+                            + "(%.0f/s, thread held p50=%.2fms p99=%.2fms), suggested wiremock.containerThreads=%d",
+                    saturated ? "SATURATED" : "ok", saturatedShare * 100, samples, peakBusy, availableThreads, peakQueue,
+                    serves, servesPerSecond, heldP50, heldP99, suggestedThreads);
+        }
+    }
+
+    /**
+     * Наблюдение за пулом на время одного прогона
+     */
+    public final class Watch implements AutoCloseable {
+
+        private final QueuedThreadPool threads;
+        private final ScheduledExecutorService sampler;
+        private final LatencyStats held = new LatencyStats();
+        private final long startNanos = System.nanoTime();
+        private final int abortAfter;
+        private final AtomicInteger saturatedInRow = new AtomicInteger();
+        private int samples;
+        private int saturatedSamples;
+        private int peakBusy;
+        private int peakQueue;
+        private int availableThreads;
+        private boolean closed;
+        private long endNanos;
+
+        private Watch(QueuedThreadPool threads, Duration interval) {
+            this.threads = threads;
+            this.abortAfter = (int) Math.max(1, ABORT_WINDOW_MILLIS / Math.max(1, interval.toMillis()));
+            this.sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "mock-saturation-sampler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sampler.scheduleAtFixedRate(this::sample, 0, interval.toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        private synchronized void sample() {
+            int busy = threads.getUtilizedThreads();
+            int queue = threads.getQueueSize();
+            int available = threads.getMaxAvailableThreads();
+            boolean saturated = queue > 0 || busy >= available;
+            samples++;
+            availableThreads = available;
+            peakBusy = Math.max(peakBusy, busy);
+            peakQueue = Math.max(peakQueue, queue);
+            if (saturated) {
+                saturatedSamples++;
+                saturatedInRow.incrementAndGet();
+            } else {
+                saturatedInRow.set(0);
+            }
+        }
+
+        private void served(long heldNanos) {
+            held.record(heldNanos);
+        }
+
+        /**
+         * Насыщение держится все отсчеты последней секунды - основание прервать прогон
+         */
+        public boolean saturatedNow() {
+            return saturatedInRow.get() >= abortAfter;
+        }
+
+        public synchronized Verdict verdict(double saturationShare) {
+            long elapsed = (closed ? endNanos : System.nanoTime()) - startNanos;
+            LatencyStats.Snapshot snapshot = held.snapshot();
+            double share = samples == 0 ? 0 : saturatedSamples / (double) samples;
+            double rate = elapsed <= 0 ? 0 : snapshot.count() * 1e9 / elapsed;
+            int leased = threads.getMaxThreads() - availableThreads;
+            double demand = Math.max(peakBusy + peakQueue, rate * snapshot.mean() / 1000.0);
+            int suggested = Math.max(threads.getMaxThreads(), leased + (int) Math.ceil(demand * HEADROOM));
+            return new Verdict(share >= saturationShare, samples, share, threads.getMaxThreads(), availableThreads,
+                    peakBusy, peakQueue, snapshot.count(), snapshot.p50(), snapshot.p99(), rate, suggested);
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                endNanos = System.nanoTime();
+                sampler.shutdownNow();
+                watches.remove(this);
+            }
+        }
+    }
+
+    private final class ServeStart extends StubRequestFilter {
+
+        @Override
+        public String getName() {
+            return "mock-saturation-serve-start";
+        }
+
+        @Override
+        public RequestFilterAction filter(Request request) {
+            serveStartNanos.set(System.nanoTime());
+            return RequestFilterAction.continueWith(request);
+        }
+    }
+
+    private final class ServeEnd extends PostServeAction {
+
+        @Override
+        public String getName() {
+            return "mock-saturation-serve-end";
+        }
+
+        @Override
+        public void doGlobalAction(ServeEvent serveEvent, Admin admin) {
+            Long start = serveStartNanos.get();
+            serveStartNanos.remove();
+            if (start == null || watches.isEmpty()) {
+                return;
+            }
+            long heldNanos = System.nanoTime() - start;
+            for (Watch watch : watches) {
+                watch.served(heldNanos);
+            }
+        }
+    }
+}
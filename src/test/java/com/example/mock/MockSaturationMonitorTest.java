@@ -0,0 +1,110 @@
+package com.example.mock;
+
+import com.example.load.HttpClientEndpointClient;
+import com.example.load.LoadResult;
+import com.example.load.LoadRunner;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Проверка монитора насыщения на собственном WireMock с маленьким пулом (сервис не нужен):
+ * нагрузка идет прямо в WireMock, /endpoint отвечает с синхронной задержкой и держит поток Jetty
+ */
+@Epic("Test Infrastructure")
+@Feature("Mock Saturation")
+@Tag("mock")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MockSaturationMonitorTest {
+
+    private static final int CONTAINER_THREADS = 16;
+    private static final int DELAY_MILLIS = 20;
+    private static final Duration RUN = Duration.ofSeconds(2);
+
+    private final MockSaturationMonitor monitor = new MockSaturationMonitor();
+    private WireMockServer wireMock;
+
+    @BeforeAll
+    void startWireMock() {
+        // Асинхронные ответы выключены: задержка держит поток Jetty, как медленный внешний API
+        wireMock = new WireMockServer(options().dynamicPort()
+                .containerThreads(CONTAINER_THREADS)
+                .jettyAcceptors(1)
+                .threadPoolFactory(monitor)
+                .extensions(monitor.serveStart(), monitor.serveEnd()));
+        wireMock.start();
+        wireMock.stubFor(post("/endpoint").willReturn(okJson("{\"result\":\"OK\"}").withFixedDelay(DELAY_MILLIS)));
+    }
+
+    @AfterAll
+    void stopWireMock() {
+        wireMock.stop();
+    }
+
+    @Test
+    @Tag("099")
+    @DisplayName("Монитор отличает свободный WireMock от насыщенного и рекомендует containerThreads")
+    @Severity(NORMAL)
+    void detectsMockSaturationAndSuggestsContainerThreads() {
+        Allure.description("WireMock с пулом " + CONTAINER_THREADS + " потоков и синхронной задержкой " + DELAY_MILLIS +
+                " мс. Две параллельные сессии пул не насыщают; 64 - насыщают: прогон должен это отметить и " +
+                "рекомендовать больше потоков, а с abortOnMockSaturation - прерваться");
+
+        assertThat(MockSaturationMonitor.active(), sameInstance(monitor));
+
+        Allure.step("1. Две сессии: WireMock не ограничивает", () -> {
+            LoadRunner runner = runner(2);
+            LoadResult result = runner.run();
+            MockSaturationMonitor.Verdict verdict = runner.mockVerdict();
+            attach("Свободный WireMock", result, verdict);
+
+            assertThat(verdict.saturated(), is(false));
+            assertThat(verdict.serves(), is(result.requests()));
+            assertThat("Поток держится не меньше задержки", verdict.heldP50(), greaterThanOrEqualTo((double) DELAY_MILLIS));
+            assertThat(result.extras(), not(hasKey("mock")));
+        });
+
+        Allure.step("2. 64 сессии: WireMock - узкое место", () -> {
+            LoadRunner runner = runner(64);
+            LoadResult result = runner.run();
+            MockSaturationMonitor.Verdict verdict = runner.mockVerdict();
+            attach("Насыщенный WireMock", result, verdict);
+
+            assertThat(verdict.saturated(), is(true));
+            assertThat(verdict.peakQueue(), greaterThan(0));
+            assertThat(verdict.suggestedThreads(), greaterThan(CONTAINER_THREADS));
+            assertThat(result.extras(), hasKey("mock"));
+        });
+
+        Allure.step("3. Прерывание прогона при устойчивом насыщении", () -> {
+            long start = System.nanoTime();
+            IllegalStateException aborted = assertThrows(IllegalStateException.class,
+                    () -> runner(64).duration(Duration.ofSeconds(30)).abortOnMockSaturation(true).run());
+            double seconds = (System.nanoTime() - start) / 1e9;
+            Allure.addAttachment("Прерывание", "text/plain", String.format("%.1f s: %s", seconds, aborted.getMessage()));
+
+            assertThat(aborted.getMessage(), containsString("WireMock"));
+            assertThat("Прогон должен прерваться задолго до конца", seconds, lessThan(15.0));
+        });
+    }
+
+    private LoadRunner runner(int sessions) {
+        HttpClientEndpointClient client = HttpClientEndpointClient.keepAlive(wireMock.baseUrl(), sessions);
+        return new LoadRunner(client).workers(sessions).duration(RUN).mockMonitor(monitor).abortOnMockSaturation(false);
+    }
+
+    private static void attach(String name, LoadResult result, MockSaturationMonitor.Verdict verdict) {
+        String text = result + "\n" + verdict.summary();
+        Allure.addAttachment(name, "text/plain", text);
+        System.out.println("=== [MOCK] " + text + " ===");
+    }
+}
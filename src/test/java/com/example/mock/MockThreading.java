@@ -0,0 +1,45 @@
+package com.example.mock;
+
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+
+/**
+ * Потоки WireMock. По умолчанию - как в WireMock: синхронные ответы и его containerThreads
+ * (явно заданный -Dwiremock.containerThreads применяется всегда).
+ * -Dwiremock.asyncResponses=true (включено в профиле load) - задержанные ответы (withFixedDelay) отдаются асинхронно,
+ * чтобы удерживаемые медленные соединения не занимали потоки Jetty: пул Jetty -Dwiremock.containerThreads (50),
+ * потоков ответов -Dwiremock.asyncResponseThreads (50)
+ */
+public final class MockThreading {
+
+    private static final int LOAD_THREADS = 50;
+
+    private MockThreading() {
+    }
+
+    public static boolean asyncResponses() {
+        return Boolean.getBoolean("wiremock.asyncResponses");
+    }
+
+    /**
+     * Размер пула Jetty, который получит WireMock после {@link #apply}
+     */
+    public static int containerThreads() {
+        Integer containerThreads = Integer.getInteger("wiremock.containerThreads");
+        if (containerThreads != null) {
+            return containerThreads;
+        }
+        return asyncResponses() ? LOAD_THREADS : Options.DEFAULT_CONTAINER_THREADS;
+    }
+
+    public static WireMockConfiguration apply(WireMockConfiguration options) {
+        Integer containerThreads = Integer.getInteger("wiremock.containerThreads");
+        if (asyncResponses()) {
+            return options
+                    .containerThreads(containerThreads != null ? containerThreads : LOAD_THREADS)
+                    .asynchronousResponseEnabled(true)
+                    .asynchronousResponseThreads(Integer.getInteger("wiremock.asyncResponseThreads", LOAD_THREADS));
+        }
+        return containerThreads != null ? options.containerThreads(containerThreads) : options;
+    }
+}
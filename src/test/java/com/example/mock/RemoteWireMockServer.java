@@ -0,0 +1,418 @@
+package com.example.mock;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.admin.model.GetGlobalSettingsResult;
+import com.github.tomakehurst.wiremock.admin.model.GetScenariosResult;
+import com.github.tomakehurst.wiremock.admin.model.GetServeEventsResult;
+import com.github.tomakehurst.wiremock.admin.model.ListStubMappingsResult;
+import com.github.tomakehurst.wiremock.admin.model.ServeEventQuery;
+import com.github.tomakehurst.wiremock.admin.model.SingleServedStubResult;
+import com.github.tomakehurst.wiremock.admin.model.SingleStubMappingResult;
+import com.github.tomakehurst.wiremock.client.CountMatchingStrategy;
+import com.github.tomakehurst.wiremock.client.HttpAdminClient;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.global.GlobalSettings;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
+import com.github.tomakehurst.wiremock.matching.StringValuePattern;
+import com.github.tomakehurst.wiremock.recording.RecordSpec;
+import com.github.tomakehurst.wiremock.recording.RecordSpecBuilder;
+import com.github.tomakehurst.wiremock.recording.RecordingStatusResult;
+import com.github.tomakehurst.wiremock.recording.SnapshotRecordResult;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubImport;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.verification.FindNearMissesResult;
+import com.github.tomakehurst.wiremock.verification.FindRequestsResult;
+import com.github.tomakehurst.wiremock.verification.FindServeEventsResult;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.github.tomakehurst.wiremock.verification.NearMiss;
+import com.github.tomakehurst.wiremock.verification.VerificationResult;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * WireMockServer, который работает с WireMock в отдельном процессе ({@link WireMockProcess}) через admin API.
+ * Тесты пользуются тем же wireMockServer.stubFor / verify / resetAll, что и в режиме внутри JVM;
+ * start / stop запускают и останавливают процесс на том же порту.
+ *
+ * Все методы Stubbing и Admin перенаправлены в {@link HttpAdminClient}: собственный Jetty базового класса
+ * не запускается. Состояние расширений (externalService, virtualDelays, upstreamTimeline) остается в процессе
+ * WireMock, тесты, которые его читают, в этом режиме пропускаются (TestBase.assumeInProcessMock)
+ */
+public class RemoteWireMockServer extends WireMockServer {
+
+    private final int port;
+    private final HttpAdminClient admin;
+    private final WireMock remote;
+    private WireMockProcess process;
+
+    public RemoteWireMockServer(int port) {
+        super(options().port(port));
+        this.port = port;
+        this.admin = new HttpAdminClient("localhost", port);
+        this.remote = new WireMock(admin);
+    }
+
+    public WireMockProcess process() {
+        return process;
+    }
+
+    // ==================== ПРОЦЕСС ====================
+
+    @Override
+    public synchronized void start() {
+        if (process == null || !process.isAlive()) {
+            process = WireMockProcess.start(port);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (process != null) {
+            process.stop();
+            process = null;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        stop();
+    }
+
+    @Override
+    public void shutdownServer() {
+        stop();
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return process != null && process.isAlive();
+    }
+
+    @Override
+    public int port() {
+        return port;
+    }
+
+    @Override
+    public String baseUrl() {
+        return "http://localhost:" + port;
+    }
+
+    @Override
+    public String url(String path) {
+        return baseUrl() + (path.startsWith("/") ? path : "/" + path);
+    }
+
+    // ==================== STUBBING ====================
+
+    @Override
+    public StubMapping givenThat(MappingBuilder mappingBuilder) {
+        return remote.register(mappingBuilder);
+    }
+
+    @Override
+    public StubMapping stubFor(MappingBuilder mappingBuilder) {
+        return givenThat(mappingBuilder);
+    }
+
+    @Override
+    public void editStub(MappingBuilder mappingBuilder) {
+        remote.editStubMapping(mappingBuilder);
+    }
+
+    @Override
+    public void removeStub(MappingBuilder mappingBuilder) {
+        remote.removeStubMapping(mappingBuilder);
+    }
+
+    @Override
+    public void removeStub(StubMapping stubMapping) {
+        remote.removeStubMapping(stubMapping);
+    }
+
+    @Override
+    public List<StubMapping> getStubMappings() {
+        return remote.allStubMappings().getMappings();
+    }
+
+    @Override
+    public StubMapping getSingleStubMapping(UUID id) {
+        return remote.getStubMapping(id).getItem();
+    }
+
+    @Override
+    public List<StubMapping> findStubMappingsByMetadata(StringValuePattern pattern) {
+        return remote.findAllStubsByMetadata(pattern);
+    }
+
+    @Override
+    public void removeStubMappingsByMetadata(StringValuePattern pattern) {
+        remote.removeStubsByMetadataPattern(pattern);
+    }
+
+    @Override
+    public void verify(RequestPatternBuilder requestPatternBuilder) {
+        remote.verifyThat(requestPatternBuilder);
+    }
+
+    @Override
+    public void verify(int count, RequestPatternBuilder requestPatternBuilder) {
+        remote.verifyThat(count, requestPatternBuilder);
+    }
+
+    @Override
+    public void verify(CountMatchingStrategy countMatchingStrategy, RequestPatternBuilder requestPatternBuilder) {
+        remote.verifyThat(countMatchingStrategy, requestPatternBuilder);
+    }
+
+    @Override
+    public List<LoggedRequest> findAll(RequestPatternBuilder requestPatternBuilder) {
+        return remote.find(requestPatternBuilder);
+    }
+
+    @Override
+    public List<ServeEvent> getAllServeEvents() {
+        return remote.getServeEvents();
+    }
+
+    @Override
+    public void setGlobalFixedDelay(int milliseconds) {
+        remote.setGlobalFixedDelayVariable(milliseconds);
+    }
+
+    @Override
+    public List<LoggedRequest> findAllUnmatchedRequests() {
+        return remote.findAllUnmatchedRequests();
+    }
+
+    @Override
+    public List<NearMiss> findNearMissesForAllUnmatchedRequests() {
+        return remote.findNearMissesForAllUnmatchedRequests();
+    }
+
+    @Override
+    public List<NearMiss> findAllNearMissesFor(RequestPatternBuilder requestPatternBuilder) {
+        return remote.findAllNearMissesFor(requestPatternBuilder);
+    }
+
+    @Override
+    public List<NearMiss> findNearMissesFor(LoggedRequest loggedRequest) {
+        return remote.findTopNearMissesFor(loggedRequest);
+    }
+
+    @Override
+    public void checkForUnmatchedRequests() {
+        List<LoggedRequest> unmatched = findAllUnmatchedRequests();
+        if (!unmatched.isEmpty()) {
+            throw new AssertionError(unmatched.size() + " unmatched requests in WireMock process on port " + port);
+        }
+    }
+
+    // ==================== ADMIN ====================
+
+    @Override
+    public void addStubMapping(StubMapping stubMapping) {
+        admin.addStubMapping(stubMapping);
+    }
+
+    @Override
+    public void editStubMapping(StubMapping stubMapping) {
+        admin.editStubMapping(stubMapping);
+    }
+
+    @Override
+    public void removeStubMapping(StubMapping stubMapping) {
+        admin.removeStubMapping(stubMapping);
+    }
+
+    @Override
+    public void removeStubMapping(UUID id) {
+        admin.removeStubMapping(id);
+    }
+
+    @Override
+    public ListStubMappingsResult listAllStubMappings() {
+        return admin.listAllStubMappings();
+    }
+
+    @Override
+    public SingleStubMappingResult getStubMapping(UUID id) {
+        return admin.getStubMapping(id);
+    }
+
+    @Override
+    public void saveMappings() {
+        admin.saveMappings();
+    }
+
+    @Override
+    public void resetAll() {
+        admin.resetAll();
+    }
+
+    @Override
+    public void resetRequests() {
+        admin.resetRequests();
+    }
+
+    @Override
+    public void resetToDefaultMappings() {
+        admin.resetToDefaultMappings();
+    }
+
+    @Override
+    public GetServeEventsResult getServeEvents() {
+        return admin.getServeEvents();
+    }
+
+    @Override
+    public GetServeEventsResult getServeEvents(ServeEventQuery query) {
+        return admin.getServeEvents(query);
+    }
+
+    @Override
+    public SingleServedStubResult getServedStub(UUID id) {
+        return admin.getServedStub(id);
+    }
+
+    @Override
+    public void resetScenarios() {
+        admin.resetScenarios();
+    }
+
+    @Override
+    public void resetMappings() {
+        admin.resetMappings();
+    }
+
+    @Override
+    public VerificationResult countRequestsMatching(RequestPattern requestPattern) {
+        return admin.countRequestsMatching(requestPattern);
+    }
+
+    @Override
+    public FindRequestsResult findRequestsMatching(RequestPattern requestPattern) {
+        return admin.findRequestsMatching(requestPattern);
+    }
+
+    @Override
+    public FindRequestsResult findUnmatchedRequests() {
+        return admin.findUnmatchedRequests();
+    }
+
+    @Override
+    public void removeServeEvent(UUID id) {
+        admin.removeServeEvent(id);
+    }
+
+    @Override
+    public FindServeEventsResult removeServeEventsMatching(RequestPattern requestPattern) {
+        return admin.removeServeEventsMatching(requestPattern);
+    }
+
+    @Override
+    public FindServeEventsResult removeServeEventsForStubsMatchingMetadata(StringValuePattern pattern) {
+        return admin.removeServeEventsForStubsMatchingMetadata(pattern);
+    }
+
+    @Override
+    public void updateGlobalSettings(GlobalSettings newSettings) {
+        admin.updateGlobalSettings(newSettings);
+    }
+
+    @Override
+    public GetGlobalSettingsResult getGlobalSettings() {
+        return admin.getGlobalSettings();
+    }
+
+    @Override
+    public FindNearMissesResult findNearMissesForUnmatchedRequests() {
+        return admin.findNearMissesForUnmatchedRequests();
+    }
+
+    @Override
+    public GetScenariosResult getAllScenarios() {
+        return admin.getAllScenarios();
+    }
+
+    @Override
+    public void resetScenario(String name) {
+        admin.resetScenario(name);
+    }
+
+    @Override
+    public void setScenarioState(String name, String state) {
+        admin.setScenarioState(name, state);
+    }
+
+    @Override
+    public FindNearMissesResult findTopNearMissesFor(LoggedRequest loggedRequest) {
+        return admin.findTopNearMissesFor(loggedRequest);
+    }
+
+    @Override
+    public FindNearMissesResult findTopNearMissesFor(RequestPattern requestPattern) {
+        return admin.findTopNearMissesFor(requestPattern);
+    }
+
+    @Override
+    public void startRecording(String targetBaseUrl) {
+        admin.startRecording(targetBaseUrl);
+    }
+
+    @Override
+    public void startRecording(RecordSpec spec) {
+        admin.startRecording(spec);
+    }
+
+    @Override
+    public void startRecording(RecordSpecBuilder recordSpec) {
+        admin.startRecording(recordSpec);
+    }
+
+    @Override
+    public SnapshotRecordResult stopRecording() {
+        return admin.stopRecording();
+    }
+
+    @Override
+    public RecordingStatusResult getRecordingStatus() {
+        return admin.getRecordingStatus();
+    }
+
+    @Override
+    public SnapshotRecordResult snapshotRecord() {
+        return admin.snapshotRecord();
+    }
+
+    @Override
+    public SnapshotRecordResult snapshotRecord(RecordSpecBuilder spec) {
+        return admin.snapshotRecord(spec);
+    }
+
+    @Override
+    public SnapshotRecordResult snapshotRecord(RecordSpec spec) {
+        return admin.snapshotRecord(spec);
+    }
+
+    @Override
+    public ListStubMappingsResult findAllStubsByMetadata(StringValuePattern pattern) {
+        return admin.findAllStubsByMetadata(pattern);
+    }
+
+    @Override
+    public void removeStubsByMetadata(StringValuePattern pattern) {
+        admin.removeStubsByMetadata(pattern);
+    }
+
+    @Override
+    public void importStubs(StubImport stubImport) {
+        admin.importStubs(stubImport);
+    }
+}
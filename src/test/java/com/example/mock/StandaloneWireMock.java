@@ -0,0 +1,42 @@
+package com.example.mock;
+
+import com.example.profiling.JfrServeEvents;
+import com.github.tomakehurst.wiremock.WireMockServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * Точка входа отдельного процесса WireMock ({@link WireMockProcess}).
+ *
+ * Настройки Jetty те же, что у TestBase.wireMockOptions; расширения подключаются те, что влияют на ответы
+ * (StatefulExternalService, VirtualTimeDelays) и JFR. Их состояние живет в этом процессе и тестам недоступно.
+ * Процесс завершается, когда родитель закрывает stdin (в том числе если JVM тестов упала)
+ *
+ * Аргументы: port
+ */
+public final class StandaloneWireMock {
+
+    private StandaloneWireMock() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(args[0]);
+        WireMockServer server = new WireMockServer(MockThreading.apply(options()
+                .port(port)
+                .extensions(new StatefulExternalService(), new VirtualTimeDelays(), new JfrServeEvents())));
+        server.start();
+        System.out.println("=== [INFO] Standalone WireMock started on port " + server.port()
+                + ", pid " + ProcessHandle.current().pid() + " ===");
+
+        InputStream parent = System.in;
+        while (parent.read() != -1) {
+            // Ждем закрытия stdin родителем
+        }
+        server.stop();
+        System.out.println("=== [INFO] Standalone WireMock stopped ===");
+        System.exit(0);
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.mock;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+/**
+ * Реалистичная замена внешнего сервиса, подключаемая как расширение WireMock:
+ * - /auth создает сессию токена, /doAction без сессии отвечает 401
+ * - у каждого токена квота вызовов на окно; превышение - 429 с Retry-After
+ *   (как в ErrorHandlingTest.externalServiceRateLimiting), и до истечения Retry-After
+ *   все вызовы токена тоже получают 429
+ * Состояние хранится в {@link StripedSessionStore}, чтобы выдерживать высокий RPS
+ */
+public class StatefulExternalService extends ResponseDefinitionTransformer {
+
+    public static final String NAME = "stateful-external-service";
+
+    private static final int DEFAULT_QUOTA = Integer.MAX_VALUE;
+    private static final Duration DEFAULT_WINDOW = Duration.ofSeconds(1);
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+    private static final Duration DEFAULT_SESSION_TTL = Duration.ofMinutes(5);
+
+    private final StripedSessionStore<Session> sessions = new StripedSessionStore<>(256, 4096, Duration.ofSeconds(1));
+    private final LongAdder served = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder unauthorized = new LongAdder();
+    private final LongAdder callsDuringBackoff = new LongAdder();
+
+    private volatile int quota = DEFAULT_QUOTA;
+    private volatile long windowNanos = DEFAULT_WINDOW.toNanos();
+    private volatile long retryAfterNanos = DEFAULT_RETRY_AFTER.toNanos();
+    private volatile long sessionTtlNanos = DEFAULT_SESSION_TTL.toNanos();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    /**
+     * Направить /auth и /doAction на эту замену и сбросить состояние
+     */
+    public void install(WireMockServer wireMock) {
+        reset();
+        wireMock.stubFor(post("/auth").atPriority(3).willReturn(aResponse().withTransformers(NAME)));
+        wireMock.stubFor(post("/doAction").atPriority(3).willReturn(aResponse().withTransformers(NAME)));
+    }
+
+    /**
+     * Не более calls вызовов на токен за window; при превышении - 429 на retryAfter
+     */
+    public StatefulExternalService quota(int calls, Duration window, Duration retryAfter) {
+        this.quota = calls;
+        this.windowNanos = window.toNanos();
+        this.retryAfterNanos = retryAfter.toNanos();
+        return this;
+    }
+
+    public StatefulExternalService sessionTtl(Duration ttl) {
+        this.sessionTtlNanos = ttl.toNanos();
+        return this;
+    }
+
+    /**
+     * Очистить сессии и счетчики и вернуть квоту и TTL сессий к значениям по умолчанию
+     */
+    public void reset() {
+        sessions.clear();
+        served.reset();
+        rateLimited.reset();
+        unauthorized.reset();
+        callsDuringBackoff.reset();
+        quota(DEFAULT_QUOTA, DEFAULT_WINDOW, DEFAULT_RETRY_AFTER);
+        sessionTtl(DEFAULT_SESSION_TTL);
+    }
+
+    @Override
+    public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition,
+                                        FileSource files, Parameters parameters) {
+        served.increment();
+        String token = formParam(request.getBodyAsString(), "token");
+        if (token == null) {
+            return json(400, "{\"error\":\"token is required\"}");
+        }
+        long now = System.nanoTime();
+        boolean auth = request.getUrl().startsWith("/auth");
+
+        if (!auth) {
+            Boolean known = sessions.read(token, session -> session != null && session.authorized);
+            if (!known) {
+                unauthorized.increment();
+                return json(401, "{\"error\":\"No session\"}");
+            }
+        }
+
+        long retryAfter = sessions.compute(token, t -> new Session(now), session -> session.acquire(now, auth),
+                session -> now - session.lastSeen > sessionTtlNanos);
+        if (retryAfter > 0) {
+            rateLimited.increment();
+            return new ResponseDefinitionBuilder()
+                    .withStatus(429)
+                    .withHeader("Content-Type", "application/json")
+                    .withHeader("Retry-After", String.valueOf(Math.max(1, (retryAfter + 999_999_999) / 1_000_000_000)))
+                    .withBody("{\"error\":\"Too Many Requests\"}")
+                    .build();
+        }
+        return json(200, "{\"status\":\"ok\"}");
+    }
+
+    public long served() {
+        return served.sum();
+    }
+
+    public long rateLimited() {
+        return rateLimited.sum();
+    }
+
+    public long unauthorized() {
+        return unauthorized.sum();
+    }
+
+    /**
+     * Вызовы, пришедшие до истечения Retry-After - сервис не соблюдает back-off
+     */
+    public long callsDuringBackoff() {
+        return callsDuringBackoff.sum();
+    }
+
+    public int sessions() {
+        return sessions.size();
+    }
+
+    public String summary() {
+        return "served: " + served() + "\n" +
+                "429 Too Many Requests: " + rateLimited() + "\n" +
+                "401 no session: " + unauthorized() + "\n" +
+                "calls during Retry-After back-off: " + callsDuringBackoff() + "\n" +
+                "sessions: " + sessions();
+    }
+
+    private static ResponseDefinition json(int status, String body) {
+        return new ResponseDefinitionBuilder()
+                .withStatus(status)
+                .withHeader("Content-Type", "application/json")
+                .withBody(body)
+                .build();
+    }
+
+    /**
+     * Параметр form-тела запроса сервиса к внешнему API (null - нет такого параметра)
+     */
+    public static String formParam(String body, String name) {
+        if (body == null) {
+            return null;
+        }
+        for (String pair : body.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Состояние токена; изменяется только под блокировкой полосы
+     */
+    private class Session {
+
+        boolean authorized;
+        long windowStart;
+        int calls;
+        long blockedUntil;
+        long lastSeen;
+
+        Session(long now) {
+            this.windowStart = now;
+            this.lastSeen = now;
+        }
+
+        /**
+         * 0 - вызов разрешен, иначе - наносекунд до окончания back-off
+         */
+        long acquire(long now, boolean auth) {
+            lastSeen = now;
+            if (now < blockedUntil) {
+                callsDuringBackoff.increment();
+                return blockedUntil - now;
+            }
+            if (now - windowStart >= windowNanos) {
+                windowStart = now;
+                calls = 0;
+            }
+            if (++calls > quota) {
+                blockedUntil = now + retryAfterNanos;
+                return retryAfterNanos;
+            }
+            if (auth) {
+                authorized = true;
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.mock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Потокобезопасная таблица сессий с разбиением на полосы (stripes):
+ * каждая полоса - обычный HashMap под собственной блокировкой, поэтому
+ * параллельные запросы с разными токенами почти не конкурируют.
+ * Переполненная полоса (больше evictionThreshold записей) очищается от устаревших записей
+ * не чаще раза за evictionInterval: иначе полоса из живых сессий обходилась бы целиком на каждом запросе
+ */
+public class StripedSessionStore<V> {
+
+    private final ReentrantLock[] locks;
+    private final List<Map<String, V>> maps;
+    private final int mask;
+    private final int evictionThreshold;
+    private final long evictionIntervalNanos;
+    // Момент последней очистки полосы; System.nanoTime может быть нулем или отрицательным,
+    // поэтому "ни разу не очищалась" - отдельный признак. Оба массива - под блокировкой полосы
+    private final long[] evictedNanos;
+    private final boolean[] evicted;
+
+    public StripedSessionStore(int stripes, int evictionThreshold, Duration evictionInterval) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        this.maps = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+            maps.add(new HashMap<>());
+        }
+        this.mask = size - 1;
+        this.evictionThreshold = evictionThreshold;
+        this.evictionIntervalNanos = evictionInterval.toNanos();
+        this.evictedNanos = new long[size];
+        this.evicted = new boolean[size];
+    }
+
+    /**
+     * Атомарно получить (создав при необходимости) запись токена и применить к ней action
+     * под блокировкой полосы. expired - признак устаревшей записи для ленивой очистки полосы
+     */
+    public <R> R compute(String token, Function<String, V> factory, Function<V, R> action,
+                         Predicate<V> expired) {
+        int stripe = stripe(token);
+        ReentrantLock lock = locks[stripe];
+        lock.lock();
+        try {
+            Map<String, V> map = maps.get(stripe);
+            if (map.size() > evictionThreshold) {
+                long now = System.nanoTime();
+                if (!evicted[stripe] || now - evictedNanos[stripe] >= evictionIntervalNanos) {
+                    evict(map, expired);
+                    evictedNanos[stripe] = now;
+                    evicted[stripe] = true;
+                }
+            }
+            return action.apply(map.computeIfAbsent(token, factory));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Прочитать запись токена под блокировкой полосы (null - записи нет)
+     */
+    public <R> R read(String token, Function<V, R> action) {
+        int stripe = stripe(token);
+        ReentrantLock lock = locks[stripe];
+        lock.lock();
+        try {
+            return action.apply(maps.get(stripe).get(token));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i].lock();
+            try {
+                size += maps.get(i).size();
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i].lock();
+            try {
+                maps.get(i).clear();
+            } finally {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    private void evict(Map<String, V> map, Predicate<V> expired) {
+        for (Iterator<V> it = map.values().iterator(); it.hasNext(); ) {
+            if (expired.test(it.next())) {
+                it.remove();
+            }
+        }
+    }
+
+    private int stripe(String token) {
+        int h = token.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.mock;
+
+import com.github.tomakehurst.wiremock.common.Timing;
+import com.github.tomakehurst.wiremock.core.Admin;
+import com.github.tomakehurst.wiremock.extension.PostServeAction;
+import com.github.tomakehurst.wiremock.extension.requestfilter.RequestFilterAction;
+import com.github.tomakehurst.wiremock.extension.requestfilter.StubRequestFilter;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Моменты прихода и ухода запросов сервиса к внешнему API (System.nanoTime, те же часы, что у клиента
+ * в этом JVM), сгруппированные по token. Два расширения WireMock:
+ * - {@link #arrivals()}: фильтр запросов, срабатывает до сопоставления со стабами;
+ * - {@link #departures()}: post-serve действие, срабатывает после отправки ответа.
+ *
+ * Используется для разбиения задержки /endpoint на время сервиса до и после вызова и время внешнего API.
+ * Визиты записываются, только пока подключен хотя бы один потребитель ({@link #attach()}: LatencyDecomposition,
+ * TraceCollector), поэтому обычные нагрузочные прогоны не копят token в памяти
+ */
+public class UpstreamTimeline {
+
+    private final Map<String, ConcurrentLinkedDeque<Long>> pendingArrivals = new ConcurrentHashMap<>();
+    private final Map<String, List<Visit>> visits = new ConcurrentHashMap<>();
+    private final Arrivals arrivals = new Arrivals();
+    private final Departures departures = new Departures();
+    private final AtomicInteger consumers = new AtomicInteger();
+
+    public StubRequestFilter arrivals() {
+        return arrivals;
+    }
+
+    public PostServeAction departures() {
+        return departures;
+    }
+
+    /**
+     * Визиты к внешнему API с данным token, в порядке ухода
+     */
+    public List<Visit> visits(String token) {
+        List<Visit> list = visits.get(token);
+        if (list == null) {
+            return Collections.emptyList();
+        }
+        synchronized (list) {
+            return new ArrayList<>(list);
+        }
+    }
+
+    public int size() {
+        return visits.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Подключить потребителя визитов: запись идет, пока подключен хотя бы один
+     */
+    public void attach() {
+        consumers.incrementAndGet();
+    }
+
+    /**
+     * Отключить потребителя; записанные визиты остаются до clear() или reset()
+     */
+    public void detach() {
+        consumers.updateAndGet(n -> Math.max(0, n - 1));
+    }
+
+    public boolean recording() {
+        return consumers.get() > 0;
+    }
+
+    /**
+     * Забыть визиты, подписки не меняются
+     */
+    public void clear() {
+        pendingArrivals.clear();
+        visits.clear();
+    }
+
+    /**
+     * Забыть визиты и отключить всех потребителей, оставшихся от прошлого теста (вызывается из TestBase.setUp)
+     */
+    public void reset() {
+        consumers.set(0);
+        clear();
+    }
+
+    private static String key(String url, String token) {
+        return url + " " + token;
+    }
+
+    /**
+     * Один запрос сервиса к внешнему API
+     *
+     * @param arrivalNanos   запрос пришел в WireMock
+     * @param departureNanos ответ отправлен
+     * @param traceparent    заголовок W3C traceparent, пришедший от сервиса (null - не передан)
+     */
+    public record Visit(String url, String token, int status, long arrivalNanos, long departureNanos,
+                        String traceparent) {
+
+        public long durationNanos() {
+            return departureNanos - arrivalNanos;
+        }
+    }
+
+    private final class Arrivals extends StubRequestFilter {
+
+        @Override
+        public String getName() {
+            return "upstream-timeline-arrivals";
+        }
+
+        @Override
+        public RequestFilterAction filter(Request request) {
+            long now = System.nanoTime();
+            if (!recording()) {
+                return RequestFilterAction.continueWith(request);
+            }
+            String token = StatefulExternalService.formParam(request.getBodyAsString(), "token");
+            if (token != null) {
+                pendingArrivals.computeIfAbsent(key(request.getUrl(), token), k -> new ConcurrentLinkedDeque<>()).add(now);
+            }
+            return RequestFilterAction.continueWith(request);
+        }
+    }
+
+    private final class Departures extends PostServeAction {
+
+        @Override
+        public String getName() {
+            return "upstream-timeline-departures";
+        }
+
+        @Override
+        public void doGlobalAction(ServeEvent serveEvent, Admin admin) {
+            long now = System.nanoTime();
+            if (!recording()) {
+                return;
+            }
+            String url = serveEvent.getRequest().getUrl();
+            String token = StatefulExternalService.formParam(serveEvent.getRequest().getBodyAsString(), "token");
+            if (token == null) {
+                return;
+            }
+            ConcurrentLinkedDeque<Long> pending = pendingArrivals.get(key(url, token));
+            Long arrival = pending == null ? null : pending.pollFirst();
+            int status = serveEvent.getResponse() == null ? 0 : serveEvent.getResponse().getStatus();
+            long start = arrival == null ? now : arrival;
+            // При асинхронных ответах (withFixedDelay) действие выполняется до отправки задержанного ответа:
+            // уход сдвигается на задержку из Timing (точность - миллисекунды)
+            long departure = now;
+            Timing timing = serveEvent.getTiming();
+            if (timing != null && timing.getAddedDelay() > 0) {
+                departure = Math.max(now, start + TimeUnit.MILLISECONDS.toNanos(timing.getProcessTime() + timing.getAddedDelay()));
+            }
+            List<Visit> list = visits.computeIfAbsent(token, k -> new ArrayList<>());
+            synchronized (list) {
+                // Без отметки прихода (фильтр не сработал) визит считается мгновенным
+                list.add(new Visit(url, token, status, start, departure,
+                        serveEvent.getRequest().getHeader("traceparent")));
+            }
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package com.example.mock;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import org.eclipse.jetty.io.EndPoint;
+import org.eclipse.jetty.server.HttpConnection;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Задержки WireMock в виртуальном времени - расширение для тестов таймаутов.
+ *
+ * Вместо withFixedDelay ответ удерживается, пока не произойдет одно из событий:
+ * - виртуальные часы ({@link #advance}) дошли до момента прихода + задержка;
+ * - тест явно отпустил запрос ({@link #release});
+ * - сервис сам закрыл соединение (сдался по таймауту) - момент определяется по состоянию TCP соединения
+ *   в ядре (/proc/net/tcp, tcp6: CLOSE_WAIT или соединения больше нет), без ожидания полной задержки.
+ *   Таблицы перечитываются не чаще -Dwiremock.virtualDelay.disconnectPollMillis (по умолчанию 10),
+ *   момент разрыва - середина между последним снимком с установленным соединением и первым без него. Сокет Jetty при этом не читается: байты следующего
+ *   запроса на том же соединении остаются Jetty. Без /proc (не Linux) разрыв не отслеживается,
+ *   см. {@link #detectsDisconnects()}.
+ *
+ * Удерживаемый запрос занимает поток Jetty (transform вызывается синхронно и асинхронные ответы WireMock
+ * тут не помогают), поэтому одновременных удержаний не больше -Dwiremock.virtualDelay.maxHolds
+ * (по умолчанию половина пула Jetty): сверх предела запрос сразу получает 503 с исходом REJECTED,
+ * а не отнимает потоки у остальных заглушек. Страховочный предел удержания:
+ * -Dwiremock.virtualDelay.maxHoldMillis (по умолчанию 120000).
+ */
+public class VirtualTimeDelays extends ResponseDefinitionTransformer {
+
+    public static final String NAME = "virtual-time-delay";
+    public static final String DELAY_PARAMETER = "virtualDelayMillis";
+    public static final long UNTIL_RELEASED = -1;
+
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    // Чтение /proc/net/tcp{,6} - полный обход таблиц ядра, поэтому снимок реже опроса удержаний
+    private static final long SNAPSHOT_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("wiremock.virtualDelay.disconnectPollMillis", 10));
+    private static final long MAX_HOLD_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("wiremock.virtualDelay.maxHoldMillis", 120_000));
+    private static final int MAX_HOLDS = Integer.getInteger("wiremock.virtualDelay.maxHolds",
+            Math.max(1, MockThreading.containerThreads() / 2));
+
+    private final List<Hold> holds = new CopyOnWriteArrayList<>();
+    private long virtualMillis;
+
+    public enum Outcome {
+        PENDING,
+        /** Ответ отдан: виртуальная задержка истекла или тест отпустил запрос */
+        RELEASED,
+        /** Сервис закрыл соединение, не дождавшись ответа */
+        DISCONNECTED,
+        /** Превышен страховочный предел удержания */
+        EXPIRED,
+        /** Превышен предел одновременных удержаний: ответ 503 без задержки */
+        REJECTED
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    /**
+     * Ответ с задержкой в виртуальном времени
+     */
+    public static ResponseDefinitionBuilder withVirtualDelay(ResponseDefinitionBuilder response, Duration delay) {
+        return response.withTransformers(NAME).withTransformerParameter(DELAY_PARAMETER, delay.toMillis());
+    }
+
+    /**
+     * Ответ удерживается, пока тест его не отпустит или сервис не закроет соединение
+     */
+    public static ResponseDefinitionBuilder heldUntilReleased(ResponseDefinitionBuilder response) {
+        return response.withTransformers(NAME).withTransformerParameter(DELAY_PARAMETER, UNTIL_RELEASED);
+    }
+
+    @Override
+    public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition,
+                                        FileSource files, Parameters parameters) {
+        long delay = parameters != null && parameters.containsKey(DELAY_PARAMETER)
+                ? ((Number) parameters.get(DELAY_PARAMETER)).longValue()
+                : UNTIL_RELEASED;
+
+        Hold hold;
+        synchronized (this) {
+            hold = new Hold(request.getUrl(), StatefulExternalService.formParam(request.getBodyAsString(), "token"),
+                    delay, virtualMillis);
+            boolean full = pending().size() >= MAX_HOLDS;
+            holds.add(hold);
+            notifyAll();
+            if (full) {
+                hold.finish(Outcome.REJECTED);
+                System.out.println("=== [VIRTUAL-DELAY] Hold limit " + MAX_HOLDS + " reached, rejected " + hold + " ===");
+                return new ResponseDefinitionBuilder().withStatus(503)
+                        .withBody("Virtual delay hold limit " + MAX_HOLDS + " reached").build();
+            }
+        }
+        hold.await(currentConnection());
+        return responseDefinition;
+    }
+
+    /**
+     * Отслеживается ли закрытие соединения сервисом (исход DISCONNECTED): нужен /proc/net/tcp
+     */
+    public static boolean detectsDisconnects() {
+        return TcpStates.AVAILABLE;
+    }
+
+    // ==================== УПРАВЛЕНИЕ ИЗ ТЕСТА ====================
+
+    /** Текущее виртуальное время, мс от последнего reset() */
+    public synchronized long now() {
+        return virtualMillis;
+    }
+
+    /** Продвинуть виртуальные часы: отпускаются запросы, чья задержка истекла */
+    public synchronized void advance(Duration duration) {
+        virtualMillis += duration.toMillis();
+        notifyAll();
+    }
+
+    /** Отпустить удерживаемые запросы, подходящие под условие; возвращает их число */
+    public synchronized int release(Predicate<Hold> filter) {
+        int released = 0;
+        for (Hold hold : holds) {
+            if (hold.outcome == Outcome.PENDING && filter.test(hold)) {
+                hold.releaseRequested = true;
+                released++;
+            }
+        }
+        notifyAll();
+        return released;
+    }
+
+    public int releaseAll() {
+        return release(hold -> true);
+    }
+
+    /** Все удержания с момента последнего reset(), в порядке прихода */
+    public List<Hold> holds() {
+        return new ArrayList<>(holds);
+    }
+
+    public List<Hold> pending() {
+        List<Hold> result = new ArrayList<>();
+        for (Hold hold : holds) {
+            if (hold.outcome == Outcome.PENDING) {
+                result.add(hold);
+            }
+        }
+        return result;
+    }
+
+    /** Дождаться (в реальном времени), пока придут count запросов; false по таймауту */
+    public boolean awaitArrivals(int count, Duration timeout) throws InterruptedException {
+        return awaitCondition(() -> holds.size() >= count, timeout);
+    }
+
+    /** Дождаться (в реальном времени), пока не останется удерживаемых запросов; false по таймауту */
+    public boolean awaitSettled(Duration timeout) throws InterruptedException {
+        return awaitCondition(() -> pending().isEmpty(), timeout);
+    }
+
+    /** Отпустить все удержания и обнулить часы и историю (вызывается из TestBase.setUp) */
+    public synchronized void reset() {
+        releaseAll();
+        holds.clear();
+        virtualMillis = 0;
+    }
+
+    private synchronized boolean awaitCondition(BooleanSupplier condition, Duration timeout)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean()) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                return false;
+            }
+            // Исход удержания меняется без notify (разрыв соединения), поэтому ждем с коротким шагом
+            TimeUnit.NANOSECONDS.timedWait(this, Math.min(left, TimeUnit.MILLISECONDS.toNanos(5)));
+        }
+        return true;
+    }
+
+    // Ключ TCP соединения, на котором Jetty обрабатывает текущий запрос (-1, если недоступен)
+    private static long currentConnection() {
+        HttpConnection connection = HttpConnection.getCurrentConnection();
+        if (connection == null || !TcpStates.AVAILABLE) {
+            return -1;
+        }
+        EndPoint endPoint = connection.getEndPoint();
+        InetSocketAddress local = endPoint.getLocalAddress();
+        InetSocketAddress remote = endPoint.getRemoteAddress();
+        return local == null || remote == null ? -1 : TcpStates.key(local.getPort(), remote.getPort());
+    }
+
+    /**
+     * Состояния TCP соединений из /proc/net/tcp и /proc/net/tcp6 по паре (локальный порт, порт клиента).
+     * Снимок общий для всех удержаний и перечитывается не чаще SNAPSHOT_NANOS
+     */
+    private static final class TcpStates {
+
+        static final boolean AVAILABLE = Files.isReadable(Path.of("/proc/net/tcp"));
+        private static final List<Path> TABLES = List.of(Path.of("/proc/net/tcp"), Path.of("/proc/net/tcp6"));
+        private static final String ESTABLISHED = "01";
+
+        private static Map<Long, String> snapshot = Map.of();
+        // System.nanoTime может быть нулем или отрицательным: наличие снимка - отдельный признак
+        private static boolean taken;
+        private static long snapshotNanos;
+
+        private TcpStates() {
+        }
+
+        static long key(int localPort, int remotePort) {
+            return ((long) localPort << 16) | remotePort;
+        }
+
+        /**
+         * Состояние соединения в снимке: established - установлено, иначе клиент закрыл его или соединения
+         * уже нет; atNanos - момент снятия снимка (System.nanoTime)
+         */
+        record Observation(boolean established, long atNanos) {
+        }
+
+        static synchronized Observation observe(long key) {
+            if (!taken || System.nanoTime() - snapshotNanos >= SNAPSHOT_NANOS) {
+                snapshot = read();
+                snapshotNanos = System.nanoTime();
+                taken = true;
+            }
+            return new Observation(ESTABLISHED.equals(snapshot.get(key)), snapshotNanos);
+        }
+
+        // Строка: "sl local_address rem_address st ...", адрес - HEX_IP:HEX_PORT
+        private static Map<Long, String> read() {
+            Map<Long, String> states = new HashMap<>();
+            for (Path table : TABLES) {
+                List<String> lines;
+                try {
+                    lines = Files.readAllLines(table);
+                } catch (IOException e) {
+                    continue;
+                }
+                for (int i = 1; i < lines.size(); i++) {
+                    String[] fields = lines.get(i).trim().split("\\s+");
+                    if (fields.length < 4) {
+                        continue;
+                    }
+                    long key = key(port(fields[1]), port(fields[2]));
+                    // Пара портов может совпасть у соединений с разных адресов: достаточно одного установленного
+                    states.merge(key, fields[3], (a, b) -> ESTABLISHED.equals(a) ? a : b);
+                }
+            }
+            return states;
+        }
+
+        private static int port(String address) {
+            return Integer.parseInt(address.substring(address.lastIndexOf(':') + 1), 16);
+        }
+    }
+
+    /**
+     * Один удерживаемый запрос
+     */
+    public final class Hold {
+
+        private final String url;
+        private final String token;
+        private final long delayMillis;
+        private final long arrivedVirtualMillis;
+        private final long arrivedNanos = System.nanoTime();
+        private volatile long finishedNanos;
+        private volatile Outcome outcome = Outcome.PENDING;
+        private boolean releaseRequested;
+
+        private Hold(String url, String token, long delayMillis, long arrivedVirtualMillis) {
+            this.url = url;
+            this.token = token;
+            this.delayMillis = delayMillis;
+            this.arrivedVirtualMillis = arrivedVirtualMillis;
+        }
+
+        public String url() {
+            return url;
+        }
+
+        public String token() {
+            return token;
+        }
+
+        /** Виртуальная задержка, мс; {@link #UNTIL_RELEASED} - до явного release() */
+        public long delayMillis() {
+            return delayMillis;
+        }
+
+        public Outcome outcome() {
+            return outcome;
+        }
+
+        /** Реальное время удержания, мс (для DISCONNECTED - сколько сервис ждал ответа) */
+        public double heldMillis() {
+            long end = outcome == Outcome.PENDING ? System.nanoTime() : finishedNanos;
+            return (end - arrivedNanos) / 1_000_000.0;
+        }
+
+        private boolean due() {
+            return releaseRequested
+                    || (delayMillis != UNTIL_RELEASED && virtualMillis >= arrivedVirtualMillis + delayMillis);
+        }
+
+        private void await(long connection) {
+            VirtualTimeDelays owner = VirtualTimeDelays.this;
+            boolean seen = false;
+            long seenNanos = 0;
+            try {
+                while (true) {
+                    synchronized (owner) {
+                        if (due()) {
+                            finish(Outcome.RELEASED);
+                            return;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(owner, POLL_NANOS);
+                    }
+                    if (connection >= 0) {
+                        // Соединение считается разорванным, только если до этого было видно установленным
+                        TcpStates.Observation observed = TcpStates.observe(connection);
+                        if (seen && !observed.established()) {
+                            finish(Outcome.DISCONNECTED, Math.max(arrivedNanos, seenNanos + (observed.atNanos() - seenNanos) / 2));
+                            return;
+                        }
+                        if (observed.established()) {
+                            seen = true;
+                            seenNanos = observed.atNanos();
+                        }
+                    }
+                    if (System.nanoTime() - arrivedNanos > MAX_HOLD_NANOS) {
+                        finish(Outcome.EXPIRED);
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                finish(Outcome.EXPIRED);
+            }
+        }
+
+        private void finish(Outcome result) {
+            finish(result, System.nanoTime());
+        }
+
+        private void finish(Outcome result, long atNanos) {
+            finishedNanos = atNanos;
+            outcome = result;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s token=%s delay=%s -> %s after %.1f ms", url, token,
+                    delayMillis == UNTIL_RELEASED ? "until released" : delayMillis + "ms", outcome, heldMillis());
+        }
+    }
+}
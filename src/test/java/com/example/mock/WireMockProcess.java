@@ -0,0 +1,191 @@
+package com.example.mock;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WireMock в отдельном локальном процессе JVM ({@link StandaloneWireMock}): свои heap, GC и потоки Jetty,
+ * которые не конкурируют с генератором нагрузки в JVM тестов. Управление - только через admin API.
+ *
+ * Включается -Dwiremock.process=true. Параметры:
+ * - -Dwiremock.process.heap (по умолчанию 512m) - -Xms/-Xmx процесса;
+ * - -Dwiremock.process.cpus (например 2-3) - привязка к ядрам через taskset (Linux);
+ * - -Dwiremock.process.jvmArgs - дополнительные аргументы JVM через пробел;
+ * - -Dwiremock.process.startTimeoutSeconds (по умолчанию 30).
+ * wiremock.asyncResponses, wiremock.containerThreads, wiremock.asyncResponseThreads и wiremock.virtualDelay.maxHoldMillis
+ * передаются в процесс.
+ * Вывод процесса - target/wiremock-process/wiremock-&lt;port&gt;.log
+ */
+public final class WireMockProcess {
+
+    private static final Path LOG_DIRECTORY = Path.of("target", "wiremock-process");
+    private static final String[] FORWARDED_PROPERTIES = {
+            "wiremock.asyncResponses", "wiremock.containerThreads", "wiremock.asyncResponseThreads",
+            "wiremock.virtualDelay.maxHoldMillis"};
+
+    private final int port;
+    private final Process process;
+    private final Path log;
+
+    private WireMockProcess(int port, Process process, Path log) {
+        this.port = port;
+        this.process = process;
+        this.log = log;
+    }
+
+    public static boolean enabled() {
+        return Boolean.getBoolean("wiremock.process");
+    }
+
+    /**
+     * Запустить процесс и дождаться ответа admin API; при ошибке запуска процесс завершается
+     */
+    public static WireMockProcess start(int port) {
+        Path log = LOG_DIRECTORY.resolve("wiremock-" + port + ".log");
+        Process process;
+        try {
+            Files.createDirectories(LOG_DIRECTORY);
+            process = new ProcessBuilder(command(port))
+                    .redirectErrorStream(true)
+                    .redirectOutput(log.toFile())
+                    .start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot launch WireMock process on port " + port, e);
+        }
+        WireMockProcess wireMock = new WireMockProcess(port, process, log);
+        try {
+            wireMock.awaitReady(Duration.ofSeconds(Integer.getInteger("wiremock.process.startTimeoutSeconds", 30)));
+        } catch (RuntimeException e) {
+            wireMock.stop();
+            throw e;
+        }
+        System.out.println("=== [INFO] WireMock process started on port " + port + ", pid " + process.pid() + " ===");
+        return wireMock;
+    }
+
+    static List<String> command(int port) {
+        List<String> command = new ArrayList<>();
+        String cpus = System.getProperty("wiremock.process.cpus");
+        if (cpus != null && !cpus.isBlank()) {
+            if (new File("/usr/bin/taskset").canExecute() || new File("/bin/taskset").canExecute()) {
+                command.add("taskset");
+                command.add("-c");
+                command.add(cpus);
+            } else {
+                System.err.println("=== [WARN] taskset not found, WireMock process runs without CPU affinity ===");
+            }
+        }
+        String heap = System.getProperty("wiremock.process.heap", "512m");
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Xms" + heap);
+        command.add("-Xmx" + heap);
+        for (String property : FORWARDED_PROPERTIES) {
+            String value = System.getProperty(property);
+            if (value != null) {
+                command.add("-D" + property + "=" + value);
+            }
+        }
+        String jvmArgs = System.getProperty("wiremock.process.jvmArgs", "");
+        for (String arg : jvmArgs.trim().split("\\s+")) {
+            if (!arg.isEmpty()) {
+                command.add(arg);
+            }
+        }
+        // Под surefire java.class.path - jar с манифестом, в котором весь тестовый classpath
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(StandaloneWireMock.class.getName());
+        command.add(String.valueOf(port));
+        return command;
+    }
+
+    private void awaitReady(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("WireMock process exited with code " + process.exitValue()
+                        + " on port " + port + ":\n" + logTail());
+            }
+            if (adminResponds()) {
+                return;
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for WireMock process", e);
+            }
+        }
+        throw new IllegalStateException("WireMock process did not start on port " + port + " in "
+                + timeout.toSeconds() + "s:\n" + logTail());
+    }
+
+    private boolean adminResponds() {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/__admin/mappings").openConnection();
+            connection.setConnectTimeout(200);
+            connection.setReadTimeout(1000);
+            try {
+                return connection.getResponseCode() == 200;
+            } finally {
+                connection.disconnect();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private String logTail() {
+        try {
+            List<String> lines = Files.readAllLines(log);
+            return String.join("\n", lines.subList(Math.max(0, lines.size() - 20), lines.size()));
+        } catch (IOException e) {
+            return "(no log: " + e.getMessage() + ")";
+        }
+    }
+
+    public int port() {
+        return port;
+    }
+
+    public long pid() {
+        return process.pid();
+    }
+
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+
+    public Path log() {
+        return log;
+    }
+
+    /**
+     * Закрыть stdin (процесс останавливает WireMock и выходит); не успел за 5 секунд - завершить принудительно
+     */
+    public void stop() {
+        try (OutputStream stdin = process.getOutputStream()) {
+            stdin.flush();
+        } catch (IOException ignored) {
+            // Процесс уже завершился
+        }
+        try {
+            if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+        System.out.println("=== [INFO] WireMock process on port " + port + " stopped ===");
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.mock;
+
+import com.example.profiling.HarnessCost;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Проверка WireMock в отдельном процессе на собственных портах (сервис не нужен)
+ */
+@Epic("Test Infrastructure")
+@Feature("Out-of-process WireMock")
+@Tag("mock")
+public class WireMockProcessTest {
+
+    private static final int CALLS = 500;
+    private static final int ROUNDS = 2;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    @Tag("098")
+    @DisplayName("WireMock в отдельном процессе: те же stubFor/verify, расширения и замер CPU JVM тестов")
+    @Severity(NORMAL)
+    void remoteWireMockKeepsHelpersAndOffloadsHarness() throws Exception {
+        Allure.description("RemoteWireMockServer запускает WireMock отдельной JVM и работает через admin API. " +
+                "Стабы, проверки и расширение StatefulExternalService должны работать как внутри JVM тестов, " +
+                "а потоки Jetty - уйти из JVM тестов. CPU на обслуживание " + CALLS + " запросов только замеряется: " +
+                "на общей машине сравнение двух коротких замеров нестабильно");
+
+        int threadsBefore = jettyThreads();
+        RemoteWireMockServer remote = new RemoteWireMockServer(MockEndpointPublisher.freePort());
+        WireMockServer local = new WireMockServer(options().dynamicPort());
+        remote.start();
+        int threadsWithRemote = jettyThreads();
+        local.start();
+        try {
+            Allure.step("1. Отдельный процесс без потоков Jetty в этой JVM", () -> {
+                String info = "port " + remote.port() + ", pid " + remote.process().pid() + ", log " + remote.process().log();
+                Allure.addAttachment("Процесс WireMock", "text/plain", info);
+                System.out.println("=== [MOCK] " + info + " ===");
+
+                assertThat(remote.isRunning(), is(true));
+                assertThat(remote.process().pid(), not(ProcessHandle.current().pid()));
+                assertThat("Запуск процесса не должен добавлять потоки Jetty в эту JVM", threadsWithRemote, is(threadsBefore));
+            });
+
+            Allure.step("2. Расширение с состоянием работает в процессе", () -> {
+                new StatefulExternalService().install(remote);
+                assertThat("/doAction без сессии", send(remote, "/doAction", "token=A&action=ACTION"), is(401));
+                assertThat(send(remote, "/auth", "token=A&action=LOGIN"), is(200));
+                assertThat("/doAction после /auth", send(remote, "/doAction", "token=A&action=ACTION"), is(200));
+                remote.verify(1, postRequestedFor(urlEqualTo("/auth")));
+                remote.verify(2, postRequestedFor(urlEqualTo("/doAction")));
+                remote.resetAll();
+                remote.verify(0, postRequestedFor(anyUrl()));
+            });
+
+            Allure.step("3. CPU JVM тестов на " + CALLS + " запросов: WireMock внутри JVM и в процессе", () -> {
+                remote.stubFor(post("/auth").willReturn(okJson("{\"status\":\"ok\"}")));
+                local.stubFor(post("/auth").willReturn(okJson("{\"status\":\"ok\"}")));
+                burst(local, CALLS / 4);
+                burst(remote, CALLS / 4);
+
+                double localCpu = Double.MAX_VALUE;
+                double remoteCpu = Double.MAX_VALUE;
+                for (int round = 0; round < ROUNDS; round++) {
+                    localCpu = Math.min(localCpu, burst(local, CALLS).processCpuMillis());
+                    remoteCpu = Math.min(remoteCpu, burst(remote, CALLS).processCpuMillis());
+                }
+                String report = String.format("CPU of test JVM per %d requests: in-process %.1f ms, separate process %.1f ms%s",
+                        CALLS, localCpu, remoteCpu, remoteCpu < localCpu ? "" : " (no saving measured)");
+                Allure.addAttachment("CPU JVM тестов", "text/plain", report);
+                System.out.println("=== [MOCK] " + report + " ===");
+
+                assertThat("Все запросы должны дойти до процесса", remote.findAll(postRequestedFor(urlEqualTo("/auth"))),
+                        hasSize(CALLS / 4 + CALLS * ROUNDS));
+            });
+
+            Allure.step("4. Остановка процесса", () -> {
+                remote.stop();
+                assertThat(remote.isRunning(), is(false));
+                assertThat(send(remote, "/auth", "token=A"), is(-1));
+            });
+        } finally {
+            remote.stop();
+            local.stop();
+        }
+    }
+
+    private HarnessCost burst(WireMockServer server, int calls) {
+        return HarnessCost.measure(() -> {
+            for (int i = 0; i < calls; i++) {
+                send(server, "/auth", "token=T" + i + "&action=LOGIN");
+            }
+        });
+    }
+
+    /**
+     * Статус ответа; -1 - соединение не установлено
+     */
+    private int send(WireMockServer server, String path, String body) {
+        try {
+            return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + path))
+                            .header("Content-Type", "application/x-www-form-urlencoded")
+                            .POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private static int jettyThreads() {
+        return (int) Thread.getAllStackTraces().keySet().stream().filter(t -> t.getName().startsWith("qtp")).count();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.performance;
+
+import com.example.base.TestBase;
+import com.example.load.HttpClientEndpointClient;
+import com.example.load.LatencyStats;
+import com.example.load.LoadConfig;
+import com.example.load.LoadResult;
+import com.example.load.LoadRunner;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Epic("Performance")
+@Feature("Connection Reuse")
+@Tag("performance")
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ConnectionReuseTest extends TestBase {
+
+    @Test
+    @Tag("075")
+    @DisplayName("Пул keep-alive соединений против нового соединения на каждый запрос")
+    @Severity(NORMAL)
+    void keepAlivePoolVersusConnectionPerRequest() {
+        Allure.description("Сравнение пропускной способности, задержек и стоимости установки соединения " +
+                "для фиксированного пула keep-alive соединений и нового соединения на каждый запрос");
+
+        int poolSize = LoadConfig.poolSize();
+        int workers = LoadConfig.workers();
+
+        Allure.step("1. Настройка внешнего сервиса на успешный ответ", () -> {
+            setupWireMockForSuccess();
+            Allure.addAttachment("Параметры", "text/plain",
+                    "workers: " + workers + "\npool: " + poolSize + "\nduration: " + LoadConfig.duration());
+        });
+
+        LoadResult keepAlive = Allure.step("2. Прогон через пул keep-alive соединений", () -> {
+            try (HttpClientEndpointClient client = HttpClientEndpointClient.keepAlive(BASE_URL, poolSize)) {
+                LoadResult result = new LoadRunner(client).workers(workers).run();
+                return withConnectStats(result, client.connectStats());
+            }
+        });
+
+        LoadResult perRequest = Allure.step("3. Прогон с новым соединением на каждый запрос", () -> {
+            try (HttpClientEndpointClient client = HttpClientEndpointClient.connectionPerRequest(BASE_URL, workers)) {
+                LoadResult result = new LoadRunner(client).workers(workers).run();
+                return withConnectStats(result, client.connectStats());
+            }
+        });
+
+        Allure.step("4. Сравнение режимов", () -> {
+            Allure.addAttachment("Сравнение", "text/plain", LoadResult.formatTable(List.of(keepAlive, perRequest)));
+
+            assertThat("Keep-alive прогон не должен давать ошибок", keepAlive.errors(), equalTo(0L));
+            assertThat("Пул не должен открывать больше соединений, чем его размер",
+                    Long.parseLong(keepAlive.extras().get("connections opened")), lessThanOrEqualTo((long) poolSize));
+            assertThat("Каждый запрос должен открывать свое соединение",
+                    Long.parseLong(perRequest.extras().get("connections opened")), greaterThanOrEqualTo(perRequest.requests() - perRequest.errors()));
+        });
+    }
+
+    private static LoadResult withConnectStats(LoadResult result, LatencyStats connectStats) {
+        LatencyStats.Snapshot connect = connectStats.snapshot();
+        return result
+                .withExtra("connections opened", String.valueOf(connect.count()))
+                .withExtra("connect", String.format("mean=%.3fms p99=%.3fms max=%.3fms",
+                        connect.mean(), connect.p99(), connect.max()));
+    }
+}
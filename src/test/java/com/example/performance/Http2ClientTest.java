@@ -0,0 +1,103 @@
+package com.example.performance;
+
+import com.example.base.TestBase;
+import com.example.load.EndpointRequest;
+import com.example.load.EndpointResponse;
+import com.example.load.Http2EndpointClient;
+import com.example.load.HttpClientEndpointClient;
+import com.example.load.LoadConfig;
+import com.example.load.LoadResult;
+import com.example.load.LoadRunner;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Epic("Performance")
+@Feature("HTTP/2 Client Mode")
+@Tag("performance")
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class Http2ClientTest extends TestBase {
+
+    @Test
+    @Tag("076")
+    @DisplayName("Мультиплексирование h2c против пула HTTP/1.1 keep-alive соединений")
+    @Severity(NORMAL)
+    void h2cMultiplexingVersusHttp11Pool() {
+        Allure.description("Сравнение пропускной способности и хвостовых задержек: " +
+                "много параллельных потоков HTTP/2 в одном соединении против пула HTTP/1.1");
+
+        int workers = LoadConfig.workers();
+
+        Allure.step("1. Настройка внешнего сервиса на успешный ответ", () -> {
+            setupWireMockForSuccess();
+            Allure.addAttachment("Параметры", "text/plain",
+                    "workers: " + workers + "\nHTTP/1.1 pool: " + LoadConfig.poolSize() +
+                            "\nduration: " + LoadConfig.duration());
+        });
+
+        LoadResult http11 = Allure.step("2. Прогон через пул HTTP/1.1 keep-alive соединений", () -> {
+            try (HttpClientEndpointClient client = HttpClientEndpointClient.keepAlive(BASE_URL, LoadConfig.poolSize())) {
+                return new LoadRunner(client).workers(workers).run();
+            }
+        });
+
+        Http2EndpointClient h2c = new Http2EndpointClient(BASE_URL).upgrade();
+        LoadResult http2 = Allure.step("3. Прогон через одно h2c соединение", () -> {
+            LoadResult result = new LoadRunner(h2c).workers(workers).run();
+            return result.withExtra("HTTP/2 responses", h2c.http2Responses() + " of " + h2c.responses());
+        });
+
+        // Без h2c upgrade второй прогон - тот же HTTP/1.1, сравнивать нечего
+        Assumptions.assumeTrue(h2c.http2Responses() > 0,
+                "Сервис не поддерживает h2c upgrade, клиент откатился на HTTP/1.1");
+
+        Allure.step("4. Сравнение режимов", () -> {
+            Allure.addAttachment("Сравнение", "text/plain", LoadResult.formatTable(List.of(http11, http2)));
+
+            assertThat("h2c прогон не должен давать ошибок", http2.errors(), equalTo(0L));
+        });
+    }
+
+    @ParameterizedTest(name = "Заголовок {0} символов от внешнего сервиса → status {1}")
+    @CsvSource({
+            "7000,  200",
+            "10000, 400"
+    })
+    @Tag("077")
+    @DisplayName("Большие заголовки внешнего сервиса при запросе по h2c (HPACK)")
+    @Severity(MINOR)
+    void largeExternalHeadersOverH2c(int headerSize, int expectedStatus) {
+        Allure.description("Поведение из ErrorHandlingTest.externalServiceReturns7KBHeader/10KBHeader " +
+                "должно сохраняться при обращении к /endpoint по HTTP/2");
+
+        Allure.step("1. Настройка мока с заголовком " + headerSize + " символов", () -> {
+            wireMockServer.stubFor(post("/auth")
+                    .willReturn(ok().withHeader("X-Large-Header", "A".repeat(headerSize))));
+            Allure.addAttachment("Размер заголовка", "text/plain", headerSize + " символов");
+        });
+
+        Allure.step("2. LOGIN по h2c", () -> {
+            Http2EndpointClient client = new Http2EndpointClient(BASE_URL).upgrade();
+            EndpointResponse response = client.send(EndpointRequest.of(generateToken(), "LOGIN"));
+
+            Allure.addAttachment("Ответ", "text/plain", "status: " + response.status() + "\n" +
+                    "HTTP/2: " + (client.http2Responses() > 0 ? "да" : "нет (откат на HTTP/1.1)") + "\n" +
+                    response.body());
+
+            // По HTTP/1.1 это повтор ErrorHandlingTest, HPACK не проверяется
+            Assumptions.assumeTrue(client.http2Responses() > 0,
+                    "Сервис не поддерживает h2c upgrade, клиент откатился на HTTP/1.1");
+            assertThat(response.status(), equalTo(expectedStatus));
+            assertThat(response.body(), containsString(expectedStatus == 200 ? "\"OK\"" : "\"ERROR\""));
+        });
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.performance;
+
+import com.example.base.TestBase;
+import com.example.load.EndpointRequest;
+import com.example.load.LoadConfig;
+import com.example.load.ServiceMemorySampler;
+import com.example.load.StreamingPayload;
+import com.example.load.StreamingRequestSender;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.net.URI;
+import java.util.function.Supplier;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Многомегабайтные тела и раздутые заголовки без построения строк в памяти теста
+ * ({@link StreamingPayload} + {@link StreamingRequestSender}): время отказа, сколько байт сервис
+ * успел принять, рост его памяти и работоспособность после каждого запроса
+ */
+@Epic("Performance")
+@Feature("Large Payloads")
+@Tag("performance")
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class LargePayloadTest extends TestBase {
+
+    private StreamingRequestSender sender;
+    private ServiceMemorySampler memory;
+
+    @BeforeAll
+    void createSender() {
+        sender = new StreamingRequestSender(BASE_URL);
+        memory = ServiceMemorySampler.forPort(URI.create(BASE_URL).getPort());
+        System.out.println("=== [PAYLOAD] Service RSS sampling: "
+                + (memory.available() ? "pid " + memory.pid() : "unavailable") + " ===");
+    }
+
+    @BeforeEach
+    void stubExternalService() {
+        setupWireMockForSuccess();
+    }
+
+    @Test
+    @Tag("091")
+    @DisplayName("Многомегабайтный token в теле запроса: быстрый отказ без падения сервиса")
+    @Severity(CRITICAL)
+    void multiMegabyteTokenBody() {
+        Allure.description("Тело token=<N MB символов [0-9A-F]>&action=LOGIN генерируется при отправке. " +
+                "Сервис должен отказать (4xx или закрытие соединения) не дольше " + LoadConfig.maxRejectMillis() +
+                " мс, не обращаясь к внешнему сервису, и после этого обслуживать обычные запросы");
+
+        StringBuilder table = header();
+        try {
+            for (int sizeKb : LoadConfig.payloadSizesKb()) {
+                for (boolean chunked : new boolean[]{false, true}) {
+                    String name = sizeKb + " KB token" + (chunked ? ", chunked" : "");
+                    Allure.step(name, () -> {
+                        wireMockServer.resetRequests();
+                        ServiceMemorySampler.Sampled<StreamingRequestSender.Result> sampled = memory.during(() -> {
+                            StreamingRequestSender.Request request = sender.request()
+                                    .header("X-Api-Key", EndpointRequest.DEFAULT_API_KEY)
+                                    .body(StreamingPayload.tokenForm(sizeKb * 1024L, "LOGIN"));
+                            return (chunked ? request.chunked() : request).send();
+                        });
+                        row(table, name, sampled);
+                        verifyRejected(name, sampled.value());
+                        wireMockServer.verify(0, postRequestedFor(urlEqualTo("/auth")));
+                        verifyServiceStillServes();
+                    });
+                }
+            }
+        } finally {
+            attach(table);
+        }
+    }
+
+    @Test
+    @Tag("092")
+    @DisplayName("Раздутые заголовки: X-Api-Key и посторонний заголовок размером до мегабайт")
+    @Severity(CRITICAL)
+    void oversizedHeaders() {
+        Allure.description("Значения заголовков генерируются потоком. Раздутый X-Api-Key должен отклоняться " +
+                "(4xx или закрытие соединения); посторонний заголовок сервис вправе принять, если укладывается в свой " +
+                "лимит. 5xx недопустим ни в одном случае, сервис остается работоспособным");
+
+        StringBuilder table = header();
+        try {
+            for (int sizeKb : LoadConfig.headerSizesKb()) {
+                long size = sizeKb * 1024L;
+                check(table, sizeKb + " KB X-Api-Key", false, () -> sender.request()
+                        .header("X-Api-Key", StreamingPayload.repeat(EndpointRequest.DEFAULT_API_KEY, size))
+                        .body(StreamingPayload.fixed(EndpointRequest.of(generateToken(), "LOGIN").formBody()))
+                        .send());
+                check(table, sizeKb + " KB X-Padding", true, () -> sender.request()
+                        .header("X-Api-Key", EndpointRequest.DEFAULT_API_KEY)
+                        .header("X-Padding", StreamingPayload.repeat("p", size))
+                        .body(StreamingPayload.fixed(EndpointRequest.of(generateToken(), "LOGIN").formBody()))
+                        .send());
+            }
+        } finally {
+            attach(table);
+        }
+    }
+
+    private void check(StringBuilder table, String name, boolean mayPass, Supplier<StreamingRequestSender.Result> send) {
+        Allure.step(name, () -> {
+            ServiceMemorySampler.Sampled<StreamingRequestSender.Result> sampled = memory.during(send);
+            row(table, name, sampled);
+            StreamingRequestSender.Result result = sampled.value();
+            if (result.responded()) {
+                if (!mayPass) {
+                    assertThat(name + ": " + result, result.status(), is(not(200)));
+                }
+                assertThat(name + ": " + result, result.status(), lessThan(500));
+            } else {
+                assertThat(name + ": соединение висело вместо отказа " + result, result.closeMillis(),
+                        lessThanOrEqualTo((double) LoadConfig.maxRejectMillis()));
+            }
+            verifyServiceStillServes();
+        });
+    }
+
+    private static void verifyRejected(String name, StreamingRequestSender.Result result) {
+        Allure.addAttachment("Результат", "text/plain", result.toString());
+        if (result.responded()) {
+            assertThat(name + ": " + result, result.status(), allOf(greaterThanOrEqualTo(400), lessThan(500)));
+            assertThat(name + ": слишком долгий отказ " + result, result.firstByteMillis(),
+                    lessThanOrEqualTo((double) LoadConfig.maxRejectMillis()));
+        } else {
+            assertThat(name + ": соединение висело вместо отказа " + result, result.closeMillis(),
+                    lessThanOrEqualTo((double) LoadConfig.maxRejectMillis()));
+        }
+    }
+
+    private void verifyServiceStillServes() {
+        givenForMatrix()
+                .formParam("token", generateToken())
+                .formParam("action", "LOGIN")
+                .when()
+                .post("/endpoint")
+                .then()
+                .statusCode(200);
+    }
+
+    private static StringBuilder header() {
+        return new StringBuilder(String.format("%-26s %7s %12s %12s %14s %10s %10s %10s %12s%n",
+                "request", "status", "offered", "written", "at 1st byte", "reject,ms", "write,ms", "close,ms", "rss +KB"));
+    }
+
+    private static void row(StringBuilder table, String name,
+                            ServiceMemorySampler.Sampled<StreamingRequestSender.Result> sampled) {
+        StreamingRequestSender.Result r = sampled.value();
+        table.append(String.format("%-26s %7d %12d %12d %14d %10.1f %10.1f %10.1f %12s%n", name, r.status(),
+                r.bytesOffered(), r.bytesWritten(), r.bytesAtFirstByte(), r.firstByteMillis(), r.writeMillis(), r.closeMillis(),
+                sampled.growthKb() < 0 ? "n/a" : String.valueOf(sampled.growthKb())));
+        System.out.println("=== [PAYLOAD] " + name + ": " + r + " ===");
+    }
+
+    private static void attach(StringBuilder table) {
+        Allure.addAttachment("Большие запросы", "text/plain", table.toString());
+        System.out.println(table);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.performance;
+
+import com.example.base.TestBase;
+import com.example.load.HttpClientEndpointClient;
+import com.example.load.LatencyDecomposition;
+import com.example.load.LoadConfig;
+import com.example.load.LoadResult;
+import com.example.load.LoadRunner;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Epic("Performance")
+@Feature("Latency Decomposition")
+@Tag("performance")
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class LatencyDecompositionTest extends TestBase {
+
+    private static final int AUTH_DELAY_MILLIS = 100;
+
+    @BeforeEach
+    void requireInProcessMock() {
+        // Тест читает состояние upstreamTimeline в этой JVM
+        assumeInProcessMock();
+    }
+
+    @Test
+    @Tag("096")
+    @DisplayName("Разбиение задержки /endpoint на время сервиса до и после вызова и время внешнего API")
+    @Severity(NORMAL)
+    void decomposeLatencyIntoServiceAndUpstreamTime() {
+        Allure.description("Под нагрузкой сессиями LOGIN/ACTION/LOGOUT каждый запрос сопоставляется по token " +
+                "с приходом и уходом запросов сервиса в WireMock. /auth отвечает с задержкой " + AUTH_DELAY_MILLIS +
+                " мс: она должна оказаться во времени внешнего API LOGIN, а не во времени сервиса");
+
+        Allure.step("1. /auth с задержкой " + AUTH_DELAY_MILLIS + " мс, /doAction без задержки", () -> {
+            wireMockServer.stubFor(post("/auth").atPriority(1)
+                    .willReturn(okJson("{\"status\":\"ok\"}").withFixedDelay(AUTH_DELAY_MILLIS)));
+        });
+
+        LatencyDecomposition decomposition = new LatencyDecomposition(upstreamTimeline);
+        LoadResult result = Allure.step("2. Нагрузка с разбиением каждого запроса", () -> {
+            try (HttpClientEndpointClient client = HttpClientEndpointClient.keepAlive(BASE_URL, LoadConfig.poolSize())) {
+                return new LoadRunner(client).workers(LoadConfig.poolSize()).duration(LoadConfig.duration())
+                        .listener(decomposition).run();
+            } finally {
+                decomposition.close();
+            }
+        });
+
+        Allure.step("3. Разбивка по action", () -> {
+            Map<String, LatencyDecomposition.Breakdown> breakdown = decomposition.breakdown();
+            String table = LatencyDecomposition.Breakdown.formatTable(breakdown.values());
+            Allure.addAttachment("Разбивка задержки", "text/plain", result + "\n\n" + table);
+            System.out.println("=== [DECOMPOSITION] " + result + " ===\n" + table);
+
+            LatencyDecomposition.Breakdown login = breakdown.get("LOGIN");
+            LatencyDecomposition.Breakdown action = breakdown.get("ACTION");
+            LatencyDecomposition.Breakdown logout = breakdown.get("LOGOUT");
+            assertThat("Все действия сессии должны встретиться", breakdown.keySet(), hasItems("LOGIN", "ACTION", "LOGOUT"));
+            assertThat("LOGIN должен доходить до /auth", login.withUpstream(), is((long) login.count()));
+            assertThat("ACTION должен доходить до /doAction", action.withUpstream(), is((long) action.count()));
+            assertThat("LOGOUT не вызывает внешний API", logout.withUpstream(), is(0L));
+            assertThat("Задержка /auth должна попасть во время внешнего API",
+                    login.upstream().p50(), greaterThanOrEqualTo((double) AUTH_DELAY_MILLIS));
+            assertThat("Время сервиса до вызова не должно включать задержку /auth",
+                    login.pre().p50(), lessThan((double) AUTH_DELAY_MILLIS));
+            assertThat("Время /doAction без задержки", action.upstream().p50(), lessThan((double) AUTH_DELAY_MILLIS));
+        });
+    }
+}
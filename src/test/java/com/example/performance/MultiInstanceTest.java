@@ -0,0 +1,89 @@
+package com.example.performance;
+
+import com.example.base.TestBase;
+import com.example.load.BalancingEndpointClient;
+import com.example.load.HttpClientEndpointClient;
+import com.example.load.LoadConfig;
+import com.example.load.LoadResult;
+import com.example.load.LoadRunner;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Epic("Performance")
+@Feature("Multi-instance")
+@Tag("performance")
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MultiInstanceTest extends TestBase {
+
+    @Test
+    @Tag("102")
+    @DisplayName("Балансировка по экземплярам сервиса: статистика по узлам и разрывы привязки сессий")
+    @Severity(NORMAL)
+    void balanceAcrossInstancesAndDetectAffinityBreaks() {
+        List<String> targets = targets();
+        Assumptions.assumeTrue(targets.size() > 1,
+                "Need -Dload.targets with at least two instances (a single localhost target is aliased as 127.0.0.1)");
+        Allure.description("Сессии LOGIN/ACTION/LOGOUT распределяются по экземплярам " + targets + " тремя стратегиями. " +
+                "token-hash не должен разрывать привязку сессии к узлу, round-robin - разрывает и распределяет поровну. " +
+                "Ошибки только на разрывах значат, что сессии не разделяются между экземплярами");
+
+        List<LoadResult> results = new ArrayList<>();
+        StringBuilder report = new StringBuilder();
+        List<BalancingEndpointClient> clients = new ArrayList<>();
+        for (BalancingEndpointClient.Strategy strategy : BalancingEndpointClient.Strategy.values()) {
+            Allure.step("Нагрузка, балансировка " + strategy, () -> {
+                try (BalancingEndpointClient client = new BalancingEndpointClient(targets, strategy,
+                        target -> HttpClientEndpointClient.keepAlive(target, LoadConfig.poolSize()))) {
+                    results.add(new LoadRunner(client).workers(LoadConfig.poolSize()).duration(LoadConfig.duration()).run());
+                    clients.add(client);
+                    report.append(client.formatTable()).append('\n');
+                }
+            });
+        }
+        Allure.addAttachment("Статистика по узлам", "text/plain", LoadResult.formatTable(results) + "\n" + report);
+        System.out.println("=== [NODES] ===\n" + report);
+
+        Allure.step("Проверка привязки и распределения", () -> {
+            BalancingEndpointClient tokenHash = clients.get(BalancingEndpointClient.Strategy.TOKEN_HASH.ordinal());
+            BalancingEndpointClient roundRobin = clients.get(BalancingEndpointClient.Strategy.ROUND_ROBIN.ordinal());
+            assertThat("token-hash держит сессию на одном узле", tokenHash.affinityBreaks(), is(0L));
+            assertThat(tokenHash.sessionRequests(), greaterThan(0L));
+            assertThat("round-robin разносит запросы сессии по узлам", roundRobin.affinityBreaks(), greaterThan(0L));
+
+            long total = roundRobin.nodes().stream().mapToLong(BalancingEndpointClient.Node::requests).sum();
+            for (BalancingEndpointClient.Node node : roundRobin.nodes()) {
+                assertThat("Доля узла " + node.target() + " при round-robin", (double) node.requests() / total,
+                        closeTo(1.0 / targets.size(), 0.05));
+            }
+            for (BalancingEndpointClient client : clients) {
+                if (client.failedOnBreak() > 0) {
+                    System.out.println("=== [WARN] " + client.summary() + ": sessions are not shared between instances, "
+                            + "the balancer needs session affinity ===");
+                }
+            }
+        });
+    }
+
+    /**
+     * -Dload.targets; с одним экземпляром - два адреса одного сервиса (localhost и 127.0.0.1),
+     * чтобы проверить балансировку и учет разрывов без второго экземпляра
+     */
+    private static List<String> targets() {
+        List<String> targets = LoadConfig.targets();
+        if (targets.size() > 1) {
+            return targets;
+        }
+        String target = targets.get(0);
+        String alias = target.contains("localhost") ? target.replace("localhost", "127.0.0.1")
+                : target.replace("127.0.0.1", "localhost");
+        return alias.equals(target) ? targets : List.of(target, alias);
+    }
+}
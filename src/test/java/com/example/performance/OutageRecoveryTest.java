@@ -0,0 +1,65 @@
+package com.example.performance;
+
+import com.example.base.TestBase;
+import com.example.load.HttpClientEndpointClient;
+import com.example.load.LoadConfig;
+import com.example.load.OutageScenario;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Epic("Performance")
+@Feature("Outage Recovery")
+@Tag("performance")
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class OutageRecoveryTest extends TestBase {
+
+    @Test
+    @Tag("083")
+    @DisplayName("Время восстановления после отказов внешнего сервиса под постоянной нагрузкой")
+    @Severity(CRITICAL)
+    void recoveryTimeUnderSustainedLoad() {
+        Allure.description("Под постоянным потоком LOGIN/ACTION внешний сервис проходит окна отказа " +
+                "(/auth, /doAction, оба сразу). Для каждого окна измеряется время до первого успеха, " +
+                "время возврата к базовому p99 и потраченный бюджет ошибок");
+
+        Duration outage = LoadConfig.outageLength();
+        Duration recovery = outage.multipliedBy(2);
+
+        Allure.step("1. Настройка внешнего сервиса на успешный ответ", () -> {
+            setupWireMockForSuccess();
+            Allure.addAttachment("Параметры", "text/plain",
+                    "workers: " + LoadConfig.workers() + "\nокно отказа: " + outage + "\nвосстановление: " + recovery);
+        });
+
+        OutageScenario.Report report = Allure.step("2. Прогон с окнами отказа", () -> {
+            try (HttpClientEndpointClient client = HttpClientEndpointClient.keepAlive(BASE_URL, LoadConfig.poolSize())) {
+                return new OutageScenario(wireMockServer, client)
+                        .baseline(outage)
+                        .outage("auth down", outage, recovery, "/auth")
+                        .outage("doAction down", outage, recovery, "/doAction")
+                        .outage("both down", outage, recovery, "/auth", "/doAction")
+                        .run();
+            }
+        });
+
+        Allure.step("3. Анализ восстановления", () -> {
+            Allure.addAttachment("Восстановление", "text/plain", report.formatTable() +
+                    "\nup/req - вызовов внешнего сервиса на клиентский запрос: рост во время отказа " +
+                    "указывает на ретраи, падение после восстановления - на открытый circuit breaker");
+
+            for (OutageScenario.OutageResult result : report.outages()) {
+                assertThat("После '" + result.name() + "' должен быть успешный запрос",
+                        result.timeToFirstSuccessMillis(), greaterThanOrEqualTo(0.0));
+                assertThat("После '" + result.name() + "' задержки должны вернуться к базовым",
+                        result.timeToBaselineP99Millis(), greaterThanOrEqualTo(0.0));
+            }
+        });
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.performance;
+
+import com.example.base.TestBase;
+import com.example.load.EndpointRequest;
+import com.example.load.EndpointResponse;
+import com.example.load.HttpClientEndpointClient;
+import com.example.load.JunkTraffic;
+import com.example.load.LatencyStats;
+import com.example.load.LoadConfig;
+import com.example.load.LoadResult;
+import com.example.load.LoadRunner;
+import com.example.mock.StatefulExternalService;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Epic("Performance")
+@Feature("Rejection Path")
+@Tag("performance")
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class RejectionPathTest extends TestBase {
+
+    @Test
+    @Tag("103")
+    @DisplayName("Пропускная способность отказов на мусорных запросах и их влияние на легитимные сессии")
+    @Severity(CRITICAL)
+    void rejectJunkCheaplyWithoutDegradingLegitimateSessions() {
+        int junkWorkers = LoadConfig.junkWorkers();
+        Allure.description("Сравнение стоимости отказа (неверный X-Api-Key, испорченный token, невалидный action) " +
+                "со стоимостью валидного LOGIN: отказ не должен быть дороже LOGIN. Затем легитимные сессии под потоком " +
+                "мусора из " + junkWorkers + " потоков: p99 не должен вырасти больше чем в " + LoadConfig.junkMaxP99Factor() +
+                " раза (или выйти за SLO), доля ошибок - в пределах SLO");
+
+        Allure.step("1. Настройка внешнего сервиса на успешный ответ", () -> {
+            setupWireMockForSuccess();
+        });
+
+        LatencyStats login = new LatencyStats();
+        LoadResult baseline = Allure.step("2. Легитимные сессии без мусора", () -> measure("baseline", login));
+
+        Map<JunkTraffic.Category, Long> upstream = new EnumMap<>(JunkTraffic.Category.class);
+        JunkTraffic.Stats junkOnly = Allure.step("3. Только мусорный трафик", () -> {
+            wireMockServer.resetRequests();
+            try (HttpClientEndpointClient client = HttpClientEndpointClient.keepAlive(BASE_URL, junkWorkers)) {
+                // Поток останавливается до подсчета визитов, в том числе при прерывании
+                JunkTraffic junk = new JunkTraffic(client, junkWorkers).runFor(LoadConfig.duration());
+                upstream.putAll(upstreamCalls(junk, wireMockServer.getAllServeEvents()));
+                return junk.stats();
+            }
+        });
+
+        JunkTraffic.Stats[] alongside = new JunkTraffic.Stats[1];
+        LoadResult mixed = Allure.step("4. Легитимные сессии под потоком мусора", () -> {
+            try (HttpClientEndpointClient client = HttpClientEndpointClient.keepAlive(BASE_URL, junkWorkers);
+                 JunkTraffic junk = new JunkTraffic(client, junkWorkers).start()) {
+                LoadResult result = measure("with junk x" + junkWorkers, new LatencyStats());
+                alongside[0] = junk.stats();
+                return result.withExtra("junk", alongside[0].toString());
+            }
+        });
+
+        Allure.step("5. Сравнение", () -> {
+            LatencyStats.Snapshot valid = login.snapshot();
+            String report = String.format("valid LOGIN: %d req, p50=%.2fms p99=%.2fms%n%n", valid.count(), valid.p50(), valid.p99())
+                    + junkOnly.formatTable(upstream) + "\n" + LoadResult.formatTable(List.of(baseline, mixed))
+                    + "\njunk alongside sessions: " + alongside[0];
+            Allure.addAttachment("Отказы и легитимный трафик", "text/plain", report);
+            System.out.println("=== [REJECT] ===\n" + report);
+            if (junkOnly.accepted() > 0) {
+                System.out.println("=== [WARN] Service answered OK to " + junkOnly.accepted() + " junk requests, see ApiKeyTest "
+                        + "and TokenValidationTest ===");
+            }
+
+            assertThat("Мусорные запросы должны отклоняться", junkOnly.requests() - junkOnly.accepted(), greaterThan(0L));
+            assertThat("Отказ не дороже валидного LOGIN (p50): " + junkOnly,
+                    junkOnly.latency().p50(), lessThanOrEqualTo(valid.p50()));
+
+            double allowedP99 = Math.max(baseline.latency().p99() * LoadConfig.junkMaxP99Factor(), LoadConfig.sloP99Millis());
+            assertThat("Мусор не должен выбивать легитимные сессии: " + mixed,
+                    mixed.errorRate(), lessThanOrEqualTo(LoadConfig.sloMaxErrorRate()));
+            assertThat("p99 легитимных сессий рядом с мусором: " + mixed,
+                    mixed.latency().p99(), lessThanOrEqualTo(allowedP99));
+        });
+    }
+
+    private LoadResult measure(String name, LatencyStats login) {
+        return LoadRunner.measureKeepAlive(BASE_URL, "REJECT", name, (EndpointRequest request, EndpointResponse response) -> {
+            if ("LOGIN".equals(request.action())) {
+                login.record(response.latencyNanos());
+            }
+        });
+    }
+
+    /**
+     * Запросы сервиса к внешнему API по категориям мусора: отказ без вызова /auth и /doAction - 0
+     */
+    private static Map<JunkTraffic.Category, Long> upstreamCalls(JunkTraffic junk, List<ServeEvent> events) {
+        Map<JunkTraffic.Category, Long> calls = new EnumMap<>(JunkTraffic.Category.class);
+        for (JunkTraffic.Category category : JunkTraffic.Category.values()) {
+            calls.put(category, 0L);
+        }
+        for (ServeEvent event : events) {
+            JunkTraffic.Category category = junk.categoryOf(
+                    StatefulExternalService.formParam(event.getRequest().getBodyAsString(), "token"));
+            if (category != null) {
+                calls.merge(category, 1L, Long::sum);
+            }
+        }
+        return calls;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.performance;
+
+import com.example.base.TestBase;
+import com.example.load.HttpClientEndpointClient;
+import com.example.load.LoadConfig;
+import com.example.load.LoadResult;
+import com.example.load.LoadRunner;
+import com.example.load.RequestLogReplayer;
+import com.example.load.RequestLogWriter;
+import com.example.utils.RunSeed;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Epic("Performance")
+@Feature("Deterministic Replay")
+@Tag("performance")
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ReplayTest extends TestBase {
+
+    @Test
+    @Tag("078")
+    @DisplayName("Запись нагрузочного прогона и воспроизведение в исходном и ускоренном темпе")
+    @Severity(NORMAL)
+    void recordAndReplayLoadRun() {
+        Allure.description("Прогон записывается в бинарный журнал и воспроизводится: " +
+                "количество запросов и статус каждого ответа должны совпасть с записью " +
+                "(запросы одного token воспроизводятся в порядке отправки)");
+
+        Path file = Path.of("target", "recordings", "replay-test-" + RunSeed.seed() + ".bin");
+
+        Allure.step("1. Настройка внешнего сервиса на успешный ответ", () -> {
+            setupWireMockForSuccess();
+            Allure.addAttachment("Seed прогона", "text/plain", String.valueOf(RunSeed.seed()));
+        });
+
+        try (HttpClientEndpointClient client = HttpClientEndpointClient.keepAlive(BASE_URL, LoadConfig.poolSize())) {
+            long recorded = Allure.step("2. Запись прогона", () -> {
+                try (RequestLogWriter log = new RequestLogWriter(file, RunSeed.seed())) {
+                    LoadResult result = new LoadRunner(client).recordTo(log).run();
+                    Allure.addAttachment("Запись", "text/plain", result + "\nфайл: " + file.toAbsolutePath());
+                    return log.entries();
+                }
+            });
+
+            RequestLogReplayer originalReplayer = new RequestLogReplayer(client).speed(1);
+            LoadResult original = Allure.step("3. Воспроизведение в исходном темпе", () ->
+                    originalReplayer.replay(file));
+
+            RequestLogReplayer fasterReplayer = new RequestLogReplayer(client).speed(LoadConfig.replaySpeed());
+            LoadResult faster = Allure.step("4. Ускоренное воспроизведение x" + LoadConfig.replaySpeed(), () ->
+                    fasterReplayer.replay(file));
+
+            Allure.step("5. Сравнение с записью", () -> {
+                Allure.addAttachment("Сравнение", "text/plain", LoadResult.formatTable(List.of(original, faster)));
+
+                assertThat(original.requests(), equalTo(recorded));
+                assertThat(faster.requests(), equalTo(recorded));
+                assertThat("Статусы при воспроизведении в исходном темпе: " + original,
+                        originalReplayer.mismatches(), equalTo(0L));
+                assertThat("Статусы при ускоренном воспроизведении: " + faster,
+                        fasterReplayer.mismatches(), equalTo(0L));
+            });
+        }
+    }
+
+    @Test
+    @Tag("079")
+    @DisplayName("Воспроизведение журнала, заданного через -Dload.replayFile")
+    @Severity(MINOR)
+    void replayGivenRecording() {
+        Assumptions.assumeTrue(LoadConfig.replayFile() != null, "-Dload.replayFile не задан");
+        Path file = Path.of(LoadConfig.replayFile());
+
+        Allure.step("1. Настройка внешнего сервиса на успешный ответ", this::setupWireMockForSuccess);
+
+        Allure.step("2. Воспроизведение " + file.getFileName() + " x" + LoadConfig.replaySpeed(), () -> {
+            try (HttpClientEndpointClient client = HttpClientEndpointClient.keepAlive(BASE_URL, LoadConfig.poolSize())) {
+                LoadResult result = new RequestLogReplayer(client).speed(LoadConfig.replaySpeed()).replay(file);
+                Allure.addAttachment("Результат", "text/plain", LoadResult.formatTable(List.of(result)));
+            }
+        });
+    }
+}
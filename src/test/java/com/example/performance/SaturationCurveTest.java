@@ -0,0 +1,55 @@
+package com.example.performance;
+
+import com.example.base.TestBase;
+import com.example.load.HttpClientEndpointClient;
+import com.example.load.LoadConfig;
+import com.example.load.SaturationCurveFinder;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.nio.file.Path;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Epic("Performance")
+@Feature("Saturation Curve")
+@Tag("performance")
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class SaturationCurveTest extends TestBase {
+
+    @Test
+    @Tag("086")
+    @DisplayName("Поиск максимальной устойчивой нагрузки /endpoint при SLO на p99")
+    @Severity(CRITICAL)
+    void findKneePointUnderP99Slo() {
+        Allure.description("Ступенчатый рост предлагаемой нагрузки (открытый цикл сессий LOGIN/ACTION/LOGOUT) " +
+                "до нарушения SLO и бинарный поиск границы. Кривая задержка/пропускная способность " +
+                "сохраняется в CSV и прикладывается к отчету");
+
+        Allure.step("1. Настройка внешнего сервиса на успешный ответ", () -> {
+            setupWireMockForSuccess();
+            Allure.addAttachment("SLO", "text/plain",
+                    "p99 <= " + LoadConfig.sloP99Millis() + "ms\nошибок <= " + LoadConfig.sloMaxErrorRate() * 100 + "%");
+        });
+
+        SaturationCurveFinder.Curve curve = Allure.step("2. Поиск точки насыщения", () -> {
+            int connections = LoadConfig.openLoopWorkers();
+            try (HttpClientEndpointClient client = HttpClientEndpointClient.keepAlive(BASE_URL, connections)) {
+                return new SaturationCurveFinder(client).find();
+            }
+        });
+
+        Allure.step("3. Кривая задержка/пропускная способность", () -> {
+            Path csv = curve.writeCsv(Path.of("target", "saturation-curve.csv"));
+            Allure.addAttachment("saturation-curve.csv", "text/csv", curve.toCsv(), ".csv");
+            Allure.addAttachment("Вывод", "text/plain", String.format(
+                    "Максимальная устойчивая нагрузка: %.1f req/s%nCSV: %s", curve.maxSustainableThroughput(), csv.toAbsolutePath()));
+
+            assertThat("SLO должен выполняться хотя бы на начальной нагрузке",
+                    curve.maxSustainableThroughput(), greaterThan(0.0));
+        });
+    }
+}
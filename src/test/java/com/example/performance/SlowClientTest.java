@@ -0,0 +1,78 @@
+package com.example.performance;
+
+import com.example.base.TestBase;
+import com.example.load.LoadConfig;
+import com.example.load.LoadResult;
+import com.example.load.LoadRunner;
+import com.example.load.SlowClientSwarm;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.Duration;
+import java.util.List;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Epic("Performance")
+@Feature("Slow Clients")
+@Tag("performance")
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class SlowClientTest extends TestBase {
+
+    @ParameterizedTest
+    @EnumSource(SlowClientSwarm.Mode.class)
+    @Tag("093")
+    @DisplayName("Обычный трафик LOGIN/ACTION под давлением медленных клиентов: {arguments}")
+    @Severity(CRITICAL)
+    void normalTrafficUnderSlowClientPressure(SlowClientSwarm.Mode mode) {
+        int slowClients = LoadConfig.slowClients();
+        Duration interval = LoadConfig.slowClientInterval();
+        Allure.description("Замер задержки обычных сессий без помех, затем " + slowClients + " медленных соединений " +
+                "(" + mode + ": по байту раз в " + interval.toMillis() + " мс) и тот же замер под их давлением. " +
+                "p99 не должен вырасти больше чем в " + LoadConfig.slowClientMaxP99Factor() + " раза (или выйти за SLO), " +
+                "доля ошибок - в пределах SLO");
+
+        Allure.step("1. Настройка внешнего сервиса на успешный ответ", () -> {
+            setupWireMockForSuccess();
+        });
+
+        LoadResult baseline = Allure.step("2. Обычный трафик без медленных клиентов", () -> measure("baseline"));
+
+        SlowClientSwarm.Stats[] pressure = new SlowClientSwarm.Stats[1];
+        LoadResult loaded = Allure.step("3. Обычный трафик под давлением медленных клиентов", () -> {
+            try (SlowClientSwarm swarm = new SlowClientSwarm(BASE_URL, mode, slowClients, interval).start()) {
+                boolean allOpen = swarm.awaitOpen(slowClients, Duration.ofSeconds(30));
+                System.out.println("=== [SLOW] " + swarm.stats() + (allOpen ? "" : " (not all connections opened)") + " ===");
+                LoadResult result = measure(mode + " x" + slowClients);
+                pressure[0] = swarm.stats();
+                return result.withExtra("slow clients", pressure[0].toString());
+            }
+        });
+
+        Allure.step("4. Сравнение", () -> {
+            Allure.addAttachment("Результаты", "text/plain", LoadResult.formatTable(List.of(baseline, loaded)));
+            Allure.addAttachment("Медленные клиенты", "text/plain", pressure[0].toString());
+            System.out.println("=== [SLOW] " + pressure[0] + " ===");
+
+            if (mode == SlowClientSwarm.Mode.BODY) {
+                assertThat("Соединения BODY должны дойти до тела запроса: " + pressure[0],
+                        pressure[0].bodiesStarted(), greaterThan(0L));
+            }
+            double allowedP99 = Math.max(baseline.latency().p99() * LoadConfig.slowClientMaxP99Factor(),
+                    LoadConfig.sloP99Millis());
+            assertThat("Медленные соединения не должны выбивать обычные запросы: " + loaded,
+                    loaded.errorRate(), lessThanOrEqualTo(LoadConfig.sloMaxErrorRate()));
+            assertThat("p99 обычного трафика под давлением: " + loaded,
+                    loaded.latency().p99(), lessThanOrEqualTo(allowedP99));
+        });
+    }
+
+    private LoadResult measure(String name) {
+        return LoadRunner.measureKeepAlive(BASE_URL, "SLOW", name);
+    }
+}
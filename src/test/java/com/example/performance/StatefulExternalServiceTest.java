@@ -0,0 +1,86 @@
+package com.example.performance;
+
+import com.example.base.TestBase;
+import com.example.load.HttpClientEndpointClient;
+import com.example.load.LoadConfig;
+import com.example.load.LoadResult;
+import com.example.load.LoadRunner;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Epic("Performance")
+@Feature("Stateful External Service")
+@Tag("performance")
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class StatefulExternalServiceTest extends TestBase {
+
+    @BeforeEach
+    void requireInProcessMock() {
+        // Тест читает состояние externalService в этой JVM
+        assumeInProcessMock();
+    }
+
+    @Test
+    @Tag("084")
+    @DisplayName("Сессионный workflow под нагрузкой против внешнего сервиса с собственной таблицей сессий")
+    @Severity(NORMAL)
+    void sessionWorkflowAgainstStatefulExternalService() {
+        Allure.description("Внешний сервис ведет свою таблицу сессий: /doAction без предшествующего /auth " +
+                "получает 401. Под нагрузкой сервис не должен вызывать /doAction для токенов без сессии");
+
+        Allure.step("1. Подключение внешнего сервиса с состоянием", () -> externalService.install(wireMockServer));
+
+        LoadResult result = Allure.step("2. Нагрузочный прогон сессий", () -> {
+            try (HttpClientEndpointClient client = HttpClientEndpointClient.keepAlive(BASE_URL, LoadConfig.poolSize())) {
+                return new LoadRunner(client).run();
+            }
+        });
+
+        Allure.step("3. Проверка состояния внешнего сервиса", () -> {
+            Allure.addAttachment("Нагрузка", "text/plain", LoadResult.formatTable(List.of(result)));
+            Allure.addAttachment("Внешний сервис", "text/plain", externalService.summary());
+
+            assertThat(result.errors(), equalTo(0L));
+            assertThat("/doAction не должен вызываться без сессии", externalService.unauthorized(), equalTo(0L));
+            assertThat(externalService.sessions(), greaterThan(0));
+        });
+    }
+
+    @Test
+    @Tag("085")
+    @DisplayName("Квоты внешнего сервиса и 429 с Retry-After под нагрузкой")
+    @Severity(NORMAL)
+    @Tag("rate-limit")
+    void quotaExhaustionWithRetryAfterUnderLoad() {
+        Allure.description("Внешний сервис разрешает 5 вызовов на токен в секунду и отвечает 429 с Retry-After: 2 " +
+                "при превышении. Проверяется, как сервис передает 429 клиентам и соблюдает ли он back-off");
+
+        Allure.step("1. Подключение внешнего сервиса с квотой", () -> {
+            externalService.install(wireMockServer);
+            externalService.quota(5, Duration.ofSeconds(1), Duration.ofSeconds(2));
+            Allure.addAttachment("Квота", "text/plain", "5 вызовов / 1s на токен, Retry-After: 2s");
+        });
+
+        LoadResult result = Allure.step("2. Нагрузочный прогон с 8 ACTION на сессию", () -> {
+            try (HttpClientEndpointClient client = HttpClientEndpointClient.keepAlive(BASE_URL, LoadConfig.poolSize())) {
+                return new LoadRunner(client).actionsPerSession(8).run();
+            }
+        });
+
+        Allure.step("3. Анализ ответов", () -> {
+            Allure.addAttachment("Нагрузка", "text/plain", LoadResult.formatTable(List.of(result)));
+            Allure.addAttachment("Внешний сервис", "text/plain", externalService.summary());
+
+            assertThat("Квота должна срабатывать", externalService.rateLimited(), greaterThan(0L));
+            assertThat("429 от внешнего сервиса должны доходить до клиента ошибками", result.errors(), greaterThan(0L));
+        });
+    }
+}
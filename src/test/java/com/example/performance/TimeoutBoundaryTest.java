@@ -0,0 +1,110 @@
+package com.example.performance;
+
+import com.example.base.TestBase;
+import com.example.load.HttpClientEndpointClient;
+import com.example.load.LoadConfig;
+import com.example.load.LoadRunner;
+import com.example.load.TimeoutBoundaryFinder;
+import com.example.mock.VirtualTimeDelays;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Epic("Performance")
+@Feature("Timeout Boundaries")
+@Tag("performance")
+@Tag("load")
+@Tag("timeouts")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TimeoutBoundaryTest extends TestBase {
+
+    @BeforeEach
+    void requireInProcessMock() {
+        // Тест читает состояние virtualDelays в этой JVM и перезапускает wireMockServer на том же порту
+        assumeInProcessMock();
+        Assumptions.assumeTrue(VirtualTimeDelays.detectsDisconnects(), "No /proc/net/tcp: service disconnects are not detected");
+    }
+
+    @Test
+    @Tag("090")
+    @DisplayName("Фактические read/connect таймауты клиента сервиса к внешнему сервису и их дрейф под нагрузкой")
+    @Severity(CRITICAL)
+    void discoverUpstreamTimeoutBoundaries() {
+        Allure.description("Read timeout /auth и /doAction измеряется по разрыву удерживаемых соединений, " +
+                "затем уточняется бисекцией по моменту ответа. Тот же таймаут измеряется под фоновой нагрузкой " +
+                "(дрейф не должен превышать " + LoadConfig.timeoutMaxDriftMillis() + " мс). Connect timeout - " +
+                "на порту WireMock с заполненной очередью accept");
+
+        List<TimeoutBoundaryFinder.Measurement> measurements = new ArrayList<>();
+        int probes = LoadConfig.timeoutProbes();
+
+        Allure.step("1. Настройка внешнего сервиса на успешный ответ (кроме проб HOLD*)", () -> {
+            setupWireMockForSuccess();
+        });
+
+        try (HttpClientEndpointClient client = HttpClientEndpointClient.keepAlive(BASE_URL, probes * 2)) {
+            TimeoutBoundaryFinder finder = new TimeoutBoundaryFinder(wireMockServer, virtualDelays, client);
+
+            TimeoutBoundaryFinder.Measurement auth = Allure.step("2. Read timeout /auth без нагрузки", () -> {
+                TimeoutBoundaryFinder.Measurement measurement = finder.readTimeout("/auth");
+                measurements.add(measurement);
+                assertThat("Сервис не сдался ни по одной пробе /auth: " + measurement,
+                        measurement.measured(), is(true));
+                assertThat("Проба /auth завершилась успехом при удержанном ответе", measurement.succeeded(), is(0));
+                return measurement;
+            });
+
+            Allure.step("3. Read timeout /doAction без нагрузки", () -> {
+                TimeoutBoundaryFinder.Measurement measurement = finder.readTimeout("/doAction");
+                measurements.add(measurement);
+                assertThat("Сервис не сдался ни по одной пробе /doAction: " + measurement,
+                        measurement.measured(), is(true));
+            });
+
+            Allure.step("4. Граница read timeout /auth бисекцией", () -> {
+                TimeoutBoundaryFinder.Boundary boundary = finder.searchReadBoundary("/auth", auth);
+                Allure.addAttachment("Граница", "text/plain", boundary.toString());
+                System.out.println("=== [TIMEOUT] " + boundary + " ===");
+                assertThat("Ответ задолго до измеренного таймаута должен приниматься: " + boundary,
+                        boundary.lastAcceptedMillis(), greaterThan(auth.min() / 2));
+                assertThat("Граница должна совпадать с моментом разрыва: " + boundary,
+                        boundary.firstRejectedMillis(), greaterThanOrEqualTo(auth.min() - 50));
+            });
+
+            Allure.step("5. Read timeout /auth под фоновой нагрузкой", () -> {
+                try (HttpClientEndpointClient background = HttpClientEndpointClient.keepAlive(BASE_URL, LoadConfig.poolSize())) {
+                    Duration length = Duration.ofMillis((long) auth.max()).plusSeconds(3);
+                    LoadRunner load = new LoadRunner(background).workers(LoadConfig.workers()).duration(length);
+                    TimeoutBoundaryFinder.Measurement loaded = finder.readTimeoutUnderLoad("/auth", load);
+                    measurements.add(loaded);
+                    Allure.addAttachment("Фоновая нагрузка", "text/plain", String.valueOf(loaded.background()));
+
+                    // Пробы, не дошедшие до WireMock, застряли в очереди сервиса - это тоже результат
+                    if (loaded.measured()) {
+                        assertThat("Дрейф read timeout под нагрузкой: " + loaded,
+                                Math.abs(loaded.avg() - auth.avg()),
+                                lessThanOrEqualTo((double) LoadConfig.timeoutMaxDriftMillis()));
+                    }
+                }
+            });
+
+            Allure.step("6. Connect timeout к внешнему сервису", () -> {
+                TimeoutBoundaryFinder.Measurement connect = finder.connectTimeout();
+                measurements.add(connect);
+                assertThat("Сервис не сдался ни по одной пробе соединения: " + connect,
+                        connect.measured(), is(true));
+            });
+        } finally {
+            String table = TimeoutBoundaryFinder.Measurement.formatTable(measurements);
+            Allure.addAttachment("Таймауты", "text/plain", table);
+            System.out.println(table);
+        }
+    }
+}
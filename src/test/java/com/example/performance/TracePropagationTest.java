@@ -0,0 +1,122 @@
+package com.example.performance;
+
+import com.example.base.TestBase;
+import com.example.load.HttpClientEndpointClient;
+import com.example.load.LoadConfig;
+import com.example.load.LoadResult;
+import com.example.load.LoadRunner;
+import com.example.mock.UpstreamTimeline;
+import com.example.tracing.TraceCollector;
+import com.example.tracing.TraceContext;
+import com.example.utils.TestDataGenerator;
+import io.qameta.allure.*;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Epic("Performance")
+@Feature("Trace Propagation")
+@Tag("performance")
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TracePropagationTest extends TestBase {
+
+    private static final Path TRACES = Path.of("target", "traces");
+    private static final int SLOWEST = 5;
+
+    @BeforeEach
+    void requireInProcessMock() {
+        // Тест читает состояние upstreamTimeline в этой JVM
+        assumeInProcessMock();
+    }
+
+    @Test
+    @Tag("097")
+    @DisplayName("Пересылка traceparent сервисом в /auth и /doAction и деревья спанов под нагрузкой")
+    @Severity(NORMAL)
+    void propagateTraceContextAndAttributeHopLatency() throws IOException {
+        Allure.description("Каждый запрос к /endpoint уходит с новым traceparent. WireMock фиксирует, с каким " +
+                "traceparent сервис пришел в /auth и /doAction: тем же трейсом (PROPAGATED), новым (NEW_TRACE) или без " +
+                "него (NOT_FORWARDED). По каждому запросу строится дерево спанов с временем каждого визита; " +
+                "самые медленные разбираются по шагам, все деревья выгружаются в формате Zipkin v2. " +
+                "Отсутствие пересылки - находка, а не падение (строго: -Dtracing.requirePropagation=true)");
+
+        String token = TestDataGenerator.generateValidToken();
+        TraceContext login = TraceContext.newRoot();
+        TraceCollector single = new TraceCollector(upstreamTimeline);
+
+        Allure.step("1. LOGIN с заданным traceparent " + login.traceparent(), () -> {
+            long start = System.nanoTime();
+            Response response = given()
+                    .header(TraceContext.HEADER, login.traceparent())
+                    .formParam("token", token)
+                    .formParam("action", "LOGIN")
+                    .post("/endpoint");
+            single.record(login, token, "LOGIN", response.statusCode(), start, System.nanoTime());
+            assertThat("LOGIN должен пройти", response.statusCode(), is(200));
+        });
+
+        Allure.step("2. Что пришло в /auth", () -> {
+            List<UpstreamTimeline.Visit> visits = upstreamTimeline.visits(token);
+            List<TraceCollector.Trace> traces = single.traces();
+            String report = "client: " + login.traceparent() + "\n"
+                    + visits.stream().map(v -> v.url() + ": " + v.traceparent()).reduce("", (a, b) -> a + b + "\n")
+                    + "\n" + TraceCollector.propagation(traces) + "\n\n" + TraceCollector.slowest(traces, 1);
+            Allure.addAttachment("Пересылка traceparent", "text/plain", report);
+            System.out.println("=== [TRACE] Single LOGIN ===\n" + report);
+
+            assertThat("Сервис должен сходить в /auth", visits, hasSize(greaterThanOrEqualTo(1)));
+            assertThat("Визит должен попасть в дерево запроса", traces.get(0).hops(), is(visits.size()));
+            if (Boolean.getBoolean("tracing.requirePropagation")) {
+                assertThat("Сервис должен переслать trace id клиента",
+                        TraceCollector.propagation(traces).get(TraceCollector.Propagation.PROPAGATED), is((long) visits.size()));
+            }
+        });
+        single.close();
+
+        TraceCollector collector = new TraceCollector(upstreamTimeline);
+        LoadResult result = Allure.step("3. Нагрузка с traceparent на каждом запросе", () -> {
+            try (HttpClientEndpointClient client = HttpClientEndpointClient.keepAlive(BASE_URL, LoadConfig.poolSize())) {
+                return new LoadRunner(client).workers(LoadConfig.poolSize()).duration(LoadConfig.duration())
+                        .listener(collector).run();
+            } finally {
+                collector.close();
+            }
+        });
+
+        Allure.step("4. Деревья спанов, разбор медленных запросов и выгрузка", () -> {
+            List<TraceCollector.Trace> traces = collector.traces();
+            Map<TraceCollector.Propagation, Long> propagation = TraceCollector.propagation(traces);
+            String slowest = TraceCollector.slowest(traces, SLOWEST);
+            Path file = collector.exportZipkin(traces, TRACES.resolve("trace-propagation-" + System.currentTimeMillis() + ".json"));
+            long spans = traces.stream().mapToLong(t -> t.spans().size()).sum();
+
+            String report = result + "\n" + traces.size() + " traces, " + spans + " spans, upstream hops " + propagation
+                    + "\nfile: " + file.toAbsolutePath() + "\n\n" + slowest;
+            Allure.addAttachment("Распространение контекста и медленные запросы", "text/plain", report);
+            try (InputStream data = Files.newInputStream(file)) {
+                Allure.addAttachment("Трейсы (Zipkin v2)", "application/json", data, ".json");
+            }
+            System.out.println("=== [TRACE] " + report + " ===");
+
+            assertThat("Каждый запрос нагрузки должен получить трейс", (long) traces.size(), is(result.requests()));
+            assertThat("В файле не меньше спанов, чем запросов", spans, greaterThanOrEqualTo(result.requests()));
+            assertThat("Визиты к внешнему API должны привязаться к запросам",
+                    propagation.values().stream().mapToLong(Long::longValue).sum(), greaterThan(0L));
+            if (Boolean.getBoolean("tracing.requirePropagation")) {
+                assertThat("Все визиты должны продолжать трейс клиента", propagation.get(TraceCollector.Propagation.NOT_FORWARDED)
+                        + propagation.get(TraceCollector.Propagation.NEW_TRACE), is(0L));
+            }
+        });
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.performance;
+
+import com.example.base.TestBase;
+import com.example.load.AccessLogConverter;
+import com.example.load.HttpClientEndpointClient;
+import com.example.load.LoadConfig;
+import com.example.load.LoadResult;
+import com.example.load.RequestLogReplayer;
+import com.example.utils.RunSeed;
+import com.example.utils.TestDataGenerator;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Epic("Performance")
+@Feature("Traffic Replay")
+@Tag("performance")
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class TrafficReplayTest extends TestBase {
+
+    private static final Path RECORDINGS = Path.of("target", "recordings");
+
+    @Test
+    @Tag("080")
+    @DisplayName("Конвертация access лога и ускоренное воспроизведение production-подобного трафика")
+    @Severity(NORMAL)
+    void convertAndReplaySyntheticAccessLog() throws IOException {
+        Allure.description("Синтетический access лог в production формате (сессии, мусорные запросы, " +
+                "неверные ключи) анонимизируется, конвертируется в бинарный журнал и воспроизводится " +
+                "с ускорением x" + LoadConfig.replaySpeed());
+
+        Path accessLog = RECORDINGS.resolve("synthetic-access-" + RunSeed.seed() + ".csv");
+        Path journal = RECORDINGS.resolve("synthetic-access-" + RunSeed.seed() + ".bin");
+
+        int lines = Allure.step("1. Генерация синтетического access лога", () -> writeSyntheticAccessLog(accessLog, 500));
+
+        long converted = Allure.step("2. Анонимизация и конвертация в бинарный журнал", () -> {
+            long count = new AccessLogConverter("prod-secret-key").convert(accessLog, journal);
+            Allure.addAttachment("Журнал", "text/plain",
+                    count + " записей, " + Files.size(journal) + " байт\n" + journal.toAbsolutePath());
+            return count;
+        });
+
+        Allure.step("3. Настройка внешнего сервиса на успешный ответ", this::setupWireMockForSuccess);
+
+        LoadResult result = Allure.step("4. Воспроизведение через memory-mapped чтение", () -> {
+            try (HttpClientEndpointClient client = HttpClientEndpointClient.keepAlive(BASE_URL, LoadConfig.poolSize())) {
+                return new RequestLogReplayer(client).speed(LoadConfig.replaySpeed()).replay(journal);
+            }
+        });
+
+        Allure.step("5. Проверка результата", () -> {
+            Allure.addAttachment("Результат", "text/plain", LoadResult.formatTable(List.of(result)));
+
+            assertThat(converted, equalTo((long) lines));
+            assertThat(result.requests(), equalTo(converted));
+        });
+    }
+
+    @Test
+    @Tag("081")
+    @DisplayName("Воспроизведение production access лога, заданного через -Dload.accessLog")
+    @Severity(MINOR)
+    void replayProductionAccessLog() {
+        Assumptions.assumeTrue(LoadConfig.accessLog() != null, "-Dload.accessLog не задан");
+        Path accessLog = Path.of(LoadConfig.accessLog());
+        Path journal = RECORDINGS.resolve(accessLog.getFileName() + ".bin");
+
+        Allure.step("1. Анонимизация и конвертация " + accessLog.getFileName(), () -> {
+            long count = new AccessLogConverter(LoadConfig.productionApiKey()).convert(accessLog, journal);
+            Allure.addAttachment("Журнал", "text/plain", count + " записей\n" + journal.toAbsolutePath());
+        });
+
+        Allure.step("2. Настройка внешнего сервиса на успешный ответ", this::setupWireMockForSuccess);
+
+        Allure.step("3. Воспроизведение x" + LoadConfig.replaySpeed(), () -> {
+            try (HttpClientEndpointClient client = HttpClientEndpointClient.keepAlive(BASE_URL, LoadConfig.poolSize())) {
+                LoadResult result = new RequestLogReplayer(client).speed(LoadConfig.replaySpeed()).replay(journal);
+                Allure.addAttachment("Результат", "text/plain", LoadResult.formatTable(List.of(result)));
+            }
+        });
+    }
+
+    /**
+     * Сессии LOGIN → ACTION → LOGOUT вперемешку с мусорными запросами, интервалы 0-20ms
+     */
+    private int writeSyntheticAccessLog(Path file, int lines) throws IOException {
+        Files.createDirectories(file.getParent());
+        Random random = RunSeed.random("synthetic-access-log");
+        List<String> invalidActions = TestDataGenerator.generateInvalidActions();
+        long millis = System.currentTimeMillis();
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            int written = 0;
+            while (written < lines) {
+                millis += random.nextInt(20);
+                if (random.nextInt(4) == 0) {
+                    String action = invalidActions.get(random.nextInt(invalidActions.size())).replace(",", "");
+                    String apiKey = random.nextBoolean() ? "prod-secret-key" : "wrong-key";
+                    writer.write(millis + "," + TestDataGenerator.generateWrongLengthToken(31, random) + "," +
+                            action.replace("\0", "") + "," + apiKey + "\n");
+                    written++;
+                    continue;
+                }
+                String token = TestDataGenerator.generateValidToken(random);
+                for (String action : List.of("LOGIN", "ACTION", "LOGOUT")) {
+                    if (written == lines) {
+                        break;
+                    }
+                    writer.write(millis + "," + token + "," + action + ",prod-secret-key\n");
+                    millis += random.nextInt(20);
+                    written++;
+                }
+            }
+            return written;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.performance;
+
+import com.example.base.TestBase;
+import com.example.load.HttpClientEndpointClient;
+import com.example.load.LoadConfig;
+import com.example.load.UpstreamSaturationScenario;
+import com.example.mock.MockThreading;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Epic("Performance")
+@Feature("Upstream Backpressure")
+@Tag("performance")
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class UpstreamBackpressureTest extends TestBase {
+
+    @BeforeEach
+    void requireAsyncMockResponses() {
+        // Без асинхронных ответов удерживаемые /auth занимают потоки Jetty и WireMock насыщается раньше сервиса
+        Assumptions.assumeTrue(MockThreading.asyncResponses(),
+                "-Dwiremock.asyncResponses=true (профиль load) required to hold slow upstream calls");
+    }
+
+    @Test
+    @Tag("082")
+    @DisplayName("Исчерпание исходящего пула соединений медленными /auth запросами")
+    @Severity(CRITICAL)
+    void exhaustOutboundConnectionPool() {
+        Allure.description("В WireMock удерживается N медленных /auth соединений, одновременно приходят " +
+                "свежие LOGIN. Определяется, при каком N насыщается исходящий пул сервиса " +
+                "и как он себя ведет: ставит запросы в очередь, быстро отказывает или зависает");
+
+        int[] steps = LoadConfig.slowConnectionSteps();
+        int maxSlow = Arrays.stream(steps).max().orElse(0);
+
+        Allure.step("1. Параметры сценария", () -> Allure.addAttachment("Параметры", "text/plain",
+                "Медленных соединений по шагам: " + Arrays.toString(steps) + "\n" +
+                        "Задержка медленного /auth: " + LoadConfig.slowUpstreamDelay().toMillis() + "ms"));
+
+        List<UpstreamSaturationScenario.Step> results = Allure.step("2. Прогон лестницы медленных соединений", () -> {
+            try (HttpClientEndpointClient client = HttpClientEndpointClient.keepAlive(BASE_URL, maxSlow + 8)) {
+                return new UpstreamSaturationScenario(wireMockServer, client).run(steps);
+            }
+        });
+
+        Allure.step("3. Анализ насыщения", () -> {
+            Allure.addAttachment("Шаги", "text/plain", UpstreamSaturationScenario.Step.formatTable(results));
+
+            String saturation = results.stream()
+                    .filter(UpstreamSaturationScenario.Step::saturated)
+                    .findFirst()
+                    .map(s -> "Пул насыщается при " + s.slowConnections() + " медленных соединениях, " +
+                            "емкость около " + s.reachedUpstream() + ", поведение: " + s.behaviour())
+                    .orElse("Насыщение не достигнуто на " + maxSlow + " медленных соединениях");
+            Allure.addAttachment("Вывод", "text/plain", saturation);
+
+            assertThat("Без медленных соединений пробы должны проходить",
+                    results.get(0).slowConnections() > 0 || results.get(0).probeErrors() == 0, is(true));
+            assertThat("Сервис не должен зависать при исчерпании пула",
+                    results.stream().map(UpstreamSaturationScenario.Step::behaviour).toList(), not(hasItem("hangs")));
+        });
+    }
+}
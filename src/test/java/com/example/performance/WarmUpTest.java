@@ -0,0 +1,90 @@
+package com.example.performance;
+
+import com.example.base.TestBase;
+import com.example.load.HttpClientEndpointClient;
+import com.example.load.LoadConfig;
+import com.example.load.LoadResult;
+import com.example.load.LoadRunner;
+import com.example.load.SteadyStateDetector;
+import com.example.load.WarmUp;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Epic("Performance")
+@Feature("Warm-up")
+@Tag("performance")
+@Tag("load")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class WarmUpTest extends TestBase {
+
+    private static final int WINDOW = 50;
+
+    @Test
+    @Tag("101")
+    @DisplayName("Прогрев до установившегося режима и исключение его запросов из статистики прогона")
+    @Severity(NORMAL)
+    void warmUpUntilSteadyStateAndExcludeItFromStats() {
+        Allure.description("Детектор установившегося режима проверяется на синтетических рядах: затухающий прогрев " +
+                "должен завершиться только после затухания, шум без тренда - сразу, растущая задержка - никогда. " +
+                "Затем нагрузочный прогон с прогревом: запросы прогрева не должны попасть ни в статистику, ни к слушателям");
+
+        Allure.step("1. Синтетические ряды задержек", () -> {
+            Random random = new Random(42);
+            SteadyStateDetector decaying = detector();
+            long steadyAfter = feed(decaying, i -> (long) ((10 + 90 * Math.exp(-i / 60.0)) * (0.9 + 0.2 * random.nextDouble()) * 1e6));
+            SteadyStateDetector noisy = detector();
+            long noisyAfter = feed(noisy, i -> (long) (20e6 * (0.8 + 0.4 * random.nextDouble())));
+            SteadyStateDetector growing = detector();
+            // Деградация с накоплением очереди: каждое окно медленнее предыдущего на ~28%
+            feed(growing, i -> (long) (10e6 * Math.exp(i / 200.0)));
+
+            String report = "decaying: steady after " + steadyAfter + ", means " + decaying.windowMeans()
+                    + "\nnoisy: steady after " + noisyAfter + "\ngrowing: steady " + growing.steady() + ", means " + growing.windowMeans();
+            Allure.addAttachment("Синтетические ряды", "text/plain", report);
+            System.out.println("=== [WARMUP] " + report + " ===");
+
+            assertThat("Прогрев должен завершиться после затухания (4 постоянные времени)", steadyAfter, greaterThan(240L));
+            assertThat("Шум без тренда - установившийся режим с первых окон", noisyAfter, is(3L * WINDOW));
+            assertThat("Растущая задержка - не установившийся режим", growing.steady(), is(false));
+        });
+
+        Allure.step("2. Нагрузочный прогон с прогревом", () -> {
+            LongAdder seen = new LongAdder();
+            LoadRunner runner;
+            LoadResult result;
+            try (HttpClientEndpointClient client = HttpClientEndpointClient.keepAlive(BASE_URL, LoadConfig.poolSize())) {
+                runner = new LoadRunner(client).workers(LoadConfig.poolSize()).duration(LoadConfig.duration())
+                        .warmUp(true).listener((request, response) -> seen.increment());
+                result = runner.run();
+            }
+            WarmUp.Result warmUp = runner.warmUpResult();
+            Allure.addAttachment("Прогрев и прогон", "text/plain", warmUp + "\n" + result);
+
+            assertThat(warmUp.steady(), is(true));
+            assertThat(warmUp.requests(), greaterThanOrEqualTo((long) LoadConfig.warmUpWindows() * LoadConfig.warmUpWindow()));
+            assertThat("Слушатели не должны видеть запросы прогрева", seen.sum(), is(result.requests()));
+            assertThat(result.extras(), hasKey("warm-up"));
+        });
+    }
+
+    private static SteadyStateDetector detector() {
+        return new SteadyStateDetector(WINDOW, 3, 0.1, 4);
+    }
+
+    /**
+     * Подавать задержки, пока детектор не увидит установившийся режим (не больше 2000); возвращает число поданных
+     */
+    private static long feed(SteadyStateDetector detector, java.util.function.LongUnaryOperator latency) {
+        for (long i = 0; i < 2000 && !detector.steady(); i++) {
+            detector.record(latency.applyAsLong(i));
+        }
+        return detector.recorded();
+    }
+}
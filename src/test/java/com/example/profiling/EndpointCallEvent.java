@@ -0,0 +1,44 @@
+package com.example.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR событие: один вызов /endpoint из теста или нагрузки (длительность события = задержка вызова)
+ */
+@Name("com.example.EndpointCall")
+@Label("Endpoint Call")
+@Category({"Test Harness", "HTTP"})
+@Description("Вызов /endpoint сервиса из тестового JVM")
+@StackTrace(false)
+public class EndpointCallEvent extends Event {
+
+    @Label("Client")
+    String client;
+
+    @Label("Action")
+    String action;
+
+    @Label("Status")
+    int status;
+
+    public EndpointCallEvent(String client, String action) {
+        this.client = client;
+        this.action = action;
+    }
+
+    /**
+     * Завершить и записать событие, если запись JFR идет
+     */
+    public void finish(int status) {
+        end();
+        if (shouldCommit()) {
+            this.status = status;
+            commit();
+        }
+    }
+}
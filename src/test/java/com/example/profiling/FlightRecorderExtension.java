@@ -0,0 +1,70 @@
+package com.example.profiling;
+
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Запись JFR на класс тестов (target/jfr/&lt;класс&gt;.jfr) и сводка за окно каждого теста в Allure.
+ * Подключена в TestBase, работает только с -Djfr.enabled=true
+ */
+public class FlightRecorderExtension implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(FlightRecorderExtension.class);
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        FlightRecording recording = FlightRecording.startIfEnabled(context.getRequiredTestClass().getSimpleName());
+        if (recording != null) {
+            context.getStore(NAMESPACE).put("recording", recording);
+        }
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (recording(context) != null) {
+            context.getStore(NAMESPACE).put("testStart", Instant.now());
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        FlightRecording recording = recording(context);
+        Instant start = context.getStore(NAMESPACE).get("testStart", Instant.class);
+        if (recording == null || start == null) {
+            return;
+        }
+        try {
+            String summary = recording.summarySince(start).format(context.getDisplayName());
+            Allure.addAttachment("JFR: сводка теста", "text/plain", summary);
+        } catch (IOException e) {
+            System.err.println("=== [WARN] Cannot summarize JFR for " + context.getDisplayName() + ": " + e.getMessage() + " ===");
+        }
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        FlightRecording recording = context.getStore(NAMESPACE).remove("recording", FlightRecording.class);
+        if (recording == null) {
+            return;
+        }
+        try {
+            System.out.println(RecordingSummary.read(recording.stop(), null).format(recording.name()));
+        } catch (IOException e) {
+            System.err.println("=== [WARN] Cannot save JFR recording " + recording.name() + ": " + e.getMessage() + " ===");
+        } finally {
+            recording.close();
+        }
+    }
+
+    // Запись класса видна и из контекста метода (хранилище родителя)
+    private static FlightRecording recording(ExtensionContext context) {
+        return context.getStore(NAMESPACE).get("recording", FlightRecording.class);
+    }
+}
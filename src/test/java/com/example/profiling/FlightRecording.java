@@ -0,0 +1,115 @@
+package com.example.profiling;
+
+import io.qameta.allure.Allure;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Instant;
+
+/**
+ * Запись Java Flight Recorder вокруг класса тестов или фазы нагрузки.
+ *
+ * Включается -Djfr.enabled=true (по умолчанию выключено: запись и разбор стоят заметного времени),
+ * настройки - -Djfr.settings (default | profile, по умолчанию profile), файлы - в target/jfr.
+ * Несколько записей могут идти одновременно (класс и вложенная фаза нагрузки)
+ */
+public final class FlightRecording implements AutoCloseable {
+
+    private static final Path DIRECTORY = Path.of("target", "jfr");
+
+    private final String name;
+    private final Recording recording;
+
+    private FlightRecording(String name, Recording recording) {
+        this.name = name;
+        this.recording = recording;
+    }
+
+    public static boolean enabled() {
+        return Boolean.getBoolean("jfr.enabled");
+    }
+
+    /**
+     * Начать запись; при выключенном JFR - null
+     */
+    public static FlightRecording startIfEnabled(String name) {
+        return enabled() ? start(name) : null;
+    }
+
+    /**
+     * Начать запись независимо от -Djfr.enabled; null, если JFR недоступен
+     */
+    public static FlightRecording start(String name) {
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration(System.getProperty("jfr.settings", "profile")));
+            recording.setName(name);
+            recording.setToDisk(true);
+            recording.enable(EndpointCallEvent.class).withoutThreshold();
+            recording.enable(WireMockServeEvent.class);
+            recording.start();
+            System.out.println("=== [JFR] Recording started: " + name + " ===");
+            return new FlightRecording(name, recording);
+        } catch (IOException | ParseException e) {
+            System.err.println("=== [WARN] Cannot start JFR recording " + name + ": " + e.getMessage() + " ===");
+            return null;
+        }
+    }
+
+    /**
+     * Сводка по данным, записанным начиная с from; запись продолжается
+     */
+    public RecordingSummary summarySince(Instant from) throws IOException {
+        Path snapshot = Files.createTempFile("jfr-snapshot", ".jfr");
+        try {
+            recording.dump(snapshot);
+            return RecordingSummary.read(snapshot, from);
+        } finally {
+            Files.deleteIfExists(snapshot);
+        }
+    }
+
+    /**
+     * Остановить запись и сохранить файл в target/jfr; возвращает путь к файлу
+     */
+    public Path stop() throws IOException {
+        Files.createDirectories(DIRECTORY);
+        Path file = DIRECTORY.resolve(name.replaceAll("[^A-Za-z0-9._-]+", "_") + ".jfr");
+        recording.stop();
+        recording.dump(file);
+        System.out.println("=== [JFR] Recording saved: " + file.toAbsolutePath() + " ===");
+        return file;
+    }
+
+    /**
+     * Остановить, сохранить и приложить к текущему тесту Allure сводку и сам файл .jfr
+     */
+    public void stopAndAttach() {
+        try {
+            Path file = stop();
+            String summary = RecordingSummary.read(file, null).format(name);
+            System.out.println(summary);
+            Allure.addAttachment("JFR: " + name, "text/plain", summary);
+            try (InputStream data = Files.newInputStream(file)) {
+                Allure.addAttachment("JFR запись: " + name, "application/octet-stream", data, ".jfr");
+            }
+        } catch (IOException e) {
+            System.err.println("=== [WARN] Cannot save JFR recording " + name + ": " + e.getMessage() + " ===");
+        } finally {
+            recording.close();
+        }
+    }
+
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public void close() {
+        recording.close();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.profiling;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Проверка записи JFR и сводки на собственном WireMock (сервис не нужен)
+ */
+@Epic("Test Infrastructure")
+@Feature("Flight Recorder")
+@Tag("profiling")
+public class FlightRecordingTest {
+
+    private static final int CALLS = 20;
+
+    @Test
+    @Tag("094")
+    @DisplayName("Запись JFR содержит события вызовов, обслуживания WireMock, горячие методы и аллокации")
+    @Severity(NORMAL)
+    void recordsHarnessEventsAndProfile() throws Exception {
+        Allure.description("Запись JFR вокруг " + CALLS + " вызовов WireMock с JfrServeEvents и нагрузки на CPU: " +
+                "в сводке должны быть все EndpointCall и WireMockServe события, сэмплы CPU и аллокаций");
+
+        WireMockServer wireMock = new WireMockServer(options().dynamicPort().extensions(new JfrServeEvents()));
+        wireMock.start();
+        FlightRecording recording = FlightRecording.start("FlightRecordingTest");
+        Assumptions.assumeTrue(recording != null, "JFR недоступен в этой JVM");
+        try {
+            Allure.step("1. Вызовы с событиями EndpointCall", () -> {
+                wireMock.stubFor(post("/auth").willReturn(okJson("{\"status\":\"ok\"}")));
+                HttpClient client = HttpClient.newHttpClient();
+                for (int i = 0; i < CALLS; i++) {
+                    EndpointCallEvent event = new EndpointCallEvent("test", "LOGIN");
+                    event.begin();
+                    HttpResponse<String> response = client.send(HttpRequest.newBuilder(
+                                    URI.create("http://localhost:" + wireMock.port() + "/auth"))
+                            .POST(HttpRequest.BodyPublishers.ofString("token=A")).build(),
+                            HttpResponse.BodyHandlers.ofString());
+                    event.finish(response.statusCode());
+                }
+            });
+
+            Allure.step("2. Работа с аллокациями для сэмплов CPU", () -> {
+                long deadline = System.nanoTime() + 1_000_000_000L;
+                List<String> garbage = new ArrayList<>();
+                while (System.nanoTime() < deadline) {
+                    garbage.add(Long.toHexString(System.nanoTime()).repeat(16));
+                    if (garbage.size() > 10_000) {
+                        garbage.clear();
+                    }
+                }
+            });
+
+            Allure.step("3. Сводка записи", () -> {
+                Path file = recording.stop();
+                RecordingSummary summary = RecordingSummary.read(file, null);
+                String text = summary.format("FlightRecordingTest");
+                Allure.addAttachment("Сводка JFR", "text/plain", text);
+                System.out.println(text);
+
+                assertThat(Files.size(file), greaterThan(0L));
+                assertThat(summary.endpointCalls(), is((long) CALLS));
+                assertThat(summary.wireMockServes(), is((long) CALLS));
+                assertThat(summary.executionSamples(), greaterThan(0L));
+                assertThat(summary.allocationsByClass(), not(anEmptyMap()));
+            });
+        } finally {
+            recording.close();
+            wireMock.stop();
+        }
+    }
+}
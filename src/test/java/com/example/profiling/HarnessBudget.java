@@ -0,0 +1,20 @@
+package com.example.profiling;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Бюджет затрат тестового JVM на тело теста (поток теста, без setUp).
+ * Превышение роняет тест (см. {@link HarnessCostExtension}); -1 - без ограничения.
+ * Общий бюджет для всех тестов: -Dharness.budget.allocatedKb, -Dharness.budget.cpuMillis
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface HarnessBudget {
+
+    long allocatedKb() default -1;
+
+    long cpuMillis() default -1;
+}
@@ -0,0 +1,79 @@
+package com.example.profiling;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Затраты тестового JVM на участок кода: аллокации и CPU текущего потока (ThreadMXBean)
+ * и CPU всего процесса, куда входят WireMock (Jetty) и прочие фоновые потоки
+ */
+public record HarnessCost(long allocatedBytes, long threadCpuNanos, long processCpuNanos, long wallNanos) {
+
+    public static final HarnessCost ZERO = new HarnessCost(0, 0, 0, 0);
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final OperatingSystemMXBean OS = ManagementFactory.getOperatingSystemMXBean();
+
+    /**
+     * Текущие значения счетчиков (разность двух снимков - затраты между ними)
+     */
+    public static HarnessCost snapshot() {
+        return new HarnessCost(threadAllocatedBytes(), THREADS.getCurrentThreadCpuTime(), currentProcessCpuNanos(), System.nanoTime());
+    }
+
+    /**
+     * Затраты на выполнение action в текущем потоке
+     */
+    public static HarnessCost measure(Runnable action) {
+        HarnessCost before = snapshot();
+        action.run();
+        return snapshot().minus(before);
+    }
+
+    public HarnessCost minus(HarnessCost earlier) {
+        return new HarnessCost(allocatedBytes - earlier.allocatedBytes, threadCpuNanos - earlier.threadCpuNanos,
+                processCpuNanos - earlier.processCpuNanos, wallNanos - earlier.wallNanos);
+    }
+
+    public HarnessCost plus(HarnessCost other) {
+        return new HarnessCost(allocatedBytes + other.allocatedBytes, threadCpuNanos + other.threadCpuNanos,
+                processCpuNanos + other.processCpuNanos, wallNanos + other.wallNanos);
+    }
+
+    public double allocatedKb() {
+        return allocatedBytes / 1024.0;
+    }
+
+    public double threadCpuMillis() {
+        return threadCpuNanos / 1_000_000.0;
+    }
+
+    public double processCpuMillis() {
+        return processCpuNanos / 1_000_000.0;
+    }
+
+    public double wallMillis() {
+        return wallNanos / 1_000_000.0;
+    }
+
+    private static long threadAllocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean hotspot && hotspot.isThreadAllocatedMemoryEnabled()) {
+            return hotspot.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    private static long currentProcessCpuNanos() {
+        if (OS instanceof com.sun.management.OperatingSystemMXBean hotspot) {
+            return Math.max(0, hotspot.getProcessCpuTime());
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("allocated %.1f KB, thread CPU %.1f ms, process CPU %.1f ms, wall %.1f ms",
+                allocatedKb(), threadCpuMillis(), processCpuMillis(), wallMillis());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.profiling;
+
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Затраты harness на каждый тест: setUp (все @BeforeEach, включая TestBase.setUp) и тело теста.
+ * Считаются аллокации и CPU потока теста, плюс CPU всего JVM (WireMock, фоновые пулы).
+ * Результат прикладывается к тесту в Allure, таблица по всем тестам - в конце прогона
+ * (консоль и target/harness-cost/harness-cost.csv). Превышение {@link HarnessBudget} роняет тест.
+ *
+ * Подключена в TestBase; отключается -Dharness.cost=false
+ */
+public class HarnessCostExtension implements BeforeEachCallback, BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(HarnessCostExtension.class);
+
+    private static boolean enabled() {
+        return !"false".equals(System.getProperty("harness.cost"));
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (enabled()) {
+            context.getStore(NAMESPACE).put("beforeSetUp", HarnessCost.snapshot());
+        }
+    }
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        if (enabled()) {
+            context.getStore(NAMESPACE).put("beforeBody", HarnessCost.snapshot());
+        }
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        HarnessCost afterBody = HarnessCost.snapshot();
+        HarnessCost beforeSetUp = context.getStore(NAMESPACE).get("beforeSetUp", HarnessCost.class);
+        HarnessCost beforeBody = context.getStore(NAMESPACE).get("beforeBody", HarnessCost.class);
+        if (beforeSetUp == null || beforeBody == null) {
+            return;
+        }
+        HarnessCost setUp = beforeBody.minus(beforeSetUp);
+        HarnessCost body = afterBody.minus(beforeBody);
+
+        Allure.addAttachment("Затраты harness", "text/plain", "setUp: " + setUp + "\nтест:  " + body);
+        HarnessCostReport.of(context).add(context.getRequiredTestClass().getSimpleName(), context.getDisplayName(), setUp, body);
+
+        List<String> violations = violations(body, budget(context));
+        if (!violations.isEmpty()) {
+            throw new AssertionError("Превышен бюджет harness: " + String.join(", ", violations) + " (" + body + ")");
+        }
+    }
+
+    static List<String> violations(HarnessCost cost, Budget budget) {
+        List<String> violations = new ArrayList<>();
+        if (budget.allocatedKb() >= 0 && cost.allocatedKb() > budget.allocatedKb()) {
+            violations.add(String.format("allocated %.1f KB > %d KB", cost.allocatedKb(), budget.allocatedKb()));
+        }
+        if (budget.cpuMillis() >= 0 && cost.threadCpuMillis() > budget.cpuMillis()) {
+            violations.add(String.format("thread CPU %.1f ms > %d ms", cost.threadCpuMillis(), budget.cpuMillis()));
+        }
+        return violations;
+    }
+
+    // Аннотация метода, затем класса, затем общие -D свойства
+    private static Budget budget(ExtensionContext context) {
+        Optional<HarnessBudget> annotation = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), HarnessBudget.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), HarnessBudget.class));
+        return annotation
+                .map(a -> new Budget(a.allocatedKb(), a.cpuMillis()))
+                .orElseGet(() -> new Budget(Long.getLong("harness.budget.allocatedKb", -1L),
+                        Long.getLong("harness.budget.cpuMillis", -1L)));
+    }
+
+    record Budget(long allocatedKb, long cpuMillis) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.profiling;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Таблица затрат harness по всем тестам прогона. Живет в корневом хранилище JUnit
+ * и выводится при его закрытии - после последнего теста
+ */
+final class HarnessCostReport implements ExtensionContext.Store.CloseableResource {
+
+    private static final Path FILE = Path.of("target", "harness-cost", "harness-cost.csv");
+    private static final int TOP = 20;
+
+    private final List<Row> rows = new ArrayList<>();
+
+    static HarnessCostReport of(ExtensionContext context) {
+        return context.getRoot().getStore(ExtensionContext.Namespace.create(HarnessCostReport.class))
+                .getOrComputeIfAbsent(HarnessCostReport.class, key -> new HarnessCostReport(), HarnessCostReport.class);
+    }
+
+    synchronized void add(String testClass, String test, HarnessCost setUp, HarnessCost body) {
+        rows.add(new Row(testClass, test, setUp, body));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Row> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparingLong((Row r) -> r.total().allocatedBytes()).reversed());
+
+        HarnessCost total = rows.stream().map(Row::total).reduce(HarnessCost.ZERO, HarnessCost::plus);
+        HarnessCost setUpTotal = rows.stream().map(Row::setUp).reduce(HarnessCost.ZERO, HarnessCost::plus);
+        StringBuilder table = new StringBuilder(String.format("%n=== [HARNESS] %d tests: %s; setUp share: %.1f KB, %.1f ms CPU ===%n",
+                rows.size(), total, setUpTotal.allocatedKb(), setUpTotal.threadCpuMillis()));
+        table.append(String.format("%-60s %12s %10s %12s %10s %12s%n",
+                "test (top " + TOP + " by allocation)", "setUp KB", "setUp ms", "body KB", "body ms", "process ms"));
+        for (Row row : sorted.subList(0, Math.min(TOP, sorted.size()))) {
+            table.append(String.format("%-60s %12.1f %10.1f %12.1f %10.1f %12.1f%n", row.name(),
+                    row.setUp.allocatedKb(), row.setUp.threadCpuMillis(), row.body.allocatedKb(),
+                    row.body.threadCpuMillis(), row.total().processCpuMillis()));
+        }
+        System.out.println(table);
+        write(sorted);
+    }
+
+    private void write(List<Row> sorted) {
+        StringBuilder csv = new StringBuilder("class,test,setup_allocated_bytes,setup_cpu_ns,body_allocated_bytes,body_cpu_ns,process_cpu_ns,wall_ns\n");
+        for (Row row : sorted) {
+            csv.append(String.join(",", row.testClass, '"' + row.test.replace("\"", "\"\"") + '"',
+                    String.valueOf(row.setUp.allocatedBytes()), String.valueOf(row.setUp.threadCpuNanos()),
+                    String.valueOf(row.body.allocatedBytes()), String.valueOf(row.body.threadCpuNanos()),
+                    String.valueOf(row.total().processCpuNanos()), String.valueOf(row.total().wallNanos()))).append('\n');
+        }
+        try {
+            Files.createDirectories(FILE.getParent());
+            Files.writeString(FILE, csv);
+            System.out.println("=== [HARNESS] Cost table: " + FILE.toAbsolutePath() + " ===");
+        } catch (IOException e) {
+            System.err.println("=== [WARN] Cannot write " + FILE + ": " + e.getMessage() + " ===");
+        }
+    }
+
+    private record Row(String testClass, String test, HarnessCost setUp, HarnessCost body) {
+
+        HarnessCost total() {
+            return setUp.plus(body);
+        }
+
+        String name() {
+            String name = testClass + "." + test;
+            return name.length() > 60 ? name.substring(0, 57) + "..." : name;
+        }
+    }
+}
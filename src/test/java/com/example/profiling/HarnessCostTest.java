@@ -0,0 +1,67 @@
+package com.example.profiling;
+
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Проверка счетчиков затрат harness и бюджетов (сервис не нужен)
+ */
+@Epic("Test Infrastructure")
+@Feature("Harness Cost")
+@Tag("profiling")
+public class HarnessCostTest {
+
+    private static final int MEGABYTES = 8;
+
+    @Test
+    @Tag("095")
+    @DisplayName("Аллокации и CPU потока теста считаются, превышение бюджета обнаруживается")
+    @Severity(NORMAL)
+    void measuresAllocationsCpuAndBudgets() {
+        Allure.description("Выделение " + MEGABYTES + " MB и работа CPU в текущем потоке должны попасть в HarnessCost; " +
+                "бюджет меньше затрат дает нарушение, бюджет больше - нет");
+
+        HarnessCost allocation = Allure.step("1. Аллокации", () -> {
+            List<byte[]> blocks = new ArrayList<>();
+            HarnessCost cost = HarnessCost.measure(() -> {
+                for (int i = 0; i < MEGABYTES; i++) {
+                    blocks.add(new byte[1 << 20]);
+                }
+            });
+            Allure.addAttachment("Затраты", "text/plain", cost.toString());
+            assertThat(blocks, hasSize(MEGABYTES));
+            assertThat(cost.allocatedKb(), greaterThanOrEqualTo(MEGABYTES * 1024.0));
+            return cost;
+        });
+
+        Allure.step("2. CPU", () -> {
+            HarnessCost cost = HarnessCost.measure(() -> {
+                long deadline = System.nanoTime() + 200_000_000L;
+                long x = 0;
+                while (System.nanoTime() < deadline) {
+                    x = x * 31 + Long.numberOfTrailingZeros(x) + 1;
+                }
+                assertThat(x, not(0L));
+            });
+            Allure.addAttachment("Затраты", "text/plain", cost.toString());
+            assertThat(cost.threadCpuMillis(), allOf(greaterThan(20.0), lessThanOrEqualTo(cost.wallMillis() + 1)));
+            assertThat(cost.processCpuMillis(), greaterThanOrEqualTo(cost.threadCpuMillis() * 0.9));
+        });
+
+        Allure.step("3. Бюджеты", () -> {
+            List<String> exceeded = HarnessCostExtension.violations(allocation,
+                    new HarnessCostExtension.Budget(MEGABYTES * 512L, -1));
+            Allure.addAttachment("Нарушения", "text/plain", exceeded.toString());
+            assertThat(exceeded, contains(startsWith("allocated")));
+            assertThat(HarnessCostExtension.violations(allocation,
+                    new HarnessCostExtension.Budget(MEGABYTES * 4096L, 60_000)), is(empty()));
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.profiling;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Фильтр REST Assured: каждый вызов сервиса из теста пишется как {@link EndpointCallEvent}
+ */
+public class JfrEndpointFilter implements Filter {
+
+    @Override
+    public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                           FilterContext context) {
+        Object action = request.getFormParams().get("action");
+        EndpointCallEvent event = new EndpointCallEvent("rest-assured", action == null ? null : action.toString());
+        if (!event.isEnabled()) {
+            return context.next(request, response);
+        }
+        event.begin();
+        Response result = null;
+        try {
+            result = context.next(request, response);
+            return result;
+        } finally {
+            event.finish(result == null ? 0 : result.getStatusCode());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.profiling;
+
+import com.github.tomakehurst.wiremock.common.Timing;
+import com.github.tomakehurst.wiremock.core.Admin;
+import com.github.tomakehurst.wiremock.extension.PostServeAction;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+/**
+ * Глобальное post-serve расширение WireMock: каждый обслуженный запрос пишется как {@link WireMockServeEvent}
+ * (без активной записи JFR событие не создается)
+ */
+public class JfrServeEvents extends PostServeAction {
+
+    public static final String NAME = "jfr-serve-events";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void doGlobalAction(ServeEvent serveEvent, Admin admin) {
+        WireMockServeEvent event = new WireMockServeEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        Timing timing = serveEvent.getTiming();
+        event.url = serveEvent.getRequest().getUrl();
+        event.status = serveEvent.getResponse() == null ? 0 : serveEvent.getResponse().getStatus();
+        event.matched = serveEvent.getWasMatched();
+        if (timing != null) {
+            event.processMillis = timing.getProcessTime();
+            event.sendMillis = timing.getResponseSendTime();
+            event.addedDelayMillis = timing.getAddedDelay();
+        }
+        event.commit();
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сводка записи JFR за окно времени: горячие методы (jdk.ExecutionSample, верхний кадр),
+ * аллокации по классам (jdk.ObjectAllocationSample, вес), CPU по группам потоков
+ * и события {@link EndpointCallEvent} / {@link WireMockServeEvent}.
+ *
+ * Группы потоков отвечают на вопрос "кто тормозит": тест и REST Assured (main, worker-*),
+ * нагрузка (load-worker-*), WireMock (qtp*, Jetty) или прочее
+ */
+public final class RecordingSummary {
+
+    private static final int TOP = 15;
+
+    private final Map<String, Long> hotMethods = new HashMap<>();
+    private final Map<String, Long> samplesByGroup = new HashMap<>();
+    private final Map<String, Long> allocationsByClass = new HashMap<>();
+    private final List<Duration> endpointCalls = new ArrayList<>();
+    private final Map<Integer, Long> endpointStatuses = new HashMap<>();
+    private final List<Long> serveMillis = new ArrayList<>();
+    private long executionSamples;
+    private long allocatedBytes;
+
+    private RecordingSummary() {
+    }
+
+    /**
+     * Разобрать файл записи; учитываются события, начавшиеся не раньше from (null - все)
+     */
+    public static RecordingSummary read(Path file, Instant from) throws IOException {
+        RecordingSummary summary = new RecordingSummary();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if (from == null || !event.getStartTime().isBefore(from)) {
+                summary.add(event);
+            }
+        }
+        return summary;
+    }
+
+    private void add(RecordedEvent event) {
+        switch (event.getEventType().getName()) {
+            case "jdk.ExecutionSample" -> {
+                executionSamples++;
+                samplesByGroup.merge(threadGroup(event.getThread("sampledThread")), 1L, Long::sum);
+                String top = topFrame(event.getStackTrace());
+                if (top != null) {
+                    hotMethods.merge(top, 1L, Long::sum);
+                }
+            }
+            case "jdk.ObjectAllocationSample" -> {
+                long weight = event.getLong("weight");
+                allocatedBytes += weight;
+                allocationsByClass.merge(event.getClass("objectClass").getName(), weight, Long::sum);
+            }
+            case "com.example.EndpointCall" -> {
+                endpointCalls.add(event.getDuration());
+                endpointStatuses.merge(event.getInt("status"), 1L, Long::sum);
+            }
+            case "com.example.WireMockServe" -> serveMillis.add(event.getDuration("processMillis").toMillis()
+                    + event.getDuration("sendMillis").toMillis());
+            default -> {
+            }
+        }
+    }
+
+    private static String topFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return null;
+        }
+        RecordedFrame frame = stackTrace.getFrames().get(0);
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    static String threadGroup(RecordedThread thread) {
+        String name = thread == null || thread.getJavaName() == null ? "" : thread.getJavaName();
+        if (name.startsWith("qtp") || name.contains("Jetty") || name.startsWith("WireMock")) {
+            return "wiremock";
+        }
+        if (name.startsWith("load-worker") || name.startsWith("slow-client") || name.startsWith("service-rss")) {
+            return "load";
+        }
+        if (name.equals("main") || name.startsWith("ForkJoinPool") || name.startsWith("pool-")) {
+            return "test / rest-assured";
+        }
+        return "other";
+    }
+
+    public long executionSamples() {
+        return executionSamples;
+    }
+
+    public long endpointCalls() {
+        return endpointCalls.size();
+    }
+
+    public long wireMockServes() {
+        return serveMillis.size();
+    }
+
+    public Map<String, Long> hotMethods() {
+        return top(hotMethods);
+    }
+
+    public Map<String, Long> allocationsByClass() {
+        return top(allocationsByClass);
+    }
+
+    private static Map<String, Long> top(Map<String, Long> counts) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(TOP)
+                .forEach(e -> result.put(e.getKey(), e.getValue()));
+        return result;
+    }
+
+    /**
+     * Текстовый отчет для Allure и консоли
+     */
+    public String format(String title) {
+        StringBuilder text = new StringBuilder("JFR: ").append(title).append('\n');
+
+        text.append(String.format("%n/endpoint calls: %d", endpointCalls.size()));
+        if (!endpointCalls.isEmpty()) {
+            List<Duration> sorted = new ArrayList<>(endpointCalls);
+            Collections.sort(sorted);
+            text.append(String.format(", p50=%.1fms p99=%.1fms max=%.1fms, statuses %s",
+                    millis(sorted.get(sorted.size() / 2)),
+                    millis(sorted.get(Math.min(sorted.size() - 1, (int) Math.ceil(sorted.size() * 0.99) - 1))),
+                    millis(sorted.get(sorted.size() - 1)), endpointStatuses));
+        }
+        text.append(String.format("%nWireMock serves: %d", serveMillis.size()));
+        if (!serveMillis.isEmpty()) {
+            text.append(String.format(", avg=%.1fms max=%dms",
+                    serveMillis.stream().mapToLong(Long::longValue).average().orElse(0),
+                    serveMillis.stream().mapToLong(Long::longValue).max().orElse(0)));
+        }
+
+        text.append(String.format("%n%nCPU samples: %d%n", executionSamples));
+        top(samplesByGroup).forEach((group, count) ->
+                text.append(String.format("  %-24s %6d  %5.1f%%%n", group, count, percent(count, executionSamples))));
+
+        text.append(String.format("%nHot methods (top frame):%n"));
+        hotMethods().forEach((method, count) ->
+                text.append(String.format("  %6d  %5.1f%%  %s%n", count, percent(count, executionSamples), method)));
+
+        text.append(String.format("%nAllocations (sampled weight): %.1f MB%n", allocatedBytes / 1_048_576.0));
+        allocationsByClass().forEach((type, bytes) ->
+                text.append(String.format("  %10.1f KB  %5.1f%%  %s%n", bytes / 1024.0, percent(bytes, allocatedBytes), type)));
+        return text.toString();
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+
+    private static double percent(long part, long total) {
+        return total == 0 ? 0 : part * 100.0 / total;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR событие: ответ WireMock на запрос сервиса к внешнему API.
+ * Событие мгновенное (пишется после отправки ответа), время обработки - в полях из Timing WireMock
+ */
+@Name("com.example.WireMockServe")
+@Label("WireMock Serve")
+@Category({"Test Harness", "WireMock"})
+@Description("Запрос сервиса к внешнему API, обслуженный WireMock в тестовом JVM")
+@StackTrace(false)
+public class WireMockServeEvent extends Event {
+
+    @Label("URL")
+    String url;
+
+    @Label("Status")
+    int status;
+
+    @Label("Matched")
+    boolean matched;
+
+    @Label("Process Time")
+    @Timespan(Timespan.MILLISECONDS)
+    long processMillis;
+
+    @Label("Response Send Time")
+    @Timespan(Timespan.MILLISECONDS)
+    long sendMillis;
+
+    @Label("Added Delay")
+    @Timespan(Timespan.MILLISECONDS)
+    long addedDelayMillis;
+}
@@ -0,0 +1,21 @@
+package com.example.scheduling;
+
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+
+/**
+ * Порядок тестовых классов по истории прогонов (см. {@link TestSchedule}).
+ * Подключен по умолчанию в junit-platform.properties
+ */
+public class HistoryClassOrderer implements ClassOrderer {
+
+    @Override
+    public void orderClasses(ClassOrdererContext context) {
+        boolean parallel = context.getConfigurationParameter(TestSchedule.PARALLEL_ENABLED)
+                .map(Boolean::parseBoolean)
+                .orElse(false);
+        context.getClassDescriptors().sort(TestSchedule.comparator(TestSchedule.recordedHistory(), parallel,
+                (ClassDescriptor descriptor) -> descriptor.getTestClass().getName()));
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.scheduling;
+
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+
+/**
+ * Порядок методов внутри класса по истории прогонов (см. {@link TestSchedule}).
+ * Подключен по умолчанию в junit-platform.properties; явный @TestMethodOrder на классе имеет приоритет
+ */
+public class HistoryMethodOrderer implements MethodOrderer {
+
+    @Override
+    public void orderMethods(MethodOrdererContext context) {
+        boolean parallel = context.getConfigurationParameter(TestSchedule.PARALLEL_ENABLED)
+                .map(Boolean::parseBoolean)
+                .orElse(false);
+        context.getMethodDescriptors().sort(TestSchedule.comparator(TestSchedule.recordedHistory(), parallel,
+                (MethodDescriptor descriptor) -> TestHistoryListener.methodKey(
+                        descriptor.getMethod().getDeclaringClass().getName(), descriptor.getMethod().getName())));
+    }
+}
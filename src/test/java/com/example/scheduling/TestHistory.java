@@ -0,0 +1,131 @@
+package com.example.scheduling;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * История прогонов: длительность и падения по тестовым методам и классам.
+ *
+ * Ключи: "com.example.Class" (класс целиком, включая @BeforeAll) и "com.example.Class#method"
+ * (метод со всеми параметризованными вызовами). Хранится в -Dschedule.historyFile
+ * (по умолчанию target/test-history/history.properties); в CI файл стоит кэшировать между сборками.
+ */
+public final class TestHistory {
+
+    // Вес последнего прогона в скользящей средней длительности
+    private static final double ALPHA = 0.3;
+
+    private final Map<String, Entry> entries;
+
+    private TestHistory(Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    public static Path defaultFile() {
+        return Paths.get(System.getProperty("schedule.historyFile", "target/test-history/history.properties"));
+    }
+
+    public static TestHistory empty() {
+        return new TestHistory(new TreeMap<>());
+    }
+
+    public static TestHistory load(Path file) {
+        Map<String, Entry> entries = new TreeMap<>();
+        if (!Files.exists(file)) {
+            return new TestHistory(entries);
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            // Испорченная история не должна ломать прогон: начинаем заново
+            System.out.println("=== [WARN] Cannot read test history " + file + ": " + e.getMessage() + " ===");
+            return new TestHistory(entries);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            Entry entry = Entry.parse(properties.getProperty(key));
+            if (entry != null) {
+                entries.put(key, entry);
+            }
+        }
+        return new TestHistory(entries);
+    }
+
+    public Entry get(String key) {
+        return entries.get(key);
+    }
+
+    public Map<String, Entry> entries() {
+        return Collections.unmodifiableMap(entries);
+    }
+
+    /** Учесть результат очередного прогона */
+    public void record(String key, long durationMillis, boolean failed) {
+        entries.merge(key, Entry.first(durationMillis, failed), (old, ignored) -> old.next(durationMillis, failed));
+    }
+
+    public void save(Path file) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write("# key=runs,failures,lastFailed,lastMillis,avgMillis\n");
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    writer.write(entry.getKey().replace(":", "\\:").replace("=", "\\=")
+                            + "=" + entry.getValue().format() + "\n");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write test history " + file, e);
+        }
+    }
+
+    /**
+     * Статистика одного теста
+     *
+     * @param avgMillis экспоненциально сглаженная длительность
+     */
+    public record Entry(int runs, int failures, boolean lastFailed, long lastMillis, double avgMillis) {
+
+        static Entry first(long millis, boolean failed) {
+            return new Entry(1, failed ? 1 : 0, failed, millis, millis);
+        }
+
+        Entry next(long millis, boolean failed) {
+            return new Entry(runs + 1, failures + (failed ? 1 : 0), failed, millis,
+                    ALPHA * millis + (1 - ALPHA) * avgMillis);
+        }
+
+        public double failureRate() {
+            return runs == 0 ? 0 : (double) failures / runs;
+        }
+
+        String format() {
+            return runs + "," + failures + "," + lastFailed + "," + lastMillis + "," + String.format(Locale.ROOT, "%.1f", avgMillis);
+        }
+
+        static Entry parse(String value) {
+            String[] parts = value.split(",");
+            if (parts.length != 5) {
+                return null;
+            }
+            try {
+                return new Entry(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()),
+                        Boolean.parseBoolean(parts[2].trim()), Long.parseLong(parts[3].trim()),
+                        Double.parseDouble(parts[4].trim()));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
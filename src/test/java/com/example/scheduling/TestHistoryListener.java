@@ -0,0 +1,107 @@
+package com.example.scheduling;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Записывает длительность и падения тестов в {@link TestHistory} по окончании прогона
+ * (подключается через META-INF/services).
+ *
+ * Длительность метода - от старта до конца его дескриптора (для @ParameterizedTest и @TestFactory -
+ * все вызовы вместе); метод считается упавшим, если упал любой из его вызовов.
+ */
+public class TestHistoryListener implements TestExecutionListener {
+
+    private final Map<String, Long> startedAt = new ConcurrentHashMap<>();
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+    private final Set<String> failed = ConcurrentHashMap.newKeySet();
+    private volatile TestPlan testPlan;
+
+    public static String methodKey(String className, String methodName) {
+        return className + "#" + methodName;
+    }
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        this.testPlan = testPlan;
+        startedAt.clear();
+        durations.clear();
+        failed.clear();
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier identifier) {
+        startedAt.put(identifier.getUniqueId(), System.nanoTime());
+    }
+
+    @Override
+    public void executionSkipped(TestIdentifier identifier, String reason) {
+        // Пропущенные тесты не меняют историю
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier identifier, TestExecutionResult result) {
+        Long start = startedAt.remove(identifier.getUniqueId());
+        TestSource source = identifier.getSource().orElse(null);
+        String key = key(source);
+        if (key == null || start == null) {
+            return;
+        }
+        if (result.getStatus() == TestExecutionResult.Status.FAILED) {
+            failed.add(key);
+            if (source instanceof MethodSource) {
+                failed.add(((MethodSource) source).getClassName());
+            }
+        }
+        if (isTopLevel(identifier, source)) {
+            durations.put(key, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (durations.isEmpty()) {
+            return;
+        }
+        Path file = TestHistory.defaultFile();
+        // Перечитываем файл: история могла обновиться другим форком surefire
+        TestHistory history = TestHistory.load(file);
+        durations.forEach((key, millis) -> history.record(key, millis, failed.contains(key)));
+        history.save(file);
+        System.out.println("=== [SCHEDULE] Test history updated: " + durations.size() + " entries, "
+                + failed.size() + " failed -> " + file + " ===");
+    }
+
+    private static String key(TestSource source) {
+        if (source instanceof MethodSource) {
+            MethodSource method = (MethodSource) source;
+            return methodKey(method.getClassName(), method.getMethodName());
+        }
+        if (source instanceof ClassSource) {
+            return ((ClassSource) source).getClassName();
+        }
+        return null;
+    }
+
+    // Метод учитываем на уровне его дескриптора, а не отдельных параметризованных вызовов
+    private boolean isTopLevel(TestIdentifier identifier, TestSource source) {
+        if (source instanceof ClassSource || testPlan == null) {
+            return true;
+        }
+        return testPlan.getParent(identifier)
+                .flatMap(TestIdentifier::getSource)
+                .map(parent -> parent instanceof ClassSource)
+                .orElse(true);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.scheduling;
+
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * Порядок запуска по истории прогонов (общий для классов и методов):
+ * 1. упавшие в прошлый раз;
+ * 2. новые, без истории (чаще всего ломаются именно они);
+ * 3. с большей долей падений;
+ * 4. по длительности: в последовательном режиме быстрые первыми (быстрее сигнал о падении),
+ *    в параллельном - долгие первыми, чтобы ожидания на задержках WireMock
+ *    перекрывались с остальными тестами, а не собирались в хвост прогона.
+ * При равенстве - по имени, чтобы порядок был воспроизводимым.
+ */
+public final class TestSchedule {
+
+    public static final String PARALLEL_ENABLED = "junit.jupiter.execution.parallel.enabled";
+
+    private TestSchedule() {
+    }
+
+    /** История на момент старта JVM (общая для всех ClassOrderer и MethodOrderer, загружается один раз) */
+    static TestHistory recordedHistory() {
+        return Holder.HISTORY;
+    }
+
+    public static <T> Comparator<T> comparator(TestHistory history, boolean parallel, Function<T, String> key) {
+        Comparator<TestHistory.Entry> byDuration = Comparator.comparingDouble(TestHistory.Entry::avgMillis);
+        Comparator<TestHistory.Entry> known = Comparator
+                .comparing((TestHistory.Entry entry) -> !entry.lastFailed())
+                .thenComparing(Comparator.comparingDouble(TestHistory.Entry::failureRate).reversed())
+                .thenComparing(parallel ? byDuration.reversed() : byDuration);
+
+        return Comparator.<T>comparingInt(item -> tier(history.get(key.apply(item))))
+                .thenComparing(item -> history.get(key.apply(item)), Comparator.nullsFirst(known))
+                .thenComparing(key);
+    }
+
+    private static int tier(TestHistory.Entry entry) {
+        if (entry == null) {
+            return 1;
+        }
+        return entry.lastFailed() ? 0 : 2;
+    }
+
+    private static final class Holder {
+        static final TestHistory HISTORY = TestHistory.load(TestHistory.defaultFile());
+    }
+}
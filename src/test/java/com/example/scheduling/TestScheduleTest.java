@@ -0,0 +1,76 @@
+package com.example.scheduling;
+
+import io.qameta.allure.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static io.qameta.allure.SeverityLevel.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Проверка порядка запуска по истории прогонов (сервис и WireMock не нужны)
+ */
+@Epic("Test Infrastructure")
+@Feature("Duration-Aware Ordering")
+@Tag("scheduling")
+public class TestScheduleTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @Tag("088")
+    @DisplayName("Упавшие и новые тесты первыми, затем по длительности")
+    @Severity(NORMAL)
+    void ordersByFailureHistoryAndDuration() {
+        Allure.description("Последовательный режим: упавшие в прошлый раз, новые, затем быстрые. " +
+                "Параллельный режим: после упавших и новых - долгие первыми. История переживает запись и чтение файла.");
+
+        Path file = tempDir.resolve("history.properties");
+
+        Allure.step("1. Запись истории и чтение из файла", () -> {
+            TestHistory history = TestHistory.empty();
+            history.record("A#slowSleeper", 4000, false);
+            history.record("A#fast", 50, false);
+            history.record("A#medium", 700, false);
+            history.record("A#flaky", 300, true);
+            history.record("A#flaky", 300, false);
+            history.record("A#brokenLastTime", 900, false);
+            history.record("A#brokenLastTime", 900, true);
+            history.save(file);
+
+            TestHistory.Entry flaky = TestHistory.load(file).get("A#flaky");
+            assertThat(flaky.runs(), is(2));
+            assertThat(flaky.failures(), is(1));
+            assertThat(flaky.lastFailed(), is(false));
+            Allure.addAttachment("История", "text/plain", TestHistory.load(file).entries().toString());
+        });
+
+        TestHistory history = TestHistory.load(file);
+        List<String> tests = List.of("A#slowSleeper", "A#fast", "A#brandNew", "A#medium", "A#flaky", "A#brokenLastTime");
+
+        Allure.step("2. Последовательный режим", () -> {
+            List<String> order = sorted(tests, history, false);
+            Allure.addAttachment("Порядок", "text/plain", String.join("\n", order));
+            assertThat(order, contains("A#brokenLastTime", "A#brandNew", "A#flaky", "A#fast", "A#medium", "A#slowSleeper"));
+        });
+
+        Allure.step("3. Параллельный режим", () -> {
+            List<String> order = sorted(tests, history, true);
+            Allure.addAttachment("Порядок", "text/plain", String.join("\n", order));
+            assertThat(order, contains("A#brokenLastTime", "A#brandNew", "A#flaky", "A#slowSleeper", "A#medium", "A#fast"));
+        });
+    }
+
+    private static List<String> sorted(List<String> tests, TestHistory history, boolean parallel) {
+        List<String> order = new ArrayList<>(tests);
+        order.sort(TestSchedule.comparator(history, parallel, Function.identity()));
+        return order;
+    }
+}
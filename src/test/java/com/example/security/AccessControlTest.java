@@ -1,6 +1,7 @@
 package com.example.security;
 
 import com.example.base.TestBase;
+import com.example.utils.MatrixSweep;
 import io.qameta.allure.*;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
@@ -8,6 +9,7 @@ import io.restassured.specification.RequestSpecification;
 import org.junit.jupiter.api.*;
 
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -34,114 +36,104 @@ public class AccessControlTest extends TestBase {
         });
     }
 
-    @ParameterizedTest(name = "HTTP {0} → status {1}")
-    @CsvSource({
-            "POST,    200, true",
-            "GET,     405, false",
-            "PUT,     405, true",
-            "DELETE,  405, false",
-            "PATCH,   405, true"
-    })
+    @TestFactory
     @Tag("040")
     @DisplayName("Проверка HTTP методов")
-    void endpointHttpMethodsAccess(String method, int expectedStatus, boolean needsBody) {
-        Allure.step("Тестирование HTTP метода " + method, () -> {
-            Allure.addAttachment("Метод", "text/plain", method);
-            Allure.addAttachment("Ожидаемый статус", "text/plain", String.valueOf(expectedStatus));
-            Allure.addAttachment("Требует тело", "text/plain", needsBody ? "Да" : "Нет");
-
-            String token = Allure.step("1. Генерация токена", () -> {
-                String t = generateToken();
-                Allure.addAttachment("Токен", "text/plain", t);
-                return t;
-            });
-
-            Allure.step("2. Формирование запроса", () -> {
-                RequestSpecification request = given()
-                        .header("X-Api-Key", "qazWSXedc");
-
-                if (needsBody) {
-                    if ("POST".equals(method)) {
-                        request.formParams(Map.of("token", token, "action", "LOGIN"));
-                        Allure.addAttachment("Формат тела", "text/plain", "form-urlencoded");
-                    } else {
-                        request.contentType(ContentType.JSON)
-                                .body(Map.of("token", token, "action", "LOGIN"));
-                        Allure.addAttachment("Формат тела", "text/plain", "application/json");
+    Stream<DynamicTest> endpointHttpMethodsAccess() {
+        return MatrixSweep.csv("endpointHttpMethodsAccess",
+                        "POST,    200, true",
+                        "GET,     405, false",
+                        "PUT,     405, true",
+                        "DELETE,  405, false",
+                        "PATCH,   405, true")
+                .displayName(MatrixSweep.pattern("HTTP {0} → status {1}"))
+                .run(row -> {
+                    String method = row[0];
+                    String token = generateToken();
+                    RequestSpecification request = givenForMatrix();
+
+                    if (Boolean.parseBoolean(row[2])) {
+                        if ("POST".equals(method)) {
+                            request.formParams(Map.of("token", token, "action", "LOGIN"));
+                        } else {
+                            request.contentType(ContentType.JSON)
+                                    .body(Map.of("token", token, "action", "LOGIN"));
+                        }
                     }
-                }
 
-                Allure.step("3. Выполнение " + method + " запроса", () -> {
-                    switch (method) {
+                    return switch (method) {
                         case "GET" -> request.when().get("/endpoint");
-                        case "POST" -> request.when().post("/endpoint");
                         case "PUT" -> request.when().put("/endpoint");
                         case "DELETE" -> request.when().delete("/endpoint");
                         case "PATCH" -> request.when().patch("/endpoint");
-                    }
+                        default -> request.when().post("/endpoint");
+                    };
+                }, (row, response) -> {
+                    String method = row[0];
+                    int expectedStatus = Integer.parseInt(row[1]);
+
+                    Allure.step("Тестирование HTTP метода " + method, () -> {
+                        Allure.addAttachment("Метод", "text/plain", method);
+                        Allure.addAttachment("Ожидаемый статус", "text/plain", String.valueOf(expectedStatus));
+                        Allure.addAttachment("Требует тело", "text/plain",
+                                Boolean.parseBoolean(row[2]) ? "Да" : "Нет");
+                        Allure.addAttachment("Ответ", "text/plain",
+                                response.statusCode() + "\n" + response.asString());
+
+                        Allure.step("Проверка статуса ответа", () -> {
+                            response.then().statusCode(expectedStatus);
+
+                            String result = (expectedStatus == 200) ?
+                                    "✓ " + method + " разрешен (200 OK)" :
+                                    "✓ " + method + " запрещен (405 Method Not Allowed)";
+
+                            Allure.addAttachment("Результат", "text/plain", result);
+                        });
+                    });
                 });
-
-                Allure.step("4. Проверка статуса ответа", () -> {
-                    request.then().statusCode(expectedStatus);
-
-                    String result = (expectedStatus == 200) ?
-                            "✓ " + method + " разрешен (200 OK)" :
-                            "✓ " + method + " запрещен (405 Method Not Allowed)";
-
-                    Allure.addAttachment("Результат", "text/plain", result);
-                });
-            });
-        });
     }
 
-    @ParameterizedTest(name = "Content-Type: '{0}' → status {1}")
-    @CsvSource({
-            "application/x-www-form-urlencoded,           200",
-            "application/x-www-form-urlencoded;charset=UTF-8, 200",
-            "application/x-www-form-urlencoded; charset=utf-8, 200",
-            "application/json,                            415",
-            "text/plain,                                  415",
-            "text/html,                                   415",
-            "application/xml,                             415",
-            "APPLICATION/X-WWW-FORM-URLENCODED,           200",
-            "Application/X-Www-Form-Urlencoded,           200",
-    })
+    @TestFactory
     @Tag("041")
     @DisplayName("Валидация Content-Type заголовка")
-    void contentTypeHeaderValidation(String contentType, int expectedStatus) {
-        Allure.step("Тестирование Content-Type: " + contentType, () -> {
-            Allure.addAttachment("Content-Type", "text/plain", contentType);
-            Allure.addAttachment("Ожидаемый статус", "text/plain", String.valueOf(expectedStatus));
-
-            String token = Allure.step("1. Генерация токена", () -> {
-                String t = generateToken();
-                Allure.addAttachment("Токен", "text/plain", t);
-                return t;
-            });
-
-            Allure.step("2. Отправка запроса с указанным Content-Type", () -> {
-                String expectation = (expectedStatus == 200) ?
-                        "Должен быть принят (разрешенный формат)" :
-                        "Должен быть отклонен с 415 (неподдерживаемый формат)";
-
-                Allure.addAttachment("Ожидание", "text/plain", expectation);
-
-                given()
-                        .header("Content-Type", contentType)
-                        .formParam("token", token)
+    Stream<DynamicTest> contentTypeHeaderValidation() {
+        return MatrixSweep.csv("contentTypeHeaderValidation",
+                        "application/x-www-form-urlencoded,           200",
+                        "application/x-www-form-urlencoded;charset=UTF-8, 200",
+                        "application/x-www-form-urlencoded; charset=utf-8, 200",
+                        "application/json,                            415",
+                        "text/plain,                                  415",
+                        "text/html,                                   415",
+                        "application/xml,                             415",
+                        "APPLICATION/X-WWW-FORM-URLENCODED,           200",
+                        "Application/X-Www-Form-Urlencoded,           200")
+                .displayName(MatrixSweep.pattern("Content-Type: '{0}' → status {1}"))
+                .run(row -> givenForMatrix()
+                        .header("Content-Type", row[0])
+                        .formParam("token", generateToken())
                         .formParam("action", "LOGIN")
                         .when()
-                        .post("/endpoint")
-                        .then()
-                        .statusCode(expectedStatus);
-
-                String result = (expectedStatus == 200) ?
-                        "✓ Content-Type принят ✓" :
-                        "✓ Content-Type отклонен (415 Unsupported Media Type) ✓";
-
-                Allure.addAttachment("Результат", "text/plain", result);
-            });
-        });
+                        .post("/endpoint"), (row, response) -> {
+                    String contentType = row[0];
+                    int expectedStatus = Integer.parseInt(row[1]);
+
+                    Allure.step("Тестирование Content-Type: " + contentType, () -> {
+                        Allure.addAttachment("Content-Type", "text/plain", contentType);
+                        Allure.addAttachment("Ожидаемый статус", "text/plain", String.valueOf(expectedStatus));
+                        Allure.addAttachment("Ответ", "text/plain",
+                                response.statusCode() + "\n" + response.asString());
+
+                        Allure.step("Проверка статуса ответа", () -> {
+                            response.then().statusCode(expectedStatus);
+
+                            String result = (expectedStatus == 200) ?
+                                    "✓ Content-Type принят ✓" :
+                                    "✓ Content-Type отклонен (415 Unsupported Media Type) ✓";
+
+                            Allure.addAttachment("Результат", "text/plain", result);
+                        });
+                    });
+                });
     }
 
     @ParameterizedTest(name = "Accept header: {0} → status {1}")
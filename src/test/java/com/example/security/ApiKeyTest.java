@@ -1,12 +1,15 @@
 package com.example.security;
 
 import com.example.base.TestBase;
+import com.example.utils.MatrixSweep;
 import io.qameta.allure.*;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.stream.Stream;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static io.qameta.allure.SeverityLevel.*;
 import static io.restassured.RestAssured.given;
@@ -508,58 +511,58 @@ public class ApiKeyTest extends TestBase {
         });
     }
 
-    @ParameterizedTest(name = "API ключ: {2} → status {1}")
-    @CsvSource({
-            "qazWSXedc,           200, 'Оригинальный ключ'",
-            "'qazWSXedc\\u00E9',  401, 'Latin-1 символ é'",
-            "'qazWSXedc\\u4E2D',  401, 'Unicode символ 中'",
-            "'qazWSXedc%20',      401, 'URL encoded пробел'",
-            "'qazWSXedc+',        401, 'Plus sign'",
-            "'qazWSXedc\\0',      401, 'Null byte'",
-            "'qazWSXedc\\n',      401, 'Newline'",
-            "'qazWSXedc\\t',      401, 'Tab'",
-            "'QAZWSXEDC',         401, 'Верхний регистр'",
-            "'qazwsxedc',         401, 'Нижний регистр'",
-            "'QazWsxEdc',         401, 'Смешанный регистр'",
-            "' qazWSXedc',        401, 'Пробел в начале'",
-            "'qazWSXedc ',        401, 'Пробел в конце'",
-            "'qazWSXedc  ',       401, 'Два пробела в конце'",
-            "'',                  401, 'Пустая строка'",
-            "'   ',               401, 'Только пробелы'",
-            "'qazWSXedc'.repeat(10), 401, 'Очень длинный ключ'"
-    })
+    @TestFactory
     @Tag("064")
     @DisplayName("API ключ с разными кодировками и регистром")
-    void apiKeyEncodingsAndCase(String apiKey, int expectedStatus, String description) {
-        Allure.step("Тестирование API ключа: " + description, () -> {
-            Allure.addAttachment("Описание", "text/plain", description);
-            Allure.addAttachment("API ключ", "text/plain", apiKey);
-            Allure.addAttachment("Ожидаемый статус", "text/plain", String.valueOf(expectedStatus));
-
-            String token = Allure.step("1. Генерация токена", () -> {
-                String t = generateToken();
-                Allure.addAttachment("Токен", "text/plain", t);
-                return t;
-            });
-
-            Allure.step("2. Отправка запроса", () -> {
-                givenWithoutApiKey()
-                        .header("X-Api-Key", unescapeString(apiKey))
-                        .formParam("token", token)
+    Stream<DynamicTest> apiKeyEncodingsAndCase() {
+        return MatrixSweep.csv("apiKeyEncodingsAndCase",
+                        "qazWSXedc,           200, 'Оригинальный ключ'",
+                        "'qazWSXedc\\u00E9',  401, 'Latin-1 символ é'",
+                        "'qazWSXedc\\u4E2D',  401, 'Unicode символ 中'",
+                        "'qazWSXedc%20',      401, 'URL encoded пробел'",
+                        "'qazWSXedc+',        401, 'Plus sign'",
+                        "'qazWSXedc\\0',      401, 'Null byte'",
+                        "'qazWSXedc\\n',      401, 'Newline'",
+                        "'qazWSXedc\\t',      401, 'Tab'",
+                        "'QAZWSXEDC',         401, 'Верхний регистр'",
+                        "'qazwsxedc',         401, 'Нижний регистр'",
+                        "'QazWsxEdc',         401, 'Смешанный регистр'",
+                        "' qazWSXedc',        401, 'Пробел в начале'",
+                        "'qazWSXedc ',        401, 'Пробел в конце'",
+                        "'qazWSXedc  ',       401, 'Два пробела в конце'",
+                        "'',                  401, 'Пустая строка'",
+                        "'   ',               401, 'Только пробелы'",
+                        "'qazWSXedc'.repeat(10), 401, 'Очень длинный ключ'")
+                .displayName(MatrixSweep.pattern("API ключ: {2} → status {1}"))
+                .run(row -> givenWithoutApiKey()
+                        .noFilters()
+                        .header("X-Api-Key", unescapeString(row[0]))
+                        .formParam("token", generateToken())
                         .formParam("action", "LOGIN")
                         .when()
-                        .post("/endpoint")
-                        .then()
-                        .statusCode(expectedStatus)
-                        .log().ifValidationFails();
-
-                String result = (expectedStatus == 200) ?
-                        "✓ API ключ принят (ожидаемо)" :
-                        "✓ API ключ отклонен (ожидаемо)";
-
-                Allure.addAttachment("Результат", "text/plain", result + "\n✓ Статус: " + expectedStatus);
-            });
-        });
+                        .post("/endpoint"), (row, response) -> {
+                    String apiKey = row[0];
+                    int expectedStatus = Integer.parseInt(row[1]);
+                    String description = row[2];
+
+                    Allure.step("Тестирование API ключа: " + description, () -> {
+                        Allure.addAttachment("Описание", "text/plain", description);
+                        Allure.addAttachment("API ключ", "text/plain", apiKey);
+                        Allure.addAttachment("Ожидаемый статус", "text/plain", String.valueOf(expectedStatus));
+                        Allure.addAttachment("Ответ", "text/plain",
+                                response.statusCode() + "\n" + response.asString());
+
+                        Allure.step("Проверка статуса ответа", () -> {
+                            response.then().statusCode(expectedStatus);
+
+                            String result = (expectedStatus == 200) ?
+                                    "✓ API ключ принят (ожидаемо)" :
+                                    "✓ API ключ отклонен (ожидаемо)";
+
+                            Allure.addAttachment("Результат", "text/plain", result + "\n✓ Статус: " + expectedStatus);
+                        });
+                    });
+                });
     }
 
     private String unescapeString(String str) {
@@ -1,14 +1,19 @@
 package com.example.security;
 
 import com.example.base.TestBase;
+import com.example.utils.MatrixSweep;
+import com.example.utils.RunSeed;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import io.qameta.allure.*;
 import java.util.Random;
+import java.util.stream.Stream;
 
 import static io.qameta.allure.SeverityLevel.*;
 
@@ -23,63 +28,67 @@ import static io.qameta.allure.SeverityLevel.*;
 @Feature("Endpoint Security")
 public class EndpointSecurityTest extends TestBase {
 
-    @ParameterizedTest(name = "ENDPOINT-001: Регистр пути '{0}' → {1}")
-    @CsvSource({
-            "/endpoint,     200, 'Правильный регистр'",
-            "/ENDPOINT,     404, 'Верхний регистр'",
-            "/Endpoint,     404, 'Capitalized'",
-            "/eNdPoInT,     404, 'Случайный регистр'",
-            "/endPoint,     404, 'CamelCase'",
-            "/ENDpoint,     404, 'Частично верхний'",
-            "/endpoinT,     404, 'Последняя буква верхняя'",
-            "/end-point,    404, 'С дефисом'",
-            "/end_point,    404, 'С подчеркиванием'",
-            "/end.point,    404, 'С точкой'",
-            "/end+point,    404, 'С плюсом'",
-            "/end%20point,  404, 'С пробелом URL encoded'"
-    })
+    @TestFactory
     @Tag("065")
     @DisplayName("Регистрозависимость endpoint'а")
     @Severity(CRITICAL)
-    void endpointCaseSensitivity(String path, int expectedStatus, String description) {
-        Allure.step("Тестирование регистрозависимости: " + description, () -> {
-            Allure.addAttachment("Путь", "text/plain", path);
-            Allure.addAttachment("Описание", "text/plain", description);
-            Allure.addAttachment("Ожидаемый статус", "text/plain", String.valueOf(expectedStatus));
-
-            if (expectedStatus == 200) {
-                Allure.step("Проверка валидного пути /endpoint", () -> {
-                    String token = generateToken();
-                    Allure.addAttachment("Токен", "text/plain", token);
-
-                    given()
-                            .formParam("token", token)
-                            .formParam("action", "LOGIN")
-                            .when()
-                            .post(path)
-                            .then()
-                            .statusCode(expectedStatus)
-                            .body("result", org.hamcrest.Matchers.equalTo("OK"));
-
-                    Allure.addAttachment("Результат", "text/plain",
-                            "✓ Путь /endpoint в правильном регистре работает\n✓ Статус 200 OK");
+    Stream<DynamicTest> endpointCaseSensitivity() {
+        return MatrixSweep.csv("endpointCaseSensitivity",
+                        "/endpoint,     200, 'Правильный регистр'",
+                        "/ENDPOINT,     404, 'Верхний регистр'",
+                        "/Endpoint,     404, 'Capitalized'",
+                        "/eNdPoInT,     404, 'Случайный регистр'",
+                        "/endPoint,     404, 'CamelCase'",
+                        "/ENDpoint,     404, 'Частично верхний'",
+                        "/endpoinT,     404, 'Последняя буква верхняя'",
+                        "/end-point,    404, 'С дефисом'",
+                        "/end_point,    404, 'С подчеркиванием'",
+                        "/end.point,    404, 'С точкой'",
+                        "/end+point,    404, 'С плюсом'",
+                        "/end%20point,  404, 'С пробелом URL encoded'")
+                .displayName(MatrixSweep.pattern("ENDPOINT-001: Регистр пути '{0}' → {1}"))
+                .run(row -> "200".equals(row[1])
+                        ? givenForMatrix()
+                                .formParam("token", generateToken())
+                                .formParam("action", "LOGIN")
+                                .when()
+                                .post(row[0])
+                        : givenForMatrix()
+                                .when()
+                                .post(row[0]), (row, response) -> {
+                    String path = row[0];
+                    int expectedStatus = Integer.parseInt(row[1]);
+                    String description = row[2];
+
+                    Allure.step("Тестирование регистрозависимости: " + description, () -> {
+                        Allure.addAttachment("Путь", "text/plain", path);
+                        Allure.addAttachment("Описание", "text/plain", description);
+                        Allure.addAttachment("Ожидаемый статус", "text/plain", String.valueOf(expectedStatus));
+                        Allure.addAttachment("Ответ", "text/plain",
+                                response.statusCode() + "\n" + response.asString());
+
+                        if (expectedStatus == 200) {
+                            Allure.step("Проверка валидного пути /endpoint", () -> {
+                                response.then()
+                                        .statusCode(expectedStatus)
+                                        .body("result", org.hamcrest.Matchers.equalTo("OK"));
+
+                                Allure.addAttachment("Результат", "text/plain",
+                                        "✓ Путь /endpoint в правильном регистре работает\n✓ Статус 200 OK");
+                            });
+                        } else {
+                            Allure.step("Проверка неверного пути: " + path, () -> {
+                                Allure.addAttachment("Ожидание", "text/plain",
+                                        "Путь в неправильном регистре должен вернуть 404");
+
+                                response.then().statusCode(expectedStatus);
+
+                                Allure.addAttachment("Результат", "text/plain",
+                                        "✓ Путь " + path + " отклонен\n✓ Статус 404 Not Found");
+                            });
+                        }
+                    });
                 });
-            } else {
-                Allure.step("Проверка неверного пути: " + path, () -> {
-                    Allure.addAttachment("Ожидание", "text/plain",
-                            "Путь в неправильном регистре должен вернуть 404");
-
-                    given()
-                            .when()
-                            .post(path)
-                            .then()
-                            .statusCode(expectedStatus);
-
-                    Allure.addAttachment("Результат", "text/plain",
-                            "✓ Путь " + path + " отклонен\n✓ Статус 404 Not Found");
-                });
-            }
-        });
     }
 
     @ParameterizedTest(name = "ENDPOINT-002: Path traversal '{0}' → 404")
@@ -301,7 +310,7 @@ public class EndpointSecurityTest extends TestBase {
     @Severity(MINOR)
     void randomPathsShouldReturn404(int iteration) {
         Allure.step("Тестирование случайного пути #" + iteration, () -> {
-            Random random = new Random(iteration);
+            Random random = RunSeed.random("randomPaths-" + iteration);
             String randomPath = "/" + random.ints(97, 123)
                     .limit(random.nextInt(10) + 5)
                     .collect(StringBuilder::new,
@@ -0,0 +1,297 @@
+package com.example.tracing;
+
+import com.example.load.EndpointRequest;
+import com.example.load.EndpointResponse;
+import com.example.load.ResponseListener;
+import com.example.mock.UpstreamTimeline;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Деревья спанов по каждому запросу к /endpoint без внешнего бэкенда трассировки.
+ *
+ * Корень - вызов клиента (span id из отправленного traceparent). Визиты сервиса к /auth и /doAction
+ * с тем же token ({@link UpstreamTimeline}) привязываются к запросу:
+ * - по trace id из traceparent, который сервис переслал (PROPAGATED), независимо от времени визита. Если parent id
+ *   в нем не равен span id клиента, сервис создал свой спан - он добавляется в дерево (границы - окно клиента);
+ * - если с trace id запроса визитов нет - по попаданию в окно запроса: заголовка нет (NOT_FORWARDED)
+ *   или в нем другой трейс (NEW_TRACE).
+ *
+ * Экспорт - Zipkin v2 JSON (открывается в Zipkin/Jaeger UI), медленные запросы - текстовым деревом.
+ * Подключается как {@link ResponseListener}. С создания и до {@link #close()} включает запись визитов в timeline
+ */
+public class TraceCollector implements ResponseListener, AutoCloseable {
+
+    public enum Propagation {
+        PROPAGATED,
+        NEW_TRACE,
+        NOT_FORWARDED
+    }
+
+    private final UpstreamTimeline timeline;
+    private final ConcurrentLinkedQueue<Call> calls = new ConcurrentLinkedQueue<>();
+    // Привязка System.nanoTime к эпохе для временных меток экспорта
+    private final long anchorEpochMicros = System.currentTimeMillis() * 1000;
+    private final long anchorNanos = System.nanoTime();
+
+    public TraceCollector(UpstreamTimeline timeline) {
+        this.timeline = timeline;
+        timeline.attach();
+    }
+
+    @Override
+    public void onResponse(EndpointRequest request, EndpointResponse response) {
+        record(TraceContext.parse(request.headers().get(TraceContext.HEADER)), request.token(), request.action(),
+                response.status(), response.startNanos(), response.startNanos() + response.latencyNanos());
+    }
+
+    /**
+     * Запрос, отправленный в обход LoadRunner (например, REST Assured с заданным traceparent)
+     */
+    public void record(TraceContext context, String token, String action, int status, long startNanos, long endNanos) {
+        if (context != null) {
+            calls.add(new Call(context, token, action, status, startNanos, endNanos));
+        }
+    }
+
+    /**
+     * Остановить запись визитов; деревья по уже записанным строятся как прежде
+     */
+    @Override
+    public void close() {
+        timeline.detach();
+    }
+
+    /**
+     * Построить деревья по всем запросам; вызывать после прогона
+     */
+    public List<Trace> traces() {
+        List<Trace> traces = new ArrayList<>();
+        for (Call call : calls) {
+            traces.add(build(call));
+        }
+        return traces;
+    }
+
+    private Trace build(Call call) {
+        String traceId = call.context.traceId();
+        Span root = new Span(traceId, call.context.spanId(), null, "POST /endpoint " + call.action, "harness", "CLIENT",
+                call.start, call.end - call.start, tags("action", call.action, "status", String.valueOf(call.status),
+                "token", call.token));
+        List<Span> spans = new ArrayList<>();
+        spans.add(root);
+        List<Hop> hops = new ArrayList<>();
+        Map<String, Span> serviceSpans = new LinkedHashMap<>();
+
+        for (UpstreamTimeline.Visit visit : linkedVisits(call)) {
+            TraceContext forwarded = TraceContext.parse(visit.traceparent());
+            Propagation propagation = forwarded == null ? Propagation.NOT_FORWARDED
+                    : forwarded.traceId().equals(traceId) ? Propagation.PROPAGATED : Propagation.NEW_TRACE;
+
+            String parent = root.id();
+            if (propagation == Propagation.PROPAGATED && !forwarded.spanId().equals(root.id())) {
+                Span service = serviceSpans.computeIfAbsent(forwarded.spanId(), id -> new Span(traceId, id, root.id(),
+                        "service /endpoint " + call.action, "service", "SERVER", call.start, call.end - call.start,
+                        tags("approximate", "true")));
+                parent = service.id();
+            }
+            long departure = Math.min(visit.departureNanos(), call.end);
+            Span hop = new Span(traceId, TraceContext.randomHex(8), parent, "POST " + visit.url(), "external-api", "SERVER",
+                    visit.arrivalNanos(), departure - visit.arrivalNanos(),
+                    tags("status", String.valueOf(visit.status()), "propagation", propagation.name(),
+                            "traceparent", String.valueOf(visit.traceparent())));
+            hops.add(new Hop(hop, propagation));
+        }
+        spans.addAll(serviceSpans.values());
+        hops.forEach(h -> spans.add(h.span));
+        return new Trace(call, root, spans, hops);
+    }
+
+    // Сначала визиты с trace id запроса; если их нет - визиты token внутри окна запроса
+    private List<UpstreamTimeline.Visit> linkedVisits(Call call) {
+        List<UpstreamTimeline.Visit> visits = timeline.visits(call.token);
+        List<UpstreamTimeline.Visit> byTrace = new ArrayList<>();
+        List<UpstreamTimeline.Visit> inWindow = new ArrayList<>();
+        for (UpstreamTimeline.Visit visit : visits) {
+            TraceContext forwarded = TraceContext.parse(visit.traceparent());
+            if (forwarded != null && forwarded.traceId().equals(call.context.traceId())) {
+                byTrace.add(visit);
+            } else if (visit.arrivalNanos() >= call.start && visit.arrivalNanos() <= call.end) {
+                inWindow.add(visit);
+            }
+        }
+        return byTrace.isEmpty() ? inWindow : byTrace;
+    }
+
+    private static Map<String, String> tags(String... pairs) {
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < pairs.length; i += 2) {
+            tags.put(pairs[i], pairs[i + 1]);
+        }
+        return tags;
+    }
+
+    /**
+     * Сколько визитов к внешнему API пришло с каждым видом распространения контекста
+     */
+    public static Map<Propagation, Long> propagation(List<Trace> traces) {
+        Map<Propagation, Long> counts = new LinkedHashMap<>();
+        for (Propagation value : Propagation.values()) {
+            counts.put(value, 0L);
+        }
+        for (Trace trace : traces) {
+            for (Hop hop : trace.hops) {
+                counts.merge(hop.propagation, 1L, Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Текстовые деревья n самых медленных запросов
+     */
+    public static String slowest(List<Trace> traces, int n) {
+        StringBuilder text = new StringBuilder();
+        traces.stream()
+                .sorted(Comparator.comparingLong((Trace t) -> t.root.durationNanos()).reversed())
+                .limit(n)
+                .forEach(trace -> text.append(trace.format()).append('\n'));
+        return text.toString();
+    }
+
+    /**
+     * Экспорт в Zipkin v2 JSON (массив спанов)
+     */
+    public Path exportZipkin(List<Trace> traces, Path file) throws IOException {
+        StringBuilder json = new StringBuilder("[\n");
+        boolean first = true;
+        for (Trace trace : traces) {
+            for (Span span : trace.spans) {
+                json.append(first ? "" : ",\n").append(zipkin(span));
+                first = false;
+            }
+        }
+        json.append("\n]\n");
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, json);
+        return file;
+    }
+
+    private String zipkin(Span span) {
+        StringBuilder json = new StringBuilder("  {\"traceId\":\"").append(span.traceId)
+                .append("\",\"id\":\"").append(span.id).append('"');
+        if (span.parentId != null) {
+            json.append(",\"parentId\":\"").append(span.parentId).append('"');
+        }
+        json.append(",\"name\":\"").append(escape(span.name))
+                .append("\",\"kind\":\"").append(span.kind)
+                .append("\",\"timestamp\":").append(anchorEpochMicros + (span.startNanos - anchorNanos) / 1000)
+                .append(",\"duration\":").append(Math.max(1, span.durationNanos / 1000))
+                .append(",\"localEndpoint\":{\"serviceName\":\"").append(escape(span.service)).append("\"}")
+                .append(",\"tags\":{");
+        boolean first = true;
+        for (Map.Entry<String, String> tag : span.tags.entrySet()) {
+            json.append(first ? "" : ",").append('"').append(escape(tag.getKey())).append("\":\"")
+                    .append(escape(tag.getValue())).append('"');
+            first = false;
+        }
+        return json.append("}}").toString();
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                default -> {
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+
+    private record Call(TraceContext context, String token, String action, int status, long start, long end) {
+    }
+
+    private record Hop(Span span, Propagation propagation) {
+    }
+
+    /**
+     * Спан: время в System.nanoTime этого JVM
+     */
+    public record Span(String traceId, String id, String parentId, String name, String service, String kind,
+                       long startNanos, long durationNanos, Map<String, String> tags) {
+    }
+
+    /**
+     * Дерево одного запроса
+     */
+    public static final class Trace {
+
+        private final Call call;
+        private final Span root;
+        private final List<Span> spans;
+        private final List<Hop> hops;
+
+        private Trace(Call call, Span root, List<Span> spans, List<Hop> hops) {
+            this.call = call;
+            this.root = root;
+            this.spans = spans;
+            this.hops = hops;
+        }
+
+        public Span root() {
+            return root;
+        }
+
+        public List<Span> spans() {
+            return spans;
+        }
+
+        public int hops() {
+            return hops.size();
+        }
+
+        /**
+         * Дерево с промежутками сервиса между визитами, смещения - от начала запроса
+         */
+        public String format() {
+            StringBuilder text = new StringBuilder(String.format("%s %.1f ms status=%d trace=%s%n",
+                    root.name, millis(root.durationNanos), call.status, root.traceId));
+            long cursor = root.startNanos;
+            List<Hop> ordered = new ArrayList<>(hops);
+            ordered.sort(Comparator.comparingLong(h -> h.span.startNanos));
+            for (Hop hop : ordered) {
+                text.append(String.format("  +%7.1f  service        %7.1f ms%n",
+                        millis(cursor - root.startNanos), millis(hop.span.startNanos - cursor)));
+                text.append(String.format("  +%7.1f  %-14s %7.1f ms  status=%s %s%n",
+                        millis(hop.span.startNanos - root.startNanos), hop.span.name, millis(hop.span.durationNanos),
+                        hop.span.tags.get("status"), hop.propagation));
+                cursor = hop.span.startNanos + hop.span.durationNanos;
+            }
+            text.append(String.format("  +%7.1f  service        %7.1f ms%n",
+                    millis(cursor - root.startNanos), millis(root.startNanos + root.durationNanos - cursor)));
+            return text.toString();
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
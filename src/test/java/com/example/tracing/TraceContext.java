@@ -0,0 +1,66 @@
+package com.example.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * W3C Trace Context: заголовок traceparent "00-&lt;trace-id 32 hex&gt;-&lt;parent-id 16 hex&gt;-&lt;flags&gt;".
+ * Harness отправляет его с каждым запросом нагрузки к /endpoint (отключается -Dtracing.enabled=false),
+ * с запросами REST Assured - только при -Dtracing.restAssured=true или через {@link TraceparentFilter}
+ */
+public record TraceContext(String traceId, String spanId, boolean sampled) {
+
+    public static final String HEADER = "traceparent";
+
+    private static final Pattern FORMAT = Pattern.compile("^00-([0-9a-f]{32})-([0-9a-f]{16})-([0-9a-f]{2})$");
+    private static final String INVALID_TRACE = "0".repeat(32);
+    private static final String INVALID_SPAN = "0".repeat(16);
+
+    public static boolean enabled() {
+        return !"false".equals(System.getProperty("tracing.enabled"));
+    }
+
+    /**
+     * Глобальный {@link TraceparentFilter} для всех запросов REST Assured (по умолчанию выключен)
+     */
+    public static boolean restAssured() {
+        return enabled() && Boolean.getBoolean("tracing.restAssured");
+    }
+
+    /**
+     * Новый корневой контекст (новый трейс, выборка включена)
+     */
+    public static TraceContext newRoot() {
+        return new TraceContext(randomHex(16), randomHex(8), true);
+    }
+
+    /**
+     * Разбор заголовка; null - заголовок отсутствует или не соответствует версии 00
+     */
+    public static TraceContext parse(String header) {
+        if (header == null) {
+            return null;
+        }
+        Matcher matcher = FORMAT.matcher(header.trim());
+        if (!matcher.matches() || INVALID_TRACE.equals(matcher.group(1)) || INVALID_SPAN.equals(matcher.group(2))) {
+            return null;
+        }
+        return new TraceContext(matcher.group(1), matcher.group(2), (Integer.parseInt(matcher.group(3), 16) & 1) == 1);
+    }
+
+    public String traceparent() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    static String randomHex(int bytes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder hex = new StringBuilder(bytes * 2);
+        for (int i = 0; i < bytes; i++) {
+            int b = random.nextInt(256);
+            hex.append(Character.forDigit(b >> 4, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        // Нулевые идентификаторы запрещены спецификацией
+        return hex.toString().matches("0+") ? randomHex(bytes) : hex.toString();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.tracing;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Фильтр REST Assured: новый traceparent на каждый запрос, если тест не задал свой.
+ * Глобально подключается только при -Dtracing.restAssured=true, иначе - given().filter(new TraceparentFilter())
+ */
+public class TraceparentFilter implements Filter {
+
+    @Override
+    public Response filter(FilterableRequestSpecification request, FilterableResponseSpecification response,
+                           FilterContext context) {
+        if (TraceContext.enabled() && !request.getHeaders().hasHeaderWithName(TraceContext.HEADER)) {
+            request.header(TraceContext.HEADER, TraceContext.newRoot().traceparent());
+        }
+        return context.next(request, response);
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.utils;
+
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.DynamicTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Матричный прогон параметризованного теста: все строки таблицы отправляются одной
+ * параллельной волной, а проверки выполняются уже по готовым ответам.
+ *
+ * Используется из {@code @TestFactory}: {@code setUp()} (resetAll, заглушки, логирование)
+ * выполняется один раз на всю матрицу, а каждая строка остается отдельным
+ * {@link DynamicTest} и отдельным результатом в Allure.
+ *
+ * Степень параллелизма задается -Dmatrix.concurrency (по умолчанию 8, 1 = последовательно).
+ */
+public final class MatrixSweep<T> {
+
+    private static final int DEFAULT_CONCURRENCY = Integer.getInteger("matrix.concurrency", 8);
+
+    private final String name;
+    private final List<T> rows;
+    private int concurrency = DEFAULT_CONCURRENCY;
+    private Function<T, String> displayName = MatrixSweep::describe;
+
+    private MatrixSweep(String name, List<T> rows) {
+        this.name = name;
+        this.rows = List.copyOf(rows);
+    }
+
+    public static <T> MatrixSweep<T> of(String name, List<T> rows) {
+        return new MatrixSweep<>(name, rows);
+    }
+
+    /**
+     * Матрица из строк в формате {@code @CsvSource}: значения через запятую,
+     * одинарные кавычки сохраняют пробелы и запятые, {@code ''} - пустая строка,
+     * пустое значение без кавычек - null
+     */
+    public static MatrixSweep<String[]> csv(String name, String... lines) {
+        List<String[]> rows = new ArrayList<>(lines.length);
+        for (String line : lines) {
+            rows.add(parseCsvLine(line));
+        }
+        return new MatrixSweep<>(name, rows);
+    }
+
+    /**
+     * Имя строки по шаблону в стиле {@code @ParameterizedTest(name = ...)}: {0}, {1}, ...
+     */
+    public static Function<String[], String> pattern(String pattern) {
+        return row -> {
+            String result = pattern;
+            for (int i = 0; i < row.length; i++) {
+                result = result.replace("{" + i + "}", String.valueOf(row[i]));
+            }
+            return result;
+        };
+    }
+
+    public MatrixSweep<T> concurrency(int concurrency) {
+        this.concurrency = Math.max(1, concurrency);
+        return this;
+    }
+
+    public MatrixSweep<T> displayName(Function<T, String> displayName) {
+        this.displayName = displayName;
+        return this;
+    }
+
+    /**
+     * Выполнить запросы всех строк параллельно и вернуть по одному DynamicTest на строку.
+     * Исключение из {@code request} не прерывает прогон: оно пробрасывается в тесте своей строки.
+     *
+     * @param request      запрос для строки (выполняется в пуле, без контекста Allure)
+     * @param verification проверки для строки (выполняются в потоке теста, с шагами Allure)
+     */
+    public <R> Stream<DynamicTest> run(Function<T, R> request, BiConsumer<T, R> verification) {
+        List<Outcome<R>> outcomes = sweep(request);
+
+        List<DynamicTest> tests = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            T row = rows.get(i);
+            Outcome<R> outcome = outcomes.get(i);
+            tests.add(DynamicTest.dynamicTest(displayName.apply(row), () -> {
+                Allure.addAttachment("Строка матрицы", "text/plain", describe(row));
+                Allure.addAttachment("Время запроса", "text/plain",
+                        String.format("%.1f мс (параллельный прогон, %d потоков)",
+                                outcome.elapsedNanos / 1_000_000.0, Math.min(concurrency, rows.size())));
+                if (outcome.error != null) {
+                    throw outcome.error;
+                }
+                verification.accept(row, outcome.value);
+            }));
+        }
+        return tests.stream();
+    }
+
+    private <R> List<Outcome<R>> sweep(Function<T, R> request) {
+        int threads = Math.min(concurrency, Math.max(1, rows.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "matrix-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long started = System.nanoTime();
+        try {
+            List<Future<Outcome<R>>> futures = new ArrayList<>(rows.size());
+            for (T row : rows) {
+                futures.add(executor.submit(() -> execute(request, row)));
+            }
+
+            List<Outcome<R>> outcomes = new ArrayList<>(rows.size());
+            for (Future<Outcome<R>> future : futures) {
+                outcomes.add(future.get());
+            }
+
+            System.out.printf("=== [MATRIX] %s: %d rows in %d ms (%d threads) ===%n",
+                    name, rows.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), threads);
+            return outcomes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Matrix sweep interrupted: " + name, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Matrix sweep failed: " + name, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T, R> Outcome<R> execute(Function<T, R> request, T row) {
+        long start = System.nanoTime();
+        try {
+            R value = request.apply(row);
+            return new Outcome<>(value, null, System.nanoTime() - start);
+        } catch (Throwable e) {
+            return new Outcome<>(null, e, System.nanoTime() - start);
+        }
+    }
+
+    private static String describe(Object row) {
+        return row instanceof Object[] ? Arrays.toString((Object[]) row) : String.valueOf(row);
+    }
+
+    static String[] parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        StringBuilder pendingSpace = new StringBuilder();
+        boolean quoted = false;
+        boolean inQuotes = false;
+
+        for (char c : line.toCharArray()) {
+            if (inQuotes) {
+                if (c == '\'') {
+                    inQuotes = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '\'') {
+                flushSpace(current, pendingSpace);
+                inQuotes = true;
+                quoted = true;
+            } else if (c == ',') {
+                values.add(quoted || current.length() > 0 ? current.toString() : null);
+                current.setLength(0);
+                pendingSpace.setLength(0);
+                quoted = false;
+            } else if (Character.isWhitespace(c)) {
+                pendingSpace.append(c);
+            } else {
+                flushSpace(current, pendingSpace);
+                current.append(c);
+            }
+        }
+        if (inQuotes) {
+            throw new IllegalArgumentException("Unterminated quote in matrix row: " + line);
+        }
+        values.add(quoted || current.length() > 0 ? current.toString() : null);
+        return values.toArray(new String[0]);
+    }
+
+    // Пробелы вне кавычек сохраняются только между значимыми символами (как trim в @CsvSource)
+    private static void flushSpace(StringBuilder current, StringBuilder pendingSpace) {
+        if (current.length() > 0) {
+            current.append(pendingSpace);
+        }
+        pendingSpace.setLength(0);
+    }
+
+    private static final class Outcome<R> {
+        final R value;
+        final Throwable error;
+        final long elapsedNanos;
+
+        Outcome(R value, Throwable error, long elapsedNanos) {
+            this.value = value;
+            this.error = error;
+            this.elapsedNanos = elapsedNanos;
+        }
+    }
+}
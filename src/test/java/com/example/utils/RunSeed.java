@@ -0,0 +1,93 @@
+package com.example.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Единый seed прогона, от которого порождаются все генераторы случайных данных.
+ * Задается через -Dtest.seed=..., иначе выбирается случайно и печатается в лог,
+ * чтобы упавший или медленный прогон можно было воспроизвести
+ */
+public final class RunSeed {
+
+    private static final long SEED = resolve();
+    private static volatile boolean published;
+
+    private RunSeed() {
+    }
+
+    public static long seed() {
+        return SEED;
+    }
+
+    /**
+     * Детерминированный seed для конкретного генератора (scope - его имя)
+     */
+    public static long derive(String scope) {
+        long h = SEED;
+        for (int i = 0; i < scope.length(); i++) {
+            h = h * 31 + scope.charAt(i);
+        }
+        return mix(h);
+    }
+
+    /**
+     * Новый генератор, порожденный от seed прогона
+     */
+    public static Random random(String scope) {
+        return new Random(derive(scope));
+    }
+
+    /**
+     * Напечатать seed и добавить его в environment.properties отчета Allure (один раз за прогон)
+     */
+    public static synchronized void publish() {
+        if (published) {
+            return;
+        }
+        published = true;
+        System.out.println("=== [INFO] Run seed: " + SEED + " (reproduce with -Dtest.seed=" + SEED + ") ===");
+
+        String resultsDir = System.getProperty("allure.results.directory");
+        if (resultsDir == null) {
+            return;
+        }
+        try {
+            Path dir = Paths.get(resultsDir);
+            Files.createDirectories(dir);
+            // Остальные свойства окружения (записанные до нас или другими инструментами) сохраняются
+            Path file = dir.resolve("environment.properties");
+            List<String> lines = new ArrayList<>();
+            if (Files.exists(file)) {
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    if (!line.startsWith("test.seed=")) {
+                        lines.add(line);
+                    }
+                }
+            }
+            lines.add("test.seed=" + SEED);
+            Files.write(file, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println("=== [WARN] Cannot write run seed to Allure environment: " + e.getMessage() + " ===");
+        }
+    }
+
+    private static long resolve() {
+        Long configured = Long.getLong("test.seed");
+        return configured != null ? configured : new SecureRandom().nextLong();
+    }
+
+    // SplitMix64 finalizer: близкие scope дают несвязанные seed'ы
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
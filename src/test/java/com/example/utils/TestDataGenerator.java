@@ -1,6 +1,5 @@
 package com.example.utils;
 
-import java.security.SecureRandom;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -10,10 +9,21 @@ import java.util.stream.IntStream;
  */
 public class TestDataGenerator {
 
-    private static final SecureRandom RANDOM = new SecureRandom();
+    // Порожден от seed прогона (см. RunSeed), чтобы данные можно было воспроизвести;
+    // перед каждым тестом пересоздается от его идентификатора (см. reseed)
+    private static volatile Random testRandom = RunSeed.random("TestDataGenerator");
     private static final String VALID_CHARS = "0123456789ABCDEF";
     private static final String ALL_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!@#$%^&*()_+-=[]{}|;:,.<>?";
 
+    /**
+     * Пересоздать общий генератор от seed прогона и идентификатора теста (класс, метод, вызов).
+     * Порядок тестов меняется от прогона к прогону (HistoryClassOrderer/HistoryMethodOrderer),
+     * а данные каждого теста должны зависеть только от seed и самого теста
+     */
+    public static void reseed(String testId) {
+        testRandom = RunSeed.random("TestDataGenerator:" + testId);
+    }
+
     /**
      * Генерирует валидный токен (32 символа A-Z0-9)
      */
@@ -21,13 +31,28 @@ public class TestDataGenerator {
         return generateToken(32, VALID_CHARS);
     }
 
+    /**
+     * Генерирует валидный токен из собственного генератора потока
+     * (нагрузочные воркеры, порядок которых не детерминирован)
+     */
+    public static String generateValidToken(Random random) {
+        return generateToken(32, VALID_CHARS, random);
+    }
+
     /**
      * Генерирует токен указанной длины
      */
     public static String generateToken(int length, String characters) {
+        return generateToken(length, characters, testRandom);
+    }
+
+    /**
+     * Генерирует токен указанной длины из заданного генератора
+     */
+    public static String generateToken(int length, String characters, Random random) {
         StringBuilder token = new StringBuilder(length);
         for (int i = 0; i < length; i++) {
-            token.append(characters.charAt(RANDOM.nextInt(characters.length())));
+            token.append(characters.charAt(random.nextInt(characters.length())));
         }
         return token.toString();
     }
@@ -52,6 +77,13 @@ public class TestDataGenerator {
         return generateToken(length, VALID_CHARS);
     }
 
+    /**
+     * Генерирует токен неправильной длины из заданного генератора (воспроизводимо по seed)
+     */
+    public static String generateWrongLengthToken(int length, Random random) {
+        return generateToken(length, VALID_CHARS, random);
+    }
+
     /**
      * Генерирует список валидных токенов
      */
@@ -187,7 +219,7 @@ public class TestDataGenerator {
 
         // Binary data
         byte[] binaryData = new byte[32];
-        RANDOM.nextBytes(binaryData);
+        testRandom.nextBytes(binaryData);
         tokens.put("binary_data", new String(binaryData));
 
         return tokens;